@@ -0,0 +1,37 @@
+package com.rentadsearchqa.benchmarks;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.standin.SyntheticAdGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic ad cards for the benchmarks, built from the stand-in generator so the
+ * text matches what the site renders (e.g. "1.200 €", "85 τ.μ.").
+ */
+final class AdCardFixtures {
+
+    static final long SEED = 42L;
+
+    private AdCardFixtures() {
+    }
+
+    /**
+     * Build ad cards in ascending price order, as a sorted results listing would show them
+     *
+     * @param count Number of cards
+     * @return The cards
+     */
+    static List<AdCard> sortedByPrice(int count) {
+        SyntheticAdGenerator ads = new SyntheticAdGenerator(count, SEED);
+        List<AdCard> cards = new ArrayList<>(count);
+        for (int position = 0; position < count; position++) {
+            int index = ads.getIndexByPrice(position);
+            cards.add(new AdCard(String.valueOf(ads.getAdId(index)), ads.getTitle(index),
+                    SyntheticAdGenerator.formatPrice(ads.getPrice(index)), ads.getSize(index) + " τ.μ.",
+                    ads.getImageCount(index)));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,115 @@
+package com.rentadsearchqa.benchmarks;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compare a JMH JSON result with a stored baseline and fail on regressions.
+ *
+ * Usage: BaselineCheck baseline.json result.json [maxRatio]
+ * Every benchmark (with its parameters) present in both files is listed with its
+ * score ratio; the exit code is 1 when any ratio exceeds maxRatio (default 1.25).
+ * All benchmarks are timed (lower is better).
+ *
+ * Usage: BaselineCheck --save result.json baseline.json
+ * Stores a result as the new baseline without the fields describing the machine it ran on
+ * (JVM path, arguments and version), which only the scores are compared against anyway.
+ */
+public final class BaselineCheck {
+
+    private static final Set<String> ENVIRONMENT_FIELDS = Set.of("jvm", "jvmArgs", "jdkVersion", "vmName", "vmVersion");
+
+    private BaselineCheck() {
+    }
+
+    /**
+     * Compare a result with the baseline, or store a result as the baseline with --save
+     *
+     * @param args See the class description
+     * @throws IOException If a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("--save")) {
+            save(args[1], args[2]);
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck baseline.json result.json [maxRatio]");
+            System.err.println("       BaselineCheck --save result.json baseline.json");
+            System.exit(2);
+        }
+        Map<String, Double> baseline = scores(args[0]);
+        Map<String, Double> result = scores(args[1]);
+        double maxRatio = args.length > 2 ? Double.parseDouble(args[2]) : 1.25;
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : new TreeMap<>(result).entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null || before == 0) {
+                System.out.printf("%-70s %12.3f   (no baseline)%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double ratio = entry.getValue() / before;
+            boolean regressed = ratio > maxRatio;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-70s %12.3f -> %12.3f  x%.2f%s%n", entry.getKey(), before, entry.getValue(), ratio,
+                    regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmarks regressed by more than x" + maxRatio);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Write a result to the baseline file without its environment fields
+     */
+    private static void save(String resultFile, String baselineFile) throws IOException {
+        List<Map<String, Object>> runs = read(resultFile);
+        for (Map<String, Object> run : runs) {
+            run.keySet().removeAll(ENVIRONMENT_FIELDS);
+        }
+        Files.write(Paths.get(baselineFile), (new Json().toJson(runs) + "\n").getBytes(StandardCharsets.UTF_8));
+        System.out.println("Saved " + runs.size() + " benchmarks to " + baselineFile);
+    }
+
+    private static List<Map<String, Object>> read(String file) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        List<Map<String, Object>> parsed = new Json().toType(text, Json.LIST_OF_MAPS_TYPE);
+        List<Map<String, Object>> runs = new ArrayList<>(parsed.size());
+        for (Map<String, Object> run : parsed) {
+            runs.add(new LinkedHashMap<>(run));
+        }
+        return runs;
+    }
+
+    /**
+     * Read the primary scores of a JMH JSON result, keyed by benchmark name and parameters
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> scores(String file) throws IOException {
+        List<Map<String, Object>> runs = read(file);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (Map<String, Object> run : runs) {
+            String key = String.valueOf(run.get("benchmark"))
+                    .replace("com.rentadsearchqa.benchmarks.", "");
+            Object params = run.get("params");
+            if (params instanceof Map) {
+                key += new TreeMap<>((Map<String, Object>) params);
+            }
+            Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+            scores.put(key, ((Number) metric.get("score")).doubleValue());
+        }
+        return scores;
+    }
+}
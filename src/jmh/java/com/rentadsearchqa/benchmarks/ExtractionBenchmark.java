@@ -0,0 +1,125 @@
+package com.rentadsearchqa.benchmarks;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.validation.NumericExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Price and size extraction from ad card text: the NumericExtractor used by StreamingResultsValidator
+ * against the regex patterns it replaced. Reported per card (1000 cards per invocation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    private static final int CARDS = 1000;
+    private static final Pattern PRICE_PATTERN = Pattern.compile("(\\d+)\\s*€");
+    private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)\\s*τ\\.μ\\.");
+
+    private String[] prices;
+    private String[] sizes;
+
+    @Setup
+    public void setup() {
+        List<AdCard> cards = AdCardFixtures.sortedByPrice(CARDS);
+        prices = new String[CARDS];
+        sizes = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            prices[i] = cards.get(i).getRawPrice();
+            sizes[i] = cards.get(i).getRawSize();
+        }
+    }
+
+    /**
+     * Character scan into hundredths (current validator)
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public long extractorPrice() {
+        long sum = 0;
+        for (String price : prices) {
+            sum += NumericExtractor.GREEK.extractHundredths(price, NumericExtractor.Unit.EUROS);
+        }
+        return sum;
+    }
+
+    /**
+     * Character scan into hundredths (current validator)
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public long extractorSize() {
+        long sum = 0;
+        for (String size : sizes) {
+            sum += NumericExtractor.GREEK.extractHundredths(size, NumericExtractor.Unit.SQUARE_METERS);
+        }
+        return sum;
+    }
+
+    /**
+     * Precompiled pattern, one Matcher per value
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public long regexPrice() {
+        long sum = 0;
+        for (String price : prices) {
+            Matcher matcher = PRICE_PATTERN.matcher(price);
+            if (matcher.find()) {
+                sum += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Pattern compiled for every value, as the original per-page loop in properties did
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public long regexPriceCompiledPerValue() {
+        long sum = 0;
+        for (String price : prices) {
+            Matcher matcher = Pattern.compile("(\\d+)\\s*€").matcher(price);
+            if (matcher.find()) {
+                sum += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Precompiled pattern, one Matcher per value
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public long regexSize() {
+        long sum = 0;
+        for (String size : sizes) {
+            Matcher matcher = SIZE_PATTERN.matcher(size);
+            if (matcher.find()) {
+                sum += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return sum;
+    }
+}
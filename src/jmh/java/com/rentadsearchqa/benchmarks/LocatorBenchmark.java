@@ -0,0 +1,69 @@
+package com.rentadsearchqa.benchmarks;
+
+import com.rentadsearchqa.utils.Locator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XPath and By construction for the templated locators of SearchPage and ResultsPage,
+ * compared with building the strings by concatenation on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmark {
+
+    // Same templates as the page classes, so Locator.of returns the interned instances
+    private static final String BUTTON_DROPDOWN_OPTION = "//button[contains(@data-testid,'dropdown_option')]";
+    private static final Locator BUTTON_DROPDOWN_OPTION_TEXT = Locator.of(BUTTON_DROPDOWN_OPTION + "[.='{}']");
+    private static final Locator SPAN_AD_PRICE = Locator.of(
+            "//span[@data-testid='{}-ad-price']", "span[data-testid='{}-ad-price']");
+
+    private String area = "Παγκράτι";
+    private String item = "property";
+
+    /**
+     * Dropdown option XPath from the interned Locator (current page classes)
+     */
+    @Benchmark
+    public String dropdownOptionXpath() {
+        return BUTTON_DROPDOWN_OPTION_TEXT.xpath(area);
+    }
+
+    /**
+     * Dropdown option XPath concatenated on every call
+     */
+    @Benchmark
+    public String dropdownOptionXpathConcatenated() {
+        return BUTTON_DROPDOWN_OPTION + "[.='" + area + "']";
+    }
+
+    /**
+     * Ad price By from the interned Locator (current page classes)
+     */
+    @Benchmark
+    public By adPriceBy() {
+        return SPAN_AD_PRICE.by(item);
+    }
+
+    /**
+     * Ad price By.xpath built from a concatenated string on every call
+     */
+    @Benchmark
+    public By adPriceByConcatenated() {
+        return By.xpath("//span[@data-testid='" + item + "-ad-price']");
+    }
+}
@@ -0,0 +1,88 @@
+package com.rentadsearchqa.benchmarks;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.standin.StandInServer;
+import com.rentadsearchqa.validation.ResultsValidator;
+import com.rentadsearchqa.validation.StreamingResultsValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of result sets of 10 to 1,000,000 synthetic ads with the StreamingResultsValidator
+ * the suite runs: range, sort order, image limit and the duplicate-id index across pages.
+ * The ads are split into results pages of 30 like the site's; every ad is valid, so every
+ * ad is parsed, compared and indexed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ValidationBenchmark {
+
+    private static final List<Map<String, String>> FILTERS = List.of(
+            Map.of("title", "price", "min", "0", "max", "1000000"),
+            Map.of("title", "size", "min", "0", "max", "100000"));
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int cards;
+
+    private final ResultsValidator resultsValidator = new ResultsValidator();
+    private List<List<AdCard>> pages;
+
+    /**
+     * Split the sorted, valid ads into results pages once per parameter value
+     */
+    @Setup
+    public void setup() {
+        List<AdCard> sortedCards = AdCardFixtures.sortedByPrice(cards);
+        pages = new ArrayList<>();
+        for (int from = 0; from < sortedCards.size(); from += StandInServer.PAGE_SIZE) {
+            pages.add(sortedCards.subList(from, Math.min(from + StandInServer.PAGE_SIZE, sortedCards.size())));
+        }
+    }
+
+    /**
+     * Whole pages fed with acceptPage, as pages read on extra sessions are validated
+     */
+    @Benchmark
+    public StreamingResultsValidator acceptPages() {
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        for (int page = 0; page < pages.size(); page++) {
+            List<AdCard> adCards = pages.get(page);
+            validation.acceptPage(page + 1, adCards, ResultsValidator.imageCounts(adCards));
+        }
+        return validation;
+    }
+
+    /**
+     * Pages fed in lazy-load batches of 10 with acceptBatch, as the test's own session validates them
+     */
+    @Benchmark
+    public StreamingResultsValidator acceptBatches() {
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        for (int page = 0; page < pages.size(); page++) {
+            List<AdCard> adCards = pages.get(page);
+            for (int from = 0; from < adCards.size(); from += StandInServer.LAZY_BATCH) {
+                List<AdCard> batch = adCards.subList(from, Math.min(from + StandInServer.LAZY_BATCH, adCards.size()));
+                validation.acceptBatch(page + 1, batch, ResultsValidator.imageCounts(batch));
+            }
+        }
+        return validation;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rentadsearchqa.functions;
+
+import java.util.Locale;
+
+/**
+ * How filters and sorting are applied to the results page.
+ */
+public enum FilterMode {
+
+    /**
+     * Click the filter buttons, type the values and pick the sort option like a user.
+     * Use this for tests that cover the filtering UI itself.
+     */
+    UI,
+
+    /**
+     * Build the filtered and sorted results URL and open it with a single navigation.
+     * Use this for data-validation runs across many filter combinations.
+     */
+    DEEP_LINK;
+
+    /**
+     * Get the mode selected with -Dfilter.mode (ui or deep_link), defaulting to UI
+     *
+     * @return The configured filter mode
+     */
+    public static FilterMode fromSystemProperty() {
+        String value = System.getProperty("filter.mode", "ui");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
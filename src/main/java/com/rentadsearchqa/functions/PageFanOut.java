@@ -0,0 +1,172 @@
+package com.rentadsearchqa.functions;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.DriverPool;
+import com.rentadsearchqa.utils.ResultsUrlBuilder;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Reads a range of results pages on several browser sessions at once.
+ *
+ * Extra sessions are leased from the {@link DriverPool} without waiting, so a busy pool
+ * never blocks the test; each session then takes the next unread page, opens it directly
+ * by URL and reads its ad cards. Pages can finish in any order, while {@link #awaitPage(int)}
+ * hands them out in page order for the cross-page checks.
+ *
+ * Closing the fan-out stops the sessions after their current page and returns them to the pool.
+ */
+public class PageFanOut implements AutoCloseable {
+
+    private final DriverPool driverPool;
+    private final String resultsUrl;
+    private final int firstPage;
+    private final int lastPage;
+    private final BiFunction<WebDriver, String, List<AdCard>> pageReader;
+    private final List<CompletableFuture<List<AdCard>>> pages = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger nextPage;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private volatile boolean stopped;
+
+    /**
+     * Constructor for PageFanOut
+     *
+     * @param driverPool The pool extra sessions are leased from
+     * @param resultsUrl The filtered and sorted results URL; only its page parameter is changed
+     * @param firstPage The first page to read, 1-based
+     * @param lastPage The last page to read
+     * @param pageReader Opens a page URL in a session and returns its ad cards in page order
+     */
+    public PageFanOut(DriverPool driverPool, String resultsUrl, int firstPage, int lastPage,
+                      BiFunction<WebDriver, String, List<AdCard>> pageReader) {
+        this.driverPool = driverPool;
+        this.resultsUrl = resultsUrl;
+        this.firstPage = firstPage;
+        this.lastPage = lastPage;
+        this.pageReader = pageReader;
+        this.nextPage = new AtomicInteger(firstPage);
+        for (int page = firstPage; page <= lastPage; page++) {
+            pages.add(new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Get the number of sessions selected with -Dpagination.sessions, including the
+     * test's own session (default 1: pages are walked on the test's session only)
+     *
+     * @return The configured number of sessions
+     */
+    public static int sessionsFromSystemProperty() {
+        return Math.max(1, Integer.getInteger("pagination.sessions", 1));
+    }
+
+    /**
+     * Lease up to the given number of sessions and start reading pages on them
+     *
+     * @param sessions The maximum number of extra sessions to use
+     * @return The number of sessions actually leased; 0 if the pool had none available
+     */
+    public int start(int sessions) {
+        int wanted = Math.min(sessions, pages.size());
+        // Held while starting, so a worker that stops early does not fail pages a later one can read
+        activeWorkers.incrementAndGet();
+        while (workers.size() < wanted) {
+            WebDriver driver = driverPool.tryLease();
+            if (driver == null) {
+                break;
+            }
+            activeWorkers.incrementAndGet();
+            Thread worker = new Thread(() -> readPages(driver), "page-fan-out-" + (workers.size() + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        workerStopped();
+        return workers.size();
+    }
+
+    /**
+     * Wait for a page to be read
+     *
+     * @param page The page number, between the first and last page
+     * @return The ad cards of the page in page order
+     * @throws RuntimeException If reading the page failed or the wait was interrupted
+     */
+    public List<AdCard> awaitPage(int page) {
+        try {
+            return pages.get(page - firstPage).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Could not read results page " + page + ": " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for results page " + page, e);
+        }
+    }
+
+    /**
+     * Stop taking new pages and wait until every session is back in the pool
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read pages on one session until none are left, then return the session to the pool.
+     * A session whose page failed is recycled, and the pages it had not taken yet are left
+     * to the others; the failure is reported by {@link #awaitPage(int)}. The last session
+     * to stop fails the pages nobody read, so no caller waits forever.
+     *
+     * @param driver The leased session
+     */
+    private void readPages(WebDriver driver) {
+        boolean failed = false;
+        try {
+            int page;
+            while (!stopped && (page = nextPage.getAndIncrement()) <= lastPage) {
+                CompletableFuture<List<AdCard>> result = pages.get(page - firstPage);
+                try {
+                    result.complete(pageReader.apply(driver, new ResultsUrlBuilder(resultsUrl).page(page).build()));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    failed = true;
+                    break;
+                }
+            }
+        } finally {
+            driverPool.release(driver, failed);
+            workerStopped();
+        }
+    }
+
+    /**
+     * Fail the pages nobody read once the last session has stopped
+     */
+    private void workerStopped() {
+        if (activeWorkers.decrementAndGet() == 0) {
+            for (int page = firstPage; page <= lastPage; page++) {
+                pages.get(page - firstPage).completeExceptionally(
+                        new RuntimeException("No session left to read results page " + page));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.rentadsearchqa.functions;
+
+import com.rentadsearchqa.locators.components.ResultsPage;
+
+/**
+ * Walks the results pages of a search on one browser session, validating each page
+ * before moving on to the next.
+ *
+ * With prefetching, page N+1 starts loading in a background tab before page N is
+ * validated. Once page N passes, its tab is closed and the walk continues in the
+ * prefetched tab, so at most two tabs are open; if page N fails, the prefetched tab is
+ * closed before the failure is passed on. The last page prefetches nothing.
+ */
+public class PageWalk {
+
+    /**
+     * Validates the results page the session currently shows
+     */
+    public interface PageValidator {
+
+        /**
+         * Validate one page
+         *
+         * @param page The 1-based page number
+         * @throws AssertionError If the page breaks a rule
+         */
+        void validate(int page);
+    }
+
+    private final ResultsPage resultsPage;
+    private final boolean prefetch;
+
+    /**
+     * Constructor for PageWalk
+     *
+     * @param resultsPage The results page of the session, showing page 1
+     * @param prefetch Whether to load the next page in a background tab during validation
+     */
+    public PageWalk(ResultsPage resultsPage, boolean prefetch) {
+        this.resultsPage = resultsPage;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Prefetching as configured with -Dpagination.prefetch (off by default)
+     *
+     * @param resultsPage The results page of the session, showing page 1
+     * @return The walk
+     */
+    public static PageWalk fromSystemProperty(ResultsPage resultsPage) {
+        return new PageWalk(resultsPage, Boolean.getBoolean("pagination.prefetch"));
+    }
+
+    /**
+     * Validate every page in order, leaving the session on the last page
+     *
+     * @param totalPages The number of results pages
+     * @param validator Validates the page currently shown
+     * @throws AssertionError If a page breaks a rule; later pages are not visited
+     */
+    public void walk(int totalPages, PageValidator validator) {
+        for (int page = 1; page <= totalPages; page++) {
+            // Start loading the next page in a background tab while this one is validated
+            String prefetched = prefetch && page < totalPages
+                    ? resultsPage.prefetchPageResult(String.valueOf(page + 1)) : null;
+            boolean validated = false;
+            try {
+                validator.validate(page);
+                validated = true;
+            } finally {
+                if (prefetched != null && !validated) {
+                    resultsPage.discardPrefetchedPage(prefetched);
+                }
+            }
+
+            // Go to next page (only if not the last page)
+            if (prefetched != null) {
+                resultsPage.showPrefetchedPage(prefetched);
+            } else if (page < totalPages) {
+                resultsPage.clickPageResult(String.valueOf(page + 1));
+            }
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.rentadsearchqa.functions;
 
+import com.rentadsearchqa.locators.components.AdCardBatches;
 import com.rentadsearchqa.locators.pages.PropertyPage;
 import com.rentadsearchqa.locators.pages.PropertyResultsPage;
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.DriverPool;
+import com.rentadsearchqa.utils.ResultsUrlBuilder;
 import com.rentadsearchqa.utils.SeleniumActions;
+import com.rentadsearchqa.validation.ResultsValidator;
+import com.rentadsearchqa.validation.StreamingResultsValidator;
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Functions for property search operations
@@ -19,15 +24,28 @@ public class properties extends SeleniumActions {
     
     private final PropertyPage propertyPage;
     private final PropertyResultsPage propertyResultsPage;
+    private final ResultsValidator resultsValidator = new ResultsValidator();
+    private final DriverPool driverPool;
     /**
      * Constructor for properties class
      * 
      * @param driver The WebDriver instance for browser automation
      */
     public properties(WebDriver driver) {
+        this(driver, null);
+    }
+
+    /**
+     * Constructor for properties class that can spread results pages over extra sessions
+     * 
+     * @param driver The WebDriver instance for browser automation
+     * @param driverPool Pool to lease extra sessions from when -Dpagination.sessions is above 1, or null
+     */
+    public properties(WebDriver driver, DriverPool driverPool) {
         super(driver, 10);
         this.propertyPage = new PropertyPage(driver);
         this.propertyResultsPage = new PropertyResultsPage(driver);
+        this.driverPool = driverPool;
     }
     
     /**
@@ -62,6 +80,17 @@ public class properties extends SeleniumActions {
         propertyPage.clickSearchButton();
     }
 
+    /**
+     * Apply filters to property search results and validate that all results meet the filter criteria,
+     * using the filter mode selected with -Dfilter.mode (UI by default).
+     * 
+     * @param filters List of filter maps, see {@link #filterAndValidateResults(List, FilterMode)}
+     * @throws AssertionError If any property doesn't meet the filter criteria
+     */
+    public void filterAndValidateResults(List<Map<String, String>> filters) {
+        filterAndValidateResults(filters, FilterMode.fromSystemProperty());
+    }
+
     /**
      * Apply filters to property search results and validate that all results meet the filter criteria.
      * Supports price and size filters with validation of:
@@ -69,17 +98,133 @@ public class properties extends SeleniumActions {
      * - Size range validation (min-max) 
      * - Image count validation (max 30 per property)
      * - Price sorting validation (ascending order)
-     * - Multi-page result handling
+     * - Multi-page result handling, with sort order and duplicates checked across pages
+     * 
+     * Each page is validated in batches while it lazy-loads. With -Dvalidation.failFast=true
+     * (the default) loading stops at the first violation.
+     * 
+     * With -Dpagination.sessions=N and a driver pool, pages 2 and on are opened directly by URL
+     * on up to N-1 extra sessions while page 1 is validated here; their ads are then checked
+     * in page order. Without free sessions in the pool, pages are walked on this session.
+     * 
+     * With -Dpagination.prefetch=true, pages walked on this session are prefetched: page N+1
+     * loads in a background tab while page N is validated, and the tab of page N is closed
+     * when moving on, so at most two tabs are open (see {@link PageWalk}).
      * 
      * @param filters List of filter maps containing:
      *                - "title": filter type ("price" or "size")
      *                - "min": minimum value for the filter
      *                - "max": maximum value for the filter
+     * @param mode Whether filters are applied through the UI or by opening a deep link
      * @throws AssertionError If any property doesn't meet the filter criteria
      */
     @Step("Apply filters and validate all results meet criteria")
-    public void filterAndValidateResults(List<Map<String, String>> filters) {
+    public void filterAndValidateResults(List<Map<String, String>> filters, FilterMode mode) {
         // Apply all filters first
+        if (mode == FilterMode.DEEP_LINK) {
+            openFilteredResults(filters);
+        } else {
+            applyFiltersInUi(filters);
+        }
+        // Check if there are multiple pages
+        int totalPages = propertyResultsPage.findTotalPages();
+        
+        // Validate all pages, including sort order and duplicates across page boundaries
+        StreamingResultsValidator validation = resultsValidator.start(filters);
+        boolean failFast = Boolean.parseBoolean(System.getProperty("validation.failFast", "true"));
+        int sessions = PageFanOut.sessionsFromSystemProperty();
+        if (driverPool != null && sessions > 1 && totalPages > 1
+                && validatePagesFannedOut(totalPages, sessions - 1, validation, failFast)) {
+            return;
+        }
+        PageWalk.fromSystemProperty(propertyResultsPage)
+                .walk(totalPages, page -> validatePageIncrementally(page, validation, failFast));
+    }
+
+    /**
+     * Validate page 1 on this session while the other pages are read on extra sessions,
+     * then check the other pages in page order as they arrive
+     * 
+     * @param totalPages The number of results pages
+     * @param extraSessions The maximum number of sessions to lease besides this one
+     * @param validation The validation run of the whole result set
+     * @param failFast Whether to stop loading page 1 at the first violation
+     * @return False if no extra session was free, leaving all pages to the caller
+     * @throws AssertionError If any property breaks a rule
+     */
+    private boolean validatePagesFannedOut(int totalPages, int extraSessions,
+                                           StreamingResultsValidator validation, boolean failFast) {
+        try (PageFanOut fanOut = new PageFanOut(driverPool, getDriver().getCurrentUrl(), 2, totalPages,
+                properties::readPropertyPage)) {
+            int leased = fanOut.start(extraSessions);
+            if (leased == 0) {
+                return false;
+            }
+            Allure.step("Read results pages 2-" + totalPages + " on " + leased + " extra sessions");
+            validatePageIncrementally(1, validation, failFast);
+            for (int page = 2; page <= totalPages; page++) {
+                List<AdCard> adCards = fanOut.awaitPage(page);
+                validation.acceptPage(page, adCards, ResultsValidator.imageCounts(adCards));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Open a results page in a session and read all of its property ad cards,
+     * batch by batch while it lazy-loads, like the pages validated on the test's own session
+     * 
+     * @param driver A session other than the test's own
+     * @param pageUrl The URL of the results page
+     * @return The ad cards of the page in page order
+     */
+    private static List<AdCard> readPropertyPage(WebDriver driver, String pageUrl) {
+        driver.get(pageUrl);
+        List<AdCard> adCards = new ArrayList<>();
+        new PropertyResultsPage(driver).streamPropertyAdCards().forEachRemaining(adCards::addAll);
+        return adCards;
+    }
+
+    /**
+     * Validate the current results page batch by batch while it lazy-loads.
+     * With fail-fast, scrolling stops at the first violation; otherwise the page is
+     * loaded to the end before the first violation is reported.
+     * 
+     * @param page The 1-based page number
+     * @param validation The validation run of the whole result set
+     * @param failFast Whether to stop loading the page at the first violation
+     * @throws AssertionError If any property on the page breaks a rule
+     */
+    private void validatePageIncrementally(int page, StreamingResultsValidator validation, boolean failFast) {
+        AdCardBatches batches = propertyResultsPage.streamPropertyAdCards();
+        AssertionError failure = null;
+        while (batches.hasNext()) {
+            List<AdCard> batch = batches.next();
+            if (failure != null) {
+                continue;
+            }
+            try {
+                validation.acceptBatch(page, batch, ResultsValidator.imageCounts(batch));
+            } catch (AssertionError e) {
+                if (failFast) {
+                    throw new AssertionError(e.getMessage() + " (after " + batches.getCardsRead() + " cards and "
+                            + batches.getScrollSteps() + " scroll steps)", e);
+                }
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Apply filters and ascending price sorting by clicking through the results page UI
+     * 
+     * @param filters List of filter maps with "title", "min" and "max"
+     */
+    @Step("Apply filters through the UI")
+    public void applyFiltersInUi(List<Map<String, String>> filters) {
         for (Map<String, String> filter : filters) {
             if (filter.get("title").equals("price")) {
                 propertyResultsPage.clickPriceFilterButton();
@@ -95,77 +240,22 @@ public class properties extends SeleniumActions {
         }
         propertyResultsPage.clickOpenSortingButton();
         propertyResultsPage.clickAscendingOptionButton();
-        // Check if there are multiple pages
-        List<WebElement> pageResults = propertyResultsPage.findPageResults();
-        int totalPages = pageResults.size();
-        
-        // Validate all pages
-        for (int page = 1; page <= totalPages; page++) {
-            // Validate image count for each property (regardless of filters)
-            List<WebElement> propertyImages = propertyResultsPage.findPropertyImages();
-            for (int i = 0; i < propertyImages.size(); i++) {
-                String imageXpath = "(//div[@data-testid='property-ad-image-container'])[" + (i + 1) + "]//img";
-                List<WebElement> images = propertyResultsPage.findElements(imageXpath);
-                String pageInfo = totalPages > 1 ? " on page " + page : "";
-                assert images.size() <= 30 : 
-                    "Property " + (i + 1) + " has " + images.size() + " images, which exceeds the limit of 30" + pageInfo;
-            }
-            
-            // Validate results on current page for all applicable filters
-            for (Map<String, String> filter : filters) {
-                if (filter.get("title").equals("price")) {
-                    List<WebElement> propertyPrices = propertyResultsPage.findPropertyPrices();
-                    Pattern pricePattern = Pattern.compile("(\\d+)\\s*€");
-                    int minPrice = Integer.parseInt(filter.get("min"));
-                    int maxPrice = Integer.parseInt(filter.get("max"));
-                    
-                    // Extract and validate prices
-                    List<Integer> prices = new ArrayList<>();
-                    for (WebElement propertyPrice : propertyPrices) {
-                        String propertyPriceText = propertyPrice.getText();
-                        Matcher matcher = pricePattern.matcher(propertyPriceText);
-                        if (matcher.find()) {
-                            int propertyPriceValue = Integer.parseInt(matcher.group(1));
-                            prices.add(propertyPriceValue);
-                            String pageInfo = totalPages > 1 ? " on page " + page : "";
-                            assert propertyPriceValue >= minPrice && propertyPriceValue <= maxPrice : 
-                                "Property price " + propertyPriceValue + " not in range " + minPrice + "-" + maxPrice
-                                        + pageInfo;
-                        }
-                    }
-                    
-                    // Assert prices are sorted in ascending order
-                    for (int i = 1; i < prices.size(); i++) {
-                        String pageInfo = totalPages > 1 ? " on page " + page : "";
-                        assert prices.get(i) >= prices.get(i - 1) : 
-                            "Property prices are not sorted ascending. Price " + prices.get(i) + 
-                            " is less than previous price " + prices.get(i - 1) + pageInfo;
-                    }
-                }
-                if (filter.get("title").equals("size")) {
-                    List<WebElement> propertyResults = propertyResultsPage.findPropertyResults();
-                    Pattern sizePattern = Pattern.compile("(\\d+)\\s*τ\\.μ\\.");
-                    int minSize = Integer.parseInt(filter.get("min"));
-                    int maxSize = Integer.parseInt(filter.get("max"));
-                    
-                    for (WebElement property : propertyResults) {
-                        String propertyText = property.getText();
-                        Matcher matcher = sizePattern.matcher(propertyText);
-                        if (matcher.find()) {
-                            int propertySize = Integer.parseInt(matcher.group(1));
-                            String pageInfo = totalPages > 1 ? " on page " + page : "";
-                            assert propertySize >= minSize && propertySize <= maxSize : 
-                                "Property size " + propertySize + " not in range " + minSize + "-" + maxSize + pageInfo;
-                        }
-                    }
-                }
-            }
-            
-            // Click to next page (only if not the last page)
-            if (page < totalPages) {
-                propertyResultsPage.clickPageResult(String.valueOf(page + 1));
-            }
-        }
+    }
+
+    /**
+     * Open the results with all filters and ascending price sorting applied in a single navigation.
+     * The area selection is taken from the current results URL.
+     * 
+     * @param filters List of filter maps with "title", "min" and "max"
+     */
+    @Step("Open filtered results via deep link")
+    public void openFilteredResults(List<Map<String, String>> filters) {
+        String url = new ResultsUrlBuilder(getDriver().getCurrentUrl())
+                .filters(filters)
+                .sorting(ResultsUrlBuilder.SORT_PRICE_ASCENDING)
+                .page(1)
+                .build();
+        openUrl(url);
     }
 
     /**
@@ -182,12 +272,12 @@ public class properties extends SeleniumActions {
      */
     @Step("Validate phone information functionality")
     public void validatePhoneInfoInProperty() {
-        propertyResultsPage.findPhoneInfo(false);
+        propertyResultsPage.findPhoneInfo(false).assertConditionMet();
         propertyResultsPage.clickPropertyAdPriceSpan();
         propertyResultsPage.clickPhoneInfoButton();
-        propertyResultsPage.findPhoneInfo(true);
+        propertyResultsPage.findPhoneInfo(true).assertConditionMet();
         sendkeyEscape();
-        propertyResultsPage.findPhoneInfo(false);
+        propertyResultsPage.findPhoneInfo(false).assertConditionMet();
         sendkeyEscape();
     }
 
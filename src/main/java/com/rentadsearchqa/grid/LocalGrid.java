@@ -0,0 +1,173 @@
+package com.rentadsearchqa.grid;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selenium Grid standalone server started on this machine, as a stand-in for a real Grid.
+ *
+ * The server runs from a selenium-server jar in its own JVM, on a free port, and uses the
+ * chromedriver resolved for this run (webdriver.chrome.driver). Tests then go through
+ * the same RemoteWebDriver path as against a remote Grid. Its output is written to
+ * target/local-grid.log.
+ *
+ * Configured with system properties:
+ * - grid.jar: path of the selenium-server jar (required)
+ * - grid.startupTimeout: seconds to wait for the server to be ready (default 60)
+ */
+public class LocalGrid implements AutoCloseable {
+
+    private final Process process;
+    private final URL url;
+    private final Path log;
+
+    /**
+     * Constructor for LocalGrid; the server is started and ready when it returns
+     *
+     * @param serverJar The selenium-server jar
+     * @param maxSessions Maximum number of concurrent sessions the server accepts
+     * @param log File the server output is written to
+     * @param startupTimeout How long to wait for the server to be ready
+     * @throws IllegalStateException If the server does not become ready in time
+     */
+    public LocalGrid(Path serverJar, int maxSessions, Path log, Duration startupTimeout) {
+        if (!Files.isRegularFile(serverJar)) {
+            throw new IllegalArgumentException("Selenium server jar not found: " + serverJar);
+        }
+        this.log = log;
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String chromeDriver = System.getProperty("webdriver.chrome.driver");
+        if (chromeDriver != null) {
+            command.add("-Dwebdriver.chrome.driver=" + chromeDriver);
+        }
+        command.add("-jar");
+        command.add(serverJar.toString());
+        command.add("standalone");
+        command.add("--port");
+        command.add(String.valueOf(port));
+        command.add("--max-sessions");
+        command.add(String.valueOf(maxSessions));
+        command.add("--override-max-sessions");
+        command.add("true");
+        try {
+            this.url = new URL("http://localhost:" + port);
+            Files.createDirectories(log.toAbsolutePath().getParent());
+            this.process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(log.toFile()).start();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the local Grid from " + serverJar, e);
+        }
+        try {
+            awaitReady(startupTimeout);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        System.out.println("Local Grid started on " + url + " with up to " + maxSessions + " sessions");
+    }
+
+    /**
+     * Start a local Grid configured by the grid.jar and grid.startupTimeout system properties
+     *
+     * @param maxSessions Maximum number of concurrent sessions, e.g. the pool size
+     * @return The started Grid
+     * @throws IllegalStateException If grid.jar is not set
+     */
+    public static LocalGrid fromSystemProperties(int maxSessions) {
+        String jar = System.getProperty("grid.jar");
+        if (jar == null) {
+            throw new IllegalStateException("Set -Dgrid.jar to a selenium-server jar to start a local Grid");
+        }
+        return new LocalGrid(Paths.get(jar), maxSessions, Paths.get("target", "local-grid.log"),
+                Duration.ofSeconds(Integer.getInteger("grid.startupTimeout", 60)));
+    }
+
+    /**
+     * Get the address of the running server
+     *
+     * @return e.g. http://localhost:41234
+     */
+    public URL getUrl() {
+        return url;
+    }
+
+    /**
+     * Stop the server, forcibly if it does not stop within ten seconds
+     */
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Poll the server status until it reports ready
+     *
+     * @param timeout How long to wait
+     * @throws IllegalStateException If the server exits or is not ready in time
+     */
+    @SuppressWarnings("unchecked")
+    private void awaitReady(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Json json = new Json();
+        try (HttpClient client = HttpClient.Factory.createDefault().createClient(url)) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Local Grid exited with code " + process.exitValue()
+                            + ", see " + log);
+                }
+                try {
+                    HttpResponse response = client.execute(new HttpRequest(HttpMethod.GET, "/status"));
+                    Map<String, Object> status = json.toType(Contents.string(response), Json.MAP_TYPE);
+                    Map<String, Object> value = (Map<String, Object>) status.get("value");
+                    if (value != null && Boolean.TRUE.equals(value.get("ready"))) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(250);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new IllegalStateException("Local Grid was not ready within " + timeout.getSeconds() + " s");
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not find a free port for the local Grid", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.rentadsearchqa.grid;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session-creation and driver-command latency per Grid node.
+ *
+ * A slow node shows up as a higher mean or max than its peers, which a Grid-wide
+ * average would hide.
+ */
+public class NodeLatency {
+
+    private final Map<String, Stats> sessionCreation = new ConcurrentHashMap<>();
+    private final Map<String, Stats> commands = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time it took a node to create a session
+     *
+     * @param node The node URI
+     * @param nanos The time from the new-session request to its response
+     */
+    public void recordSessionCreation(String node, long nanos) {
+        sessionCreation.computeIfAbsent(node, key -> new Stats()).record(nanos);
+    }
+
+    /**
+     * Record the round trip of one driver command
+     *
+     * @param node The node URI
+     * @param nanos The time from the command request to its response
+     */
+    public void recordCommand(String node, long nanos) {
+        commands.computeIfAbsent(node, key -> new Stats()).record(nanos);
+    }
+
+    /**
+     * Get the session-creation latency of a node
+     *
+     * @param node The node URI
+     * @return The statistics, empty if the node created no session
+     */
+    public Stats getSessionCreation(String node) {
+        return sessionCreation.getOrDefault(node, new Stats());
+    }
+
+    /**
+     * Get the driver-command latency of a node
+     *
+     * @param node The node URI
+     * @return The statistics, empty if the node ran no command
+     */
+    public Stats getCommands(String node) {
+        return commands.getOrDefault(node, new Stats());
+    }
+
+    /**
+     * Get the nodes with recorded latency
+     *
+     * @return The node URIs
+     */
+    public Set<String> getNodes() {
+        Set<String> nodes = new TreeSet<>(sessionCreation.keySet());
+        nodes.addAll(commands.keySet());
+        return nodes;
+    }
+
+    /**
+     * Describe the latency of every node, one line each
+     *
+     * @return e.g. "http://10.0.0.5:5555: 4 sessions, mean 2310 ms, max 3102 ms; 812 commands, mean 14 ms, max 240 ms"
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (String node : getNodes()) {
+            Stats sessions = getSessionCreation(node);
+            Stats calls = getCommands(node);
+            if (report.length() > 0) {
+                report.append(System.lineSeparator());
+            }
+            report.append(node).append(": ")
+                    .append(sessions.getCount()).append(" sessions, mean ").append(sessions.getMeanMillis())
+                    .append(" ms, max ").append(sessions.getMaxMillis()).append(" ms; ")
+                    .append(calls.getCount()).append(" commands, mean ").append(calls.getMeanMillis())
+                    .append(" ms, max ").append(calls.getMaxMillis()).append(" ms");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Count, mean and maximum of a series of durations
+     */
+    public static final class Stats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getMeanMillis() {
+            return count == 0 ? 0 : totalNanos / count / 1_000_000;
+        }
+
+        public synchronized long getMaxMillis() {
+            return maxNanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.rentadsearchqa.grid;
+
+import com.rentadsearchqa.utils.DriverFactory;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Creates browser sessions on a Selenium Grid (hub, distributed Grid or standalone server).
+ *
+ * All sessions send their commands through one shared HTTP client. Its connections to
+ * the Grid are kept alive and reused across commands and sessions, instead of every
+ * RemoteWebDriver opening and tearing down its own connection pool. Quitting a session
+ * leaves the shared client open; it is closed with the factory.
+ *
+ * The node a session runs on is looked up through the Grid's GraphQL endpoint, and the
+ * session-creation and command latency of every session is recorded for its node in
+ * {@link NodeLatency}. Sessions are augmented, so DevTools features such as the
+ * NetworkInterceptor work on Grid browsers as well.
+ */
+public class RemoteDriverFactory implements DriverFactory {
+
+    private final URL gridUrl;
+    private final ClientConfig config;
+    private final HttpClient sharedClient;
+    private final NodeLatency latency = new NodeLatency();
+    private final Json json = new Json();
+
+    /**
+     * Constructor for RemoteDriverFactory
+     *
+     * @param gridUrl Address of the Grid, e.g. http://localhost:4444
+     * @param readTimeout How long to wait for a command, including session creation, to respond
+     */
+    public RemoteDriverFactory(URL gridUrl, Duration readTimeout) {
+        this.gridUrl = gridUrl;
+        this.config = ClientConfig.defaultConfig().baseUrl(gridUrl).readTimeout(readTimeout);
+        this.sharedClient = HttpClient.Factory.createDefault().createClient(config);
+    }
+
+    /**
+     * Start a new session on the Grid
+     *
+     * @param capabilities The browser options, e.g. ChromeOptions
+     * @return The started, augmented RemoteWebDriver
+     */
+    @Override
+    public WebDriver create(Capabilities capabilities) {
+        TimedExecutor executor = new TimedExecutor(
+                new HttpCommandExecutor(Collections.emptyMap(), config, clientConfig -> new SharedClient()));
+        RemoteWebDriver driver = new RemoteWebDriver(executor, capabilities);
+        executor.node = nodeOf(driver.getSessionId().toString());
+        latency.recordSessionCreation(executor.node, executor.newSessionNanos);
+        return new Augmenter().augment(driver);
+    }
+
+    /**
+     * Get the latency recorded per node so far
+     *
+     * @return The latency of all sessions created by this factory
+     */
+    public NodeLatency getLatency() {
+        return latency;
+    }
+
+    /**
+     * Log the latency per node and close the shared connections to the Grid
+     */
+    @Override
+    public void close() {
+        if (!latency.getNodes().isEmpty()) {
+            System.out.println("Grid latency per node:" + System.lineSeparator() + latency.report());
+        }
+        sharedClient.close();
+    }
+
+    /**
+     * Ask the Grid which node runs a session
+     *
+     * @param sessionId The session
+     * @return The node URI, or the Grid address if the Grid cannot tell (e.g. no GraphQL endpoint)
+     */
+    @SuppressWarnings("unchecked")
+    private String nodeOf(String sessionId) {
+        try {
+            HttpRequest request = new HttpRequest(HttpMethod.POST, "/graphql");
+            request.setHeader("Content-Type", "application/json; charset=utf-8");
+            request.setContent(Contents.asJson(Map.of(
+                    "query", "{ session (id: \"" + sessionId + "\") { nodeUri } }")));
+            HttpResponse response = sharedClient.execute(request);
+            if (response.isSuccessful()) {
+                Map<String, Object> body = json.toType(Contents.string(response), Json.MAP_TYPE);
+                Map<String, Object> data = (Map<String, Object>) body.get("data");
+                Map<String, Object> session = data == null ? null : (Map<String, Object>) data.get("session");
+                if (session != null && session.get("nodeUri") != null) {
+                    return String.valueOf(session.get("nodeUri"));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Could not look up the node of session " + sessionId + ": " + e.getMessage());
+        }
+        return gridUrl.toString();
+    }
+
+    /**
+     * View of the shared client for one session; closing it when the session quits keeps the connections open
+     */
+    private final class SharedClient implements HttpClient {
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return sharedClient.openSocket(request, listener);
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return sharedClient.execute(request);
+        }
+    }
+
+    /**
+     * Times the commands of one session and records them for its node
+     */
+    private final class TimedExecutor implements CommandExecutor {
+
+        private final CommandExecutor delegate;
+        private volatile String node;
+        private long newSessionNanos;
+
+        private TimedExecutor(CommandExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.execute(command);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+                    newSessionNanos = elapsed;
+                } else {
+                    latency.recordCommand(node != null ? node : gridUrl.toString(), elapsed);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.rentadsearchqa.http;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.ResultsUrlBuilder;
+import com.rentadsearchqa.validation.ResultsSource;
+import com.rentadsearchqa.validation.ResultsValidator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browserless engine that validates results pages over plain HTTP.
+ *
+ * Pages are fetched with a single shared {@link HttpClient}, so connections to the
+ * site are kept alive and reused across pages, areas and filter combinations, and
+ * parsed with {@link ResultsHtmlParser}. The pages are validated as a
+ * {@link ResultsSource} by {@link ResultsValidator}, whose streaming validator the
+ * browser flow feeds as well, so both apply the same rules. Use the browser only for
+ * true UI interactions such as the phone-info dialog.
+ *
+ * Instances are thread-safe and meant to be shared.
+ */
+public class HttpResultsEngine {
+
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0 Safari/537.36";
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final ResultsValidator resultsValidator = new ResultsValidator();
+
+    /**
+     * Constructor with a 30 second request timeout, matching the browser page load timeout
+     */
+    public HttpResultsEngine() {
+        this(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Constructor for HttpResultsEngine
+     *
+     * @param requestTimeout Timeout for each page request
+     */
+    public HttpResultsEngine(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Open the filtered results, sorted by ascending price, as a results source
+     *
+     * @param resultsUrl Results URL carrying the area selection
+     * @param filters List of filter maps with "title" ("price" or "size"), "min" and "max"
+     * @param item The type of item (e.g., "property")
+     * @return A source that fetches pages on demand
+     */
+    public ResultsSource open(String resultsUrl, List<Map<String, String>> filters, String item) {
+        String filteredUrl = new ResultsUrlBuilder(resultsUrl)
+                .filters(filters)
+                .sorting(ResultsUrlBuilder.SORT_PRICE_ASCENDING)
+                .page(1)
+                .build();
+        return new HttpResultsSource(filteredUrl, new ResultsHtmlParser(item));
+    }
+
+    /**
+     * Fetch and validate every page of the filtered property results
+     *
+     * @param resultsUrl Results URL carrying the area selection
+     * @param filters List of filter maps with "title", "min" and "max"
+     * @return The number of pages validated
+     * @throws AssertionError If any ad doesn't meet the filter criteria
+     */
+    public int filterAndValidateResults(String resultsUrl, List<Map<String, String>> filters) {
+        return resultsValidator.validate(open(resultsUrl, filters, "property"), filters);
+    }
+
+    /**
+     * Fetch a page as text
+     *
+     * @param url The page URL
+     * @return The response body
+     * @throws IllegalStateException If the server does not answer with 200
+     */
+    public String fetch(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Language", "el-GR,el;q=0.9,en;q=0.8")
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET " + url + " returned HTTP " + response.statusCode());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException("GET " + url + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching " + url, e);
+        }
+    }
+
+    /**
+     * Results source that fetches each page by URL. The first page is kept
+     * after the page count has been read so it is not fetched twice.
+     */
+    private final class HttpResultsSource implements ResultsSource {
+
+        private final String firstPageUrl;
+        private final ResultsHtmlParser parser;
+        private String firstPageHtml;
+
+        private HttpResultsSource(String firstPageUrl, ResultsHtmlParser parser) {
+            this.firstPageUrl = firstPageUrl;
+            this.parser = parser;
+        }
+
+        @Override
+        public int getPageCount() {
+            return parser.parsePageCount(firstPage());
+        }
+
+        @Override
+        public List<AdCard> loadPage(int page) {
+            if (page == 1) {
+                return parser.parseAdCards(firstPage());
+            }
+            return parser.parseAdCards(fetch(new ResultsUrlBuilder(firstPageUrl).page(page).build()));
+        }
+
+        private String firstPage() {
+            if (firstPageHtml == null) {
+                firstPageHtml = fetch(firstPageUrl);
+            }
+            return firstPageHtml;
+        }
+    }
+}
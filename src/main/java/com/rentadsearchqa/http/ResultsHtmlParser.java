@@ -0,0 +1,182 @@
+package com.rentadsearchqa.http;
+
+import com.rentadsearchqa.models.AdCard;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser that extracts ad cards and the page count from a results page HTML document.
+ *
+ * If the page embeds its state as JSON in
+ * {@code <script type="application/json" data-testid="results-state">} the ads are read from it:
+ * {"totalPages": 3, "ads": [{"id": "...", "title": "...", "price": "650 €", "size": "85 τ.μ.", "images": 12}]}
+ * (images may also be an array of image URLs). Otherwise the same data-testid hooks the
+ * browser locators use are read from the markup: each card runs from one ad image container
+ * (or, if the page has none, one ad title) to the next.
+ */
+public class ResultsHtmlParser {
+
+    private static final Pattern STATE_SCRIPT = Pattern.compile(
+            "<script[^>]*data-testid=[\"']results-state[\"'][^>]*>(.*?)</script>", Pattern.DOTALL);
+    private static final Pattern CURRENT_PAGE_LINK = Pattern.compile(
+            "<a\\b[^>]*aria-current=[\"']page[\"'][^>]*>\\s*(\\d+)\\s*</a>");
+    private static final Pattern SIZE_TEXT = Pattern.compile("\\d[\\d.,]*\\s*τ\\.μ\\.");
+    private static final Pattern DATA_ID = Pattern.compile("data-id=[\"']([^\"']+)[\"']");
+    private static final Pattern HREF_ID = Pattern.compile("href=[\"'][^\"']*?(\\d{5,})[^\"'\\d]*[\"']");
+    private static final Pattern IMG_TAG = Pattern.compile("<img\\b");
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+
+    private final Json json = new Json();
+    private final Pattern titlePattern;
+    private final Pattern pricePattern;
+    private final Pattern imageContainerPattern;
+
+    /**
+     * Constructor for ResultsHtmlParser
+     *
+     * @param item The type of item (e.g., "property"), as used in the data-testid hooks
+     */
+    public ResultsHtmlParser(String item) {
+        String quotedItem = Pattern.quote(item);
+        this.titlePattern = Pattern.compile("<h3\\b[^>]*data-testid=[\"'][^\"']*" + quotedItem
+                + "-ad-title[^\"']*[\"'][^>]*>(.*?)</h3>", Pattern.DOTALL);
+        this.pricePattern = Pattern.compile("<span\\b[^>]*data-testid=[\"']" + quotedItem
+                + "-ad-price[\"'][^>]*>(.*?)</span>", Pattern.DOTALL);
+        this.imageContainerPattern = Pattern.compile("<div\\b[^>]*data-testid=[\"']" + quotedItem
+                + "-ad-image-container[\"']");
+    }
+
+    /**
+     * Extract the ad cards of a results page
+     *
+     * @param html The results page document
+     * @return The ad cards in page order
+     */
+    public List<AdCard> parseAdCards(String html) {
+        Map<String, Object> state = parseState(html);
+        if (state != null && state.get("ads") instanceof Collection) {
+            return adCardsFromState((Collection<?>) state.get("ads"));
+        }
+        return adCardsFromMarkup(html);
+    }
+
+    /**
+     * Extract the number of results pages. Without embedded state this is the highest page
+     * number linked, since pagination may only link the first and last page and the pages
+     * around the current one.
+     *
+     * @param html The results page document
+     * @return The page count, at least 1
+     */
+    public int parsePageCount(String html) {
+        Map<String, Object> state = parseState(html);
+        if (state != null && state.get("totalPages") instanceof Number) {
+            return Math.max(1, ((Number) state.get("totalPages")).intValue());
+        }
+        Matcher matcher = CURRENT_PAGE_LINK.matcher(html);
+        int totalPages = 1;
+        while (matcher.find()) {
+            totalPages = Math.max(totalPages, Integer.parseInt(matcher.group(1)));
+        }
+        return totalPages;
+    }
+
+    /**
+     * Read the embedded JSON state, if the page has one
+     */
+    private Map<String, Object> parseState(String html) {
+        Matcher matcher = STATE_SCRIPT.matcher(html);
+        if (!matcher.find()) {
+            return null;
+        }
+        return json.toType(matcher.group(1), Json.MAP_TYPE);
+    }
+
+    private static List<AdCard> adCardsFromState(Collection<?> ads) {
+        List<AdCard> cards = new ArrayList<>(ads.size());
+        for (Object rawAd : ads) {
+            Map<?, ?> ad = (Map<?, ?>) rawAd;
+            Object images = ad.get("images");
+            int imageCount = images instanceof Number ? ((Number) images).intValue()
+                    : images instanceof Collection ? ((Collection<?>) images).size() : 0;
+            cards.add(new AdCard(text(ad.get("id")), text(ad.get("title")), text(ad.get("price")),
+                    text(ad.get("size")), imageCount));
+        }
+        return cards;
+    }
+
+    private List<AdCard> adCardsFromMarkup(String html) {
+        List<int[]> titles = new ArrayList<>();
+        Matcher titleMatcher = titlePattern.matcher(html);
+        while (titleMatcher.find()) {
+            titles.add(new int[]{titleMatcher.start(), titleMatcher.start(1), titleMatcher.end(1)});
+        }
+        List<Integer> containers = new ArrayList<>();
+        Matcher containerMatcher = imageContainerPattern.matcher(html);
+        while (containerMatcher.find()) {
+            containers.add(containerMatcher.start());
+        }
+
+        // Cards start at their image container when every card has one that precedes its title
+        boolean startAtContainers = !titles.isEmpty() && containers.size() == titles.size()
+                && containers.get(0) < titles.get(0)[0];
+        List<AdCard> cards = new ArrayList<>(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            int start = startAtContainers ? containers.get(i) : titles.get(i)[0];
+            int end = i + 1 < titles.size()
+                    ? (startAtContainers ? containers.get(i + 1) : titles.get(i + 1)[0])
+                    : html.length();
+            String segment = html.substring(start, end);
+            String title = stripTags(html.substring(titles.get(i)[1], titles.get(i)[2]));
+
+            Matcher price = pricePattern.matcher(segment);
+            Matcher size = SIZE_TEXT.matcher(title);
+            String rawSize = size.find() ? size.group() : "";
+            if (rawSize.isEmpty()) {
+                Matcher segmentSize = SIZE_TEXT.matcher(stripTags(segment));
+                rawSize = segmentSize.find() ? segmentSize.group() : "";
+            }
+            cards.add(new AdCard(adId(segment), title, price.find() ? stripTags(price.group(1)) : "",
+                    rawSize, count(IMG_TAG, segment)));
+        }
+        return cards;
+    }
+
+    private static String adId(String segment) {
+        Matcher dataId = DATA_ID.matcher(segment);
+        if (dataId.find()) {
+            return dataId.group(1);
+        }
+        Matcher href = HREF_ID.matcher(segment);
+        String id = "";
+        while (href.find()) {
+            id = href.group(1);
+        }
+        return id;
+    }
+
+    private static int count(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String stripTags(String html) {
+        return TAG.matcher(html).replaceAll(" ")
+                .replace("&nbsp;", " ").replace("&amp;", "&").replace("&euro;", "€")
+                .replaceAll("\\s+", " ").trim();
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : String.valueOf(value);
+    }
+}
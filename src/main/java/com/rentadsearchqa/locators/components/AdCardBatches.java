@@ -0,0 +1,93 @@
+package com.rentadsearchqa.locators.components;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.ScrollResult;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the ad cards of a results page in batches, as they are lazy-loaded.
+ *
+ * {@link #hasNext()} first reads the cards that are already in the page but were not
+ * returned yet; only when there are none does it scroll one step and wait for the page
+ * to settle. Scrolling therefore advances only as fast as the consumer asks for cards,
+ * and stops as soon as the consumer stops, e.g. on the first validation failure.
+ *
+ * A scroll step that hits the scroll ceiling without the page settling fails the page,
+ * since the cards that did not load would otherwise go unvalidated.
+ */
+public class AdCardBatches implements Iterator<List<AdCard>> {
+
+    private final ResultsPage resultsPage;
+    private final String item;
+    private final String itemSelector;
+
+    private List<AdCard> pending;
+    private int cardsRead;
+    private int scrollSteps;
+    private boolean atEnd;
+
+    AdCardBatches(ResultsPage resultsPage, String item, String itemSelector) {
+        this.resultsPage = resultsPage;
+        this.item = item;
+        this.itemSelector = itemSelector;
+    }
+
+    /**
+     * Check for more cards, scrolling one step at a time while none are unread
+     *
+     * @return True if another batch of cards is available
+     * @throws AssertionError If a scroll step hit the scroll ceiling before the page settled
+     */
+    @Override
+    public boolean hasNext() {
+        while (pending == null) {
+            List<AdCard> batch = resultsPage.extractAdCards(item, cardsRead);
+            if (!batch.isEmpty()) {
+                pending = batch;
+                cardsRead += batch.size();
+            } else if (atEnd) {
+                return false;
+            } else {
+                ScrollResult step = resultsPage.scrollStep(itemSelector);
+                scrollSteps++;
+                if (!step.isSettled()) {
+                    throw new AssertionError("Results page did not finish loading within the scroll ceiling ("
+                            + cardsRead + " cards read after " + scrollSteps + " scroll steps)");
+                }
+                atEnd = step.isAtEnd();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<AdCard> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more ad cards on the page");
+        }
+        List<AdCard> batch = pending;
+        pending = null;
+        return batch;
+    }
+
+    /**
+     * Get the number of cards returned or pending so far
+     *
+     * @return The card count
+     */
+    public int getCardsRead() {
+        return cardsRead;
+    }
+
+    /**
+     * Get the number of scroll steps taken so far
+     *
+     * @return The step count
+     */
+    public int getScrollSteps() {
+        return scrollSteps;
+    }
+}
@@ -1,9 +1,16 @@
 package com.rentadsearchqa.locators.components;
 
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.Locator;
+import com.rentadsearchqa.utils.PresenceResult;
 import com.rentadsearchqa.utils.SeleniumActions;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 /**
  * Results page class that extends SeleniumActions and uses only
  * the paths and functionality from SeleniumActions via super.
@@ -11,15 +18,71 @@ import java.util.List;
 public class ResultsPage extends SeleniumActions {
 
     // ===== PATHS AS VARIABLES =====
-    private static final String BUTTON_MORE_FILTERS = "//button[@class='filters-button']";
-    private static final String BUTTON_PRICE_FILTER = "//button[@data-testid='price-filter-button']";
-    private static final String INPUT_MINIMUM_PRICE = "//input[@data-testid='minimum_price_input']";
-    private static final String INPUT_MAXIMUM_PRICE = "//input[@data-testid='maximum_price_input']";
+    private static final Locator BUTTON_MORE_FILTERS = Locator.of(
+            "//button[@class='filters-button']", "button[class='filters-button']");
+    private static final Locator BUTTON_PRICE_FILTER = Locator.of(
+            "//button[@data-testid='price-filter-button']", "button[data-testid='price-filter-button']");
+    private static final Locator INPUT_MINIMUM_PRICE = Locator.of(
+            "//input[@data-testid='minimum_price_input']", "input[data-testid='minimum_price_input']");
+    private static final Locator INPUT_MAXIMUM_PRICE = Locator.of(
+            "//input[@data-testid='maximum_price_input']", "input[data-testid='maximum_price_input']");
     private static final String A_PAGE_RESULT = "//a[@aria-current='page']";
-    private static final String BUTTON_OPEN_SORTING = "//button[contains(@data-testid,'sorting-dropdown')]";
-    private static final String BUTTON_ASCENDING_OPTION = "//button[@data-id='price_asc']";
+    private static final Locator A_PAGE_RESULT_NUMBER = Locator.of(A_PAGE_RESULT + "[normalize-space()='{}']");
+    private static final Locator BUTTON_OPEN_SORTING = Locator.of(
+            "//button[contains(@data-testid,'sorting-dropdown')]", "button[data-testid*='sorting-dropdown']");
+    private static final Locator BUTTON_ASCENDING_OPTION = Locator.of(
+            "//button[@data-id='price_asc']", "button[data-id='price_asc']");
     private static final String DIV_PHONE_INFO = "//div[@data-testid='phones']";
-    private static final String BUTTON_PHONE_INFO = "//button[@data-testid='call-action-button']";
+    private static final Locator BUTTON_PHONE_INFO = Locator.of(
+            "//button[@data-testid='call-action-button']", "button[data-testid='call-action-button']");
+    private static final Locator H3_AD_RESULT = Locator.of(
+            "//h3[contains(@data-testid,'{}-ad-title')]", "h3[data-testid*='{}-ad-title']");
+    private static final Locator SPAN_AD_PRICE = Locator.of(
+            "//span[@data-testid='{}-ad-price']", "span[data-testid='{}-ad-price']");
+    private static final Locator DIV_AD_IMAGES = Locator.of(
+            "//div[@data-testid='{}-ad-image-container']", "div[data-testid='{}-ad-image-container']");
+
+    /**
+     * Collects every ad card of the given item type in one call. The card of a title is its
+     * largest ancestor holding no other title, stopping below the results list, so a wrapper
+     * around several cards is never taken for one card, whatever attributes it carries, and
+     * image containers beside the title (not only around it) belong to the card. Price, size,
+     * images and id are read only inside the card, so a card without a price gets an empty
+     * price instead of a neighbour's. The ad id is the last long number in the ad link, which
+     * names one ad even when the page holds a single card and the card reaches up to a list
+     * wrapper; without one it is the first data-id on or in the card, or the id attribute
+     * of the card. Titles before the optional start index are skipped.
+     */
+    private static final String EXTRACT_AD_CARDS_SCRIPT =
+            "var item = arguments[0], from = arguments[1] || 0, cards = [];"
+            + "var titleSelector = \"h3[data-testid*='\" + item + \"-ad-title']\";"
+            + "var titles = document.querySelectorAll(titleSelector);"
+            + "var listSelector = \"ul, ol, [role='list'], [data-testid*='results']\";"
+            + "var priceSelector = \"[data-testid='\" + item + \"-ad-price']\";"
+            + "var imageSelector = \"[data-testid='\" + item + \"-ad-image-container'] img\";"
+            + "function cardOf(title) {"
+            + "  var card = title, parent = card.parentElement;"
+            + "  while (parent && parent !== document.body && !parent.matches(listSelector)"
+            + "         && parent.querySelectorAll(titleSelector).length === 1) {"
+            + "    card = parent;"
+            + "    parent = card.parentElement;"
+            + "  }"
+            + "  return card;"
+            + "}"
+            + "for (var i = from; i < titles.length; i++) {"
+            + "  var title = titles[i], card = cardOf(title);"
+            + "  var price = card.querySelector(priceSelector);"
+            + "  var titleText = title.innerText || '';"
+            + "  var sizeMatch = /\\d[\\d.,]*\\s*τ\\.μ\\./.exec(titleText) || /\\d[\\d.,]*\\s*τ\\.μ\\./.exec(card.innerText || '');"
+            + "  var link = title.closest('a[href]') || card.querySelector('a[href]');"
+            + "  var idMatch = link ? link.getAttribute('href').match(/\\d{5,}/g) : null;"
+            + "  var idHolder = card.matches('[data-id]') ? card : card.querySelector('[data-id]');"
+            + "  var id = idMatch ? idMatch[idMatch.length - 1]"
+            + "      : idHolder ? idHolder.getAttribute('data-id') : card.getAttribute('id') || '';"
+            + "  cards.push({ id: id, title: titleText, price: price ? price.innerText : '',"
+            + "               size: sizeMatch ? sizeMatch[0] : '', images: card.querySelectorAll(imageSelector).length });"
+            + "}"
+            + "return cards;";
 
     /**
      * Constructor for ResultsPage component
@@ -38,7 +101,7 @@ public class ResultsPage extends SeleniumActions {
      * @return Complete XPath for the ad result heading
      */
     public String h3AdResult(String item) {
-        return "//h3[contains(@data-testid,'" + item + "-ad-title')]";
+        return H3_AD_RESULT.xpath(item);
     }
 
     /**
@@ -48,7 +111,7 @@ public class ResultsPage extends SeleniumActions {
      * @return Complete XPath for the ad price span
      */
     public String spanAdPrice(String item) {
-        return "//span[@data-testid='" + item + "-ad-price']";
+        return SPAN_AD_PRICE.xpath(item);
     }
 
     /**
@@ -58,21 +121,31 @@ public class ResultsPage extends SeleniumActions {
      * @return Complete XPath for the ad images container
      */
     public String divAdImages(String item) {
-        return "//div[@data-testid='" + item + "-ad-image-container']";
+        return DIV_AD_IMAGES.xpath(item);
+    }
+
+    /**
+     * Construct the CSS selector of the ad titles based on item type, used to count lazy-loaded results
+     * 
+     * @param item The type of item (e.g., "property")
+     * @return CSS selector of the ad result headings
+     */
+    public String adTitleSelector(String item) {
+        return "h3[data-testid*='" + item + "-ad-title']";
     }
 
     /**
      * Click the sorting dropdown button to open sorting options
      */
     public void clickOpenSortingButton() {
-        findAndClick(BUTTON_OPEN_SORTING);
+        findAndClick(BUTTON_OPEN_SORTING.by());
     }
 
     /**
      * Click the ascending option button to sort results in ascending order
      */
     public void clickAscendingOptionButton() {
-        findAndClick(BUTTON_ASCENDING_OPTION);
+        findAndClick(BUTTON_ASCENDING_OPTION.by());
     }
 
 
@@ -81,14 +154,14 @@ public class ResultsPage extends SeleniumActions {
      * Click the more filters button to open additional filter options
      */
     public void clickMoreFiltersButton() {
-        findAndClick(BUTTON_MORE_FILTERS);
+        findAndClick(BUTTON_MORE_FILTERS.by());
     }
 
     /**
      * Click the price filter button to open price filter options
      */
     public void clickPriceFilterButton() {
-        findAndClick(BUTTON_PRICE_FILTER);
+        findAndClick(BUTTON_PRICE_FILTER.by());
     }
 
     /**
@@ -97,7 +170,7 @@ public class ResultsPage extends SeleniumActions {
      * @param item The type of item (e.g., "property")
      */
     public void clickAdPriceSpan(String item) {
-        findAndClick(spanAdPrice(item));
+        findAndClick(SPAN_AD_PRICE.by(item));
     }
 
     // ===== TYPE FUNCTION =====
@@ -107,7 +180,7 @@ public class ResultsPage extends SeleniumActions {
      * @param price The minimum price value to enter
      */
     public void typeMinimumPrice(String price) {
-        findAndType(INPUT_MINIMUM_PRICE, price);
+        findAndType(INPUT_MINIMUM_PRICE.by(), price);
     }
 
     /**
@@ -116,7 +189,7 @@ public class ResultsPage extends SeleniumActions {
      * @param price The maximum price value to enter
      */
     public void typeMaximumPrice(String price) {
-        findAndType(INPUT_MAXIMUM_PRICE, price);
+        findAndType(INPUT_MAXIMUM_PRICE.by(), price);
 
     }
 
@@ -126,14 +199,58 @@ public class ResultsPage extends SeleniumActions {
      * @param page The page number to navigate to
      */
     public void clickPageResult(String page) {
-        findAndClick(A_PAGE_RESULT + "[" + page + "]");
+        findAndClick(A_PAGE_RESULT_NUMBER.by(page));
     }
 
     /**
      * Click the phone info button to show contact information
      */
     public void clickPhoneInfoButton() {
-        findAndClick(BUTTON_PHONE_INFO);
+        findAndClick(BUTTON_PHONE_INFO.by());
+    }
+
+    // ===== PREFETCH FUNCTION =====
+    /**
+     * Start loading a results page in a background tab while the current page stays in use
+     * 
+     * @param page The page number to load
+     * @return The window handle of the tab, for {@link #showPrefetchedPage(String)}
+     */
+    public String prefetchPageResult(String page) {
+        String url = find(A_PAGE_RESULT_NUMBER.by(page)).getAttribute("href");
+        return openInBackgroundTab(url);
+    }
+
+    /**
+     * Continue on a prefetched results page, closing the tab of the current page
+     * 
+     * @param handle The window handle returned by {@link #prefetchPageResult(String)}
+     */
+    public void showPrefetchedPage(String handle) {
+        switchToTabClosingCurrent(handle);
+    }
+
+    /**
+     * Close a prefetched results page that will not be shown
+     * 
+     * @param handle The window handle returned by {@link #prefetchPageResult(String)}
+     */
+    public void discardPrefetchedPage(String handle) {
+        closeBackgroundTab(handle);
+    }
+
+    // ===== STREAM FUNCTION =====
+    /**
+     * Stream the ad cards of the current results page in batches, as they are lazy-loaded.
+     * Each batch holds the cards that appeared since the previous one; the page is scrolled
+     * one step at a time only when no unread cards are left, so a consumer that stops early
+     * also stops the scrolling.
+     * 
+     * @param item The type of item (e.g., "property")
+     * @return An iterator over batches of new ad cards, in page order
+     */
+    public AdCardBatches streamAdCards(String item) {
+        return new AdCardBatches(this, item, adTitleSelector(item));
     }
 
     // ===== FIND FUNCTION =====
@@ -147,11 +264,58 @@ public class ResultsPage extends SeleniumActions {
     }
 
     /**
-     * Find phone info element and validate its existence
+     * Find the number of results pages. Pagination may list only the pages around the
+     * current one plus the first and last, so this is the highest page number shown
+     * rather than the number of links.
+     * 
+     * @return The number of results pages, or 0 if there is no pagination
+     */
+    public int findTotalPages() {
+        int totalPages = 0;
+        for (WebElement pageResult : findPageResults()) {
+            String text = pageResult.getText().trim();
+            if (text.matches("\\d+")) {
+                totalPages = Math.max(totalPages, Integer.parseInt(text));
+            }
+        }
+        return totalPages;
+    }
+
+    /**
+     * Extract the ad cards of the given item type from a position on, with a single script call
+     * 
+     * @param item The type of item (e.g., "property")
+     * @param from Number of leading cards to skip (cards already read)
+     * @return The ad cards after the first {@code from}, in page order
+     */
+    public List<AdCard> extractAdCards(String item, int from) {
+        List<?> rawCards = (List<?>) ((JavascriptExecutor) getDriver())
+                .executeScript(EXTRACT_AD_CARDS_SCRIPT, item, from);
+        List<AdCard> cards = new ArrayList<>(rawCards.size());
+        for (Object rawCard : rawCards) {
+            Map<?, ?> card = (Map<?, ?>) rawCard;
+            cards.add(new AdCard(
+                    String.valueOf(card.get("id")),
+                    String.valueOf(card.get("title")),
+                    String.valueOf(card.get("price")),
+                    String.valueOf(card.get("size")),
+                    ((Number) card.get("images")).intValue()));
+        }
+        return cards;
+    }
+
+    /**
+     * Find phone info element and validate its existence.
+     * Presence is awaited for the default wait time; absence for at most two seconds,
+     * returning immediately if the element is already gone.
      * 
      * @param exists If true, validates element exists; if false, validates element does not exist
+     * @return The outcome of the check, including how long it took
      */
-    public void findPhoneInfo(boolean exists) {
-        find(DIV_PHONE_INFO, exists);
+    public PresenceResult findPhoneInfo(boolean exists) {
+        if (exists) {
+            return appearsWithin(DIV_PHONE_INFO, Duration.ofSeconds(10));
+        }
+        return disappearsWithin(DIV_PHONE_INFO, Duration.ofSeconds(2));
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.rentadsearchqa.locators.components;
 
+import com.rentadsearchqa.utils.Locator;
 import com.rentadsearchqa.utils.SeleniumActions;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.By;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -14,11 +16,20 @@ public class SearchPage extends SeleniumActions {
     
     // ===== PATHS AS VARIABLES =====
     private static final String INPUT_SEARCH_BASE_BAR = "//input[@type='text']";
-    private static final String INPUT_SEARCH = "//input[@type='submit']";
+    private static final Locator INPUT_SEARCH = Locator.of("//input[@type='submit']", "input[type='submit']");
     private static final String BUTTON_DROPDOWN = "//button[contains(@data-testid,'dropdown')]";
     private static final String BUTTON_TAB = "//button[contains(@data-testid,'tab')]";
     private static final String BUTTON_SELECTED_RESULT = "//button[@class='area-tag-button']";
     private static final String BUTTON_DROPDOWN_OPTION = "//button[contains(@data-testid,'dropdown_option')]";
+    private static final Locator INPUT_SEARCH_TYPE = Locator.of(
+            INPUT_SEARCH_BASE_BAR + "[contains(@data-testid,'{}')]", "input[type='text'][data-testid*='{}']");
+    private static final Locator BUTTON_DROPDOWN_TYPE = Locator.of(
+            BUTTON_DROPDOWN + "[contains(@data-testid,'{}')]",
+            "button[data-testid*='dropdown'][data-testid*='{}']");
+    private static final Locator BUTTON_TAB_TYPE = Locator.of(
+            BUTTON_TAB + "[contains(@data-testid,'{}')]", "button[data-testid*='tab'][data-testid*='{}']");
+    private static final Locator BUTTON_DROPDOWN_OPTION_TEXT = Locator.of(BUTTON_DROPDOWN_OPTION + "[.='{}']");
+    private static final Locator BUTTON_SELECTED_RESULT_TEXT = Locator.of(BUTTON_SELECTED_RESULT + "[.='{}']");
 
     /**
      * Constructor for SearchPage component
@@ -37,7 +48,7 @@ public class SearchPage extends SeleniumActions {
      * @return Complete XPath for the search input field
      */
     private String constructSearchInput(String searchType) {
-        return INPUT_SEARCH_BASE_BAR + "[contains(@data-testid,'" + searchType + "')]";
+        return INPUT_SEARCH_TYPE.xpath(searchType);
     }
     
     /**
@@ -47,7 +58,7 @@ public class SearchPage extends SeleniumActions {
      * @return Complete XPath for the dropdown button
      */
     private String constructDropdownButton(String dropdownType) {
-        return BUTTON_DROPDOWN + "[contains(@data-testid,'" + dropdownType + "')]";
+        return BUTTON_DROPDOWN_TYPE.xpath(dropdownType);
     }
     
     /**
@@ -57,7 +68,7 @@ public class SearchPage extends SeleniumActions {
      * @return Complete XPath for the tab button
      */
     private String constructTabButton(String tabType) {
-        return BUTTON_TAB + "[contains(@data-testid,'" + tabType + "')]";
+        return BUTTON_TAB_TYPE.xpath(tabType);
     }
 
     /**
@@ -67,7 +78,7 @@ public class SearchPage extends SeleniumActions {
      * @return Complete XPath for the dropdown option button
      */
     private String constructDropdownOptionButton(String text) {
-        return BUTTON_DROPDOWN_OPTION + "[.='" + text + "']";
+        return BUTTON_DROPDOWN_OPTION_TEXT.xpath(text);
     }
 
     /**
@@ -77,7 +88,7 @@ public class SearchPage extends SeleniumActions {
      * @return Complete XPath for the selected result button
      */
     private String constructSelectedResultButton(String text) {
-        return BUTTON_SELECTED_RESULT + "[.='" + text + "']";
+        return BUTTON_SELECTED_RESULT_TEXT.xpath(text);
     }
     
     // ===== CLICK FUNCTION =====
@@ -85,7 +96,7 @@ public class SearchPage extends SeleniumActions {
      * Click the search button to execute the search
      */
     public void clickSearchButton() {
-        findAndClick(INPUT_SEARCH);
+        findAndClick(INPUT_SEARCH.by());
     }
 
     /**
@@ -94,7 +105,7 @@ public class SearchPage extends SeleniumActions {
      * @param text The text content of the dropdown option to click
      */
     public void clickDropdownOption(String text) {
-        findAndClick(constructDropdownOptionButton(text));
+        findAndClick(BUTTON_DROPDOWN_OPTION_TEXT.by(text));
     }
     
     
@@ -106,7 +117,7 @@ public class SearchPage extends SeleniumActions {
      * @param text The text to type into the input field
      */
     public void typeSearchInput(String searchType, String text) {
-        findAndType(constructSearchInput(searchType), text);
+        findAndType(INPUT_SEARCH_TYPE.by(searchType), text);
     }
 
     // ===== COUNT FUNCTION =====
@@ -117,7 +128,7 @@ public class SearchPage extends SeleniumActions {
      * @return Number of dropdown option buttons found
      */
     public int countDropdownOptionButtons(String text) {
-        return countElements(constructDropdownOptionButton(text));
+        return countElements(BUTTON_DROPDOWN_OPTION_TEXT.by(text));
     }
 
     /**
@@ -127,16 +138,17 @@ public class SearchPage extends SeleniumActions {
      * @return Number of selected result buttons found
      */
     public int countSelectedResultButtons(String text) {
-        return countElements(constructSelectedResultButton(text));
+        return countElements(BUTTON_SELECTED_RESULT_TEXT.by(text));
     }
     
     /**
-     * Find all dropdown option elements
+     * Find all dropdown option elements once the dropdown has settled
+     * (two lookups 100ms apart found the same number of options)
      * 
      * @return List of WebElements representing dropdown options
      */
     public List<WebElement> findDropdownOptions() {
-        return findElements(BUTTON_DROPDOWN_OPTION);
+        return findSettledElements(BUTTON_DROPDOWN_OPTION, Duration.ofMillis(100));
     }
     
 }
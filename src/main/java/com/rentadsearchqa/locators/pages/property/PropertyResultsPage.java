@@ -1,6 +1,8 @@
 package com.rentadsearchqa.locators.pages;
 
+import com.rentadsearchqa.locators.components.AdCardBatches;
 import com.rentadsearchqa.locators.components.ResultsPage;
+import com.rentadsearchqa.utils.Locator;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import java.util.List;
@@ -21,10 +23,14 @@ public class PropertyResultsPage extends ResultsPage {
     }
 
     // ===== PATHS AS VARIABLES =====
-    private static final String BUTTON_SIZE_FILTER = "//button[@data-testid='size-filter-button']";
-    private static final String INPUT_MINIMUM_SIZE = "//input[@data-testid='minimum_size_input']";
-    private static final String INPUT_MAXIMUM_SIZE = "//input[@data-testid='maximum_size_input']";
-    private static final String BUTTON_SUBMIT_INPUT = "//button[@data-testid='submit-input']";
+    private static final Locator BUTTON_SIZE_FILTER = Locator.of(
+            "//button[@data-testid='size-filter-button']", "button[data-testid='size-filter-button']");
+    private static final Locator INPUT_MINIMUM_SIZE = Locator.of(
+            "//input[@data-testid='minimum_size_input']", "input[data-testid='minimum_size_input']");
+    private static final Locator INPUT_MAXIMUM_SIZE = Locator.of(
+            "//input[@data-testid='maximum_size_input']", "input[data-testid='maximum_size_input']");
+    private static final Locator BUTTON_SUBMIT_INPUT = Locator.of(
+            "//button[@data-testid='submit-input']", "button[data-testid='submit-input']");
 
 
     // ===== CLICK FUNCTION =====
@@ -32,7 +38,7 @@ public class PropertyResultsPage extends ResultsPage {
      * Click the size filter button to open size filter options
      */
     public void clickSizeFilterButton() {
-        findAndClick(BUTTON_SIZE_FILTER);
+        findAndClick(BUTTON_SIZE_FILTER.by());
     }
 
     /**
@@ -46,7 +52,7 @@ public class PropertyResultsPage extends ResultsPage {
      * Click the submit input button to apply filter changes
      */
     public void clickSubmitInputButton() {
-        findAndClick(BUTTON_SUBMIT_INPUT);
+        findAndClick(BUTTON_SUBMIT_INPUT.by());
     }
 
     // ===== TYPE FUNCTION =====
@@ -56,7 +62,7 @@ public class PropertyResultsPage extends ResultsPage {
      * @param size The minimum size value to enter
      */
     public void typeMinimumSize(String size) {
-        findAndType(INPUT_MINIMUM_SIZE, size);
+        findAndType(INPUT_MINIMUM_SIZE.by(), size);
     }
 
     /**
@@ -65,7 +71,7 @@ public class PropertyResultsPage extends ResultsPage {
      * @param size The maximum size value to enter
      */
     public void typeMaximumSize(String size) {
-        findAndType(INPUT_MAXIMUM_SIZE, size);
+        findAndType(INPUT_MAXIMUM_SIZE.by(), size);
     }
 
     // ===== FIND FUNCTION =====
@@ -77,7 +83,7 @@ public class PropertyResultsPage extends ResultsPage {
      */
     public List<WebElement> findPropertyResults() {
         // Scroll to the end of the page to load all property results
-        scrollToEndOfPage();
+        scrollToEndOfPage(adTitleSelector("property"));
         return findElements(h3AdResult("property"));
     }
 
@@ -89,7 +95,7 @@ public class PropertyResultsPage extends ResultsPage {
      */
     public List<WebElement> findPropertyPrices() {
         // Scroll to the end of the page to load all property results
-        scrollToEndOfPage();
+        scrollToEndOfPage(adTitleSelector("property"));
         return findElements(spanAdPrice("property"));
     }
 
@@ -101,10 +107,17 @@ public class PropertyResultsPage extends ResultsPage {
      */
     public List<WebElement> findPropertyImages() {
         // Scroll to the end of the page to load all property results
-        scrollToEndOfPage();
+        scrollToEndOfPage(adTitleSelector("property"));
         return findElements(divAdImages("property"));
     }
-}
-
 
-        
\ No newline at end of file
+    /**
+     * Stream the property ad cards in batches while the page lazy-loads.
+     * Scrolling advances only when all loaded cards have been consumed.
+     * 
+     * @return An iterator over batches of new property ad cards, in page order
+     */
+    public AdCardBatches streamPropertyAdCards() {
+        return streamAdCards("property");
+    }
+}
@@ -0,0 +1,81 @@
+package com.rentadsearchqa.matrix;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many tests drive the same host at once, whatever the number of test threads.
+ *
+ * Each host gets its own fair semaphore, so a large matrix against the live site stays
+ * polite while runs against a local stand-in are not slowed down by it.
+ */
+public class HostConcurrencyLimiter {
+
+    private final int perHost;
+    private final Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for HostConcurrencyLimiter
+     *
+     * @param perHost Maximum number of concurrent tests per host
+     */
+    public HostConcurrencyLimiter(int perHost) {
+        if (perHost < 1) {
+            throw new IllegalArgumentException("perHost must be at least 1");
+        }
+        this.perHost = perHost;
+    }
+
+    /**
+     * Wait until the host of a URL has a free slot and take it
+     *
+     * @param url Any URL of the host
+     * @return The slot, released by closing it
+     */
+    public Permit acquire(String url) {
+        String host = hostOf(url);
+        Semaphore semaphore = hosts.computeIfAbsent(host, key -> new Semaphore(perHost, true));
+        semaphore.acquireUninterruptibly();
+        return new Permit(semaphore);
+    }
+
+    /**
+     * Get the number of free slots of a host
+     *
+     * @param url Any URL of the host
+     * @return The free slots
+     */
+    public int available(String url) {
+        Semaphore semaphore = hosts.get(hostOf(url));
+        return semaphore == null ? perHost : semaphore.availablePermits();
+    }
+
+    private static String hostOf(String url) {
+        URI uri = URI.create(url);
+        String host = uri.getHost() == null ? url : uri.getHost();
+        return (host + ":" + uri.getPort()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A slot of a host, released exactly once on close
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private Semaphore semaphore;
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null) {
+                semaphore.release();
+                semaphore = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.rentadsearchqa.matrix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcome of every combination of a matrix run, collected from parallel test threads.
+ */
+public class MatrixResults {
+
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+    private final List<String> order;
+
+    /**
+     * Constructor for MatrixResults
+     *
+     * @param combinations The combinations of the run, in report order
+     */
+    public MatrixResults(List<SearchCombination> combinations) {
+        this.order = new ArrayList<>(combinations.size());
+        for (SearchCombination combination : combinations) {
+            order.add(combination.toString());
+        }
+    }
+
+    /**
+     * Record the outcome of a combination
+     *
+     * @param combination The combination that ran
+     * @param passed Whether its validation passed
+     * @param durationMillis How long it took
+     * @param failure The failure message, or null if it passed
+     */
+    public void record(SearchCombination combination, boolean passed, long durationMillis, String failure) {
+        outcomes.put(combination.toString(), new Outcome(passed, durationMillis, failure));
+    }
+
+    /**
+     * Get the number of combinations that passed
+     *
+     * @return The passed count
+     */
+    public int getPassed() {
+        return (int) outcomes.values().stream().filter(outcome -> outcome.passed).count();
+    }
+
+    /**
+     * Get the number of combinations that failed
+     *
+     * @return The failed count
+     */
+    public int getFailed() {
+        return outcomes.size() - getPassed();
+    }
+
+    /**
+     * Summarise the run, e.g. "38 of 40 combinations passed, 2 failed, 0 not run"
+     *
+     * @return One line for the test log
+     */
+    public String summary() {
+        return getPassed() + " of " + order.size() + " combinations passed, " + getFailed() + " failed, "
+                + (order.size() - outcomes.size()) + " not run";
+    }
+
+    /**
+     * Write one CSV line per combination, in matrix order: combination, status, duration, failure
+     *
+     * @param file The CSV file to write
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    public void writeCsv(Path file) {
+        StringBuilder csv = new StringBuilder("combination,status,duration_ms,failure\n");
+        for (String combination : order) {
+            Outcome outcome = outcomes.get(combination);
+            csv.append(quote(combination)).append(',');
+            if (outcome == null) {
+                csv.append("NOT_RUN,,\n");
+                continue;
+            }
+            csv.append(outcome.passed ? "PASSED" : "FAILED").append(',').append(outcome.durationMillis).append(',')
+                    .append(outcome.failure == null ? "" : quote(outcome.failure)).append('\n');
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write matrix results to " + file, e);
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+    }
+
+    /**
+     * Result of one combination
+     */
+    private static final class Outcome {
+        private final boolean passed;
+        private final long durationMillis;
+        private final String failure;
+
+        private Outcome(boolean passed, long durationMillis, String failure) {
+            this.passed = passed;
+            this.durationMillis = durationMillis;
+            this.failure = failure;
+        }
+    }
+}
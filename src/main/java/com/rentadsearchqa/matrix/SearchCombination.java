@@ -0,0 +1,65 @@
+package com.rentadsearchqa.matrix;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One area and filter combination of a search matrix.
+ */
+public final class SearchCombination {
+
+    private final String area;
+    private final List<Map<String, String>> filters;
+
+    /**
+     * Constructor for SearchCombination
+     *
+     * @param area The area to search (e.g. "Παγκράτι")
+     * @param filters Filter maps with "title", "min" and "max", as used by properties.filterAndValidateResults
+     */
+    public SearchCombination(String area, List<Map<String, String>> filters) {
+        this.area = area;
+        this.filters = List.copyOf(filters);
+    }
+
+    public String getArea() {
+        return area;
+    }
+
+    public List<Map<String, String>> getFilters() {
+        return filters;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SearchCombination)) {
+            return false;
+        }
+        SearchCombination combination = (SearchCombination) other;
+        return area.equals(combination.area) && filters.equals(combination.filters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(area, filters);
+    }
+
+    /**
+     * Describe the combination for test names and reports, e.g. "Παγκράτι | price 200-700 | size 75-150"
+     *
+     * @return The description
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(area);
+        for (Map<String, String> filter : filters) {
+            text.append(" | ").append(filter.get("title")).append(' ')
+                    .append(filter.get("min")).append('-').append(filter.get("max"));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,271 @@
+package com.rentadsearchqa.matrix;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Areas and filter ranges to search, and the combinations of them to run.
+ *
+ * Loaded from a JSON file such as:
+ * <pre>
+ * {
+ *   "reduction": "pairwise",
+ *   "areas": ["Παγκράτι", "Κουκάκι"],
+ *   "filters": {
+ *     "price": [{"min": "200", "max": "700"}, {"min": "700", "max": "1500"}],
+ *     "size": [{"min": "75", "max": "150"}]
+ *   }
+ * }
+ * </pre>
+ * The area and every filter title are dimensions. {@link Reduction#FULL} runs their cross
+ * product; {@link Reduction#PAIRWISE} runs a smaller set in which every pair of values from two
+ * dimensions still appears at least once, e.g. every area with every price range.
+ */
+public class SearchMatrix {
+
+    /**
+     * How the dimensions are combined
+     */
+    public enum Reduction {
+        FULL,
+        PAIRWISE;
+
+        /**
+         * Parse a reduction name (full or pairwise)
+         *
+         * @param name The name, case-insensitive
+         * @return The reduction
+         * @throws IllegalArgumentException If the name is unknown
+         */
+        public static Reduction fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final List<String> areas;
+    private final Map<String, List<Map<String, String>>> filterRanges;
+    private final Reduction reduction;
+
+    /**
+     * Constructor for SearchMatrix
+     *
+     * @param areas Areas to search
+     * @param filterRanges Ranges per filter title, each with "min" and "max", in dimension order
+     * @param reduction The default reduction of the matrix
+     */
+    public SearchMatrix(List<String> areas, Map<String, List<Map<String, String>>> filterRanges, Reduction reduction) {
+        if (areas.isEmpty()) {
+            throw new IllegalArgumentException("A search matrix needs at least one area");
+        }
+        this.areas = List.copyOf(areas);
+        this.filterRanges = new LinkedHashMap<>(filterRanges);
+        this.reduction = reduction;
+    }
+
+    /**
+     * Load a matrix from a JSON file
+     *
+     * @param file The matrix file
+     * @return The matrix
+     * @throws UncheckedIOException If the file cannot be read
+     * @throws JsonException If the file has no areas or malformed filters
+     */
+    @SuppressWarnings("unchecked")
+    public static SearchMatrix load(Path file) {
+        Map<String, Object> json;
+        try {
+            json = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read search matrix " + file, e);
+        }
+        try {
+            List<String> areas = new ArrayList<>();
+            for (Object area : (List<Object>) json.get("areas")) {
+                areas.add((String) area);
+            }
+            Map<String, List<Map<String, String>>> filterRanges = new LinkedHashMap<>();
+            Map<String, Object> filters = (Map<String, Object>) json.getOrDefault("filters", Map.of());
+            for (Map.Entry<String, Object> filter : filters.entrySet()) {
+                List<Map<String, String>> ranges = new ArrayList<>();
+                for (Object range : (List<Object>) filter.getValue()) {
+                    Map<String, Object> bounds = (Map<String, Object>) range;
+                    ranges.add(Map.of("title", filter.getKey(),
+                            "min", String.valueOf(bounds.get("min")), "max", String.valueOf(bounds.get("max"))));
+                }
+                filterRanges.put(filter.getKey(), ranges);
+            }
+            Reduction reduction = Reduction.fromName(String.valueOf(json.getOrDefault("reduction", "full")));
+            return new SearchMatrix(areas, filterRanges, reduction);
+        } catch (ClassCastException | NullPointerException | IllegalArgumentException e) {
+            throw new JsonException("Malformed search matrix " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the reduction the matrix file asks for
+     *
+     * @return The default reduction
+     */
+    public Reduction getReduction() {
+        return reduction;
+    }
+
+    /**
+     * Get the combinations to run with the matrix's own reduction
+     *
+     * @return The combinations, in a stable order
+     */
+    public List<SearchCombination> combinations() {
+        return combinations(reduction);
+    }
+
+    /**
+     * Get the combinations to run
+     *
+     * @param reduction Full cross product or pairwise
+     * @return The combinations, in a stable order
+     */
+    public List<SearchCombination> combinations(Reduction reduction) {
+        List<List<Map<String, String>>> dimensions = new ArrayList<>(filterRanges.values());
+        int[] sizes = new int[dimensions.size() + 1];
+        sizes[0] = areas.size();
+        for (int d = 0; d < dimensions.size(); d++) {
+            sizes[d + 1] = dimensions.get(d).size();
+        }
+        List<int[]> rows = reduction == Reduction.PAIRWISE ? pairwise(sizes) : crossProduct(sizes);
+
+        List<SearchCombination> combinations = new ArrayList<>(rows.size());
+        for (int[] row : rows) {
+            List<Map<String, String>> filters = new ArrayList<>(dimensions.size());
+            for (int d = 0; d < dimensions.size(); d++) {
+                filters.add(dimensions.get(d).get(row[d + 1]));
+            }
+            combinations.add(new SearchCombination(areas.get(row[0]), filters));
+        }
+        return combinations;
+    }
+
+    /**
+     * Every combination of value indexes, the last dimension varying fastest
+     *
+     * @param sizes Number of values per dimension
+     * @return The rows of value indexes
+     */
+    static List<int[]> crossProduct(int[] sizes) {
+        List<int[]> rows = new ArrayList<>();
+        for (int size : sizes) {
+            if (size == 0) {
+                return rows;
+            }
+        }
+        int[] row = new int[sizes.length];
+        while (true) {
+            rows.add(row.clone());
+            int d = sizes.length - 1;
+            while (d >= 0 && ++row[d] == sizes[d]) {
+                row[d--] = 0;
+            }
+            if (d < 0) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Rows of value indexes covering every pair of values from two dimensions, built greedily:
+     * each row starts from the first uncovered pair and fills the other dimensions with the
+     * value that covers the most new pairs (lowest index on ties), so the result is stable.
+     *
+     * @param sizes Number of values per dimension
+     * @return The rows of value indexes
+     */
+    static List<int[]> pairwise(int[] sizes) {
+        int dimensions = sizes.length;
+        if (dimensions < 3) {
+            // With two dimensions every pair is a row of the cross product
+            return crossProduct(sizes);
+        }
+        for (int size : sizes) {
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+        }
+        boolean[][][][] covered = new boolean[dimensions][dimensions][][];
+        int uncovered = 0;
+        for (int i = 0; i < dimensions; i++) {
+            for (int j = i + 1; j < dimensions; j++) {
+                covered[i][j] = new boolean[sizes[i]][sizes[j]];
+                uncovered += sizes[i] * sizes[j];
+            }
+        }
+
+        List<int[]> rows = new ArrayList<>();
+        while (uncovered > 0) {
+            int[] row = new int[dimensions];
+            Arrays.fill(row, -1);
+            seedWithFirstUncoveredPair(sizes, covered, row);
+            for (int d = 0; d < dimensions; d++) {
+                if (row[d] >= 0) {
+                    continue;
+                }
+                int best = 0;
+                int bestGain = -1;
+                for (int value = 0; value < sizes[d]; value++) {
+                    int gain = 0;
+                    for (int other = 0; other < dimensions; other++) {
+                        if (row[other] >= 0 && !isCovered(covered, d, value, other, row[other])) {
+                            gain++;
+                        }
+                    }
+                    if (gain > bestGain) {
+                        best = value;
+                        bestGain = gain;
+                    }
+                }
+                row[d] = best;
+            }
+            for (int i = 0; i < dimensions; i++) {
+                for (int j = i + 1; j < dimensions; j++) {
+                    if (!covered[i][j][row[i]][row[j]]) {
+                        covered[i][j][row[i]][row[j]] = true;
+                        uncovered--;
+                    }
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void seedWithFirstUncoveredPair(int[] sizes, boolean[][][][] covered, int[] row) {
+        for (int i = 0; i < sizes.length; i++) {
+            for (int j = i + 1; j < sizes.length; j++) {
+                for (int a = 0; a < sizes[i]; a++) {
+                    for (int b = 0; b < sizes[j]; b++) {
+                        if (!covered[i][j][a][b]) {
+                            row[i] = a;
+                            row[j] = b;
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isCovered(boolean[][][][] covered, int d, int value, int other, int otherValue) {
+        return d < other ? covered[d][other][value][otherValue] : covered[other][d][otherValue][value];
+    }
+}
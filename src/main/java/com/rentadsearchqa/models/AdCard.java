@@ -0,0 +1,59 @@
+package com.rentadsearchqa.models;
+
+/**
+ * Data of a single ad card on a results page, extracted in bulk from the browser.
+ * 
+ * Values are kept as displayed on the page (raw text); parsing and validation
+ * happen in the JVM without further WebDriver calls.
+ */
+public class AdCard {
+
+    private final String adId;
+    private final String title;
+    private final String rawPrice;
+    private final String rawSize;
+    private final int imageCount;
+
+    /**
+     * Constructor for AdCard
+     * 
+     * @param adId Identifier of the ad (empty if the card exposes none)
+     * @param title Text of the ad title heading
+     * @param rawPrice Text of the price element (e.g. "650 €"), empty if missing
+     * @param rawSize Size text found on the card (e.g. "85 τ.μ."), empty if missing
+     * @param imageCount Number of images in the ad image container
+     */
+    public AdCard(String adId, String title, String rawPrice, String rawSize, int imageCount) {
+        this.adId = adId;
+        this.title = title;
+        this.rawPrice = rawPrice;
+        this.rawSize = rawSize;
+        this.imageCount = imageCount;
+    }
+
+    public String getAdId() {
+        return adId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getRawPrice() {
+        return rawPrice;
+    }
+
+    public String getRawSize() {
+        return rawSize;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AdCard{adId='" + adId + "', title='" + title + "', rawPrice='" + rawPrice
+                + "', rawSize='" + rawSize + "', imageCount=" + imageCount + "}";
+    }
+}
@@ -0,0 +1,118 @@
+package com.rentadsearchqa.network;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A rule that blocks or allows browser requests by URL pattern and resource type.
+ *
+ * URL patterns use '*' as a wildcard for any run of characters and must match the whole
+ * URL, e.g. "*doubleclick.net*" or "https://www.xe.gr/static/*.js". A rule without a pattern
+ * matches every URL, and a rule without types matches every resource type.
+ */
+public final class BlockingRule {
+
+    private final boolean block;
+    private final String urlPattern;
+    private final Set<ResourceType> types;
+
+    private BlockingRule(boolean block, String urlPattern, Set<ResourceType> types) {
+        this.block = block;
+        this.urlPattern = urlPattern;
+        this.types = types.isEmpty() ? EnumSet.allOf(ResourceType.class) : EnumSet.copyOf(types);
+    }
+
+    /**
+     * Create a rule that blocks matching requests
+     *
+     * @param urlPattern URL pattern with '*' wildcards, or null for any URL
+     * @param types Resource types the rule applies to; none means all
+     * @return The rule
+     */
+    public static BlockingRule block(String urlPattern, ResourceType... types) {
+        return new BlockingRule(true, urlPattern, Set.of(types));
+    }
+
+    /**
+     * Create a rule that lets matching requests through, overriding earlier block rules
+     *
+     * @param urlPattern URL pattern with '*' wildcards, or null for any URL
+     * @param types Resource types the rule applies to; none means all
+     * @return The rule
+     */
+    public static BlockingRule allow(String urlPattern, ResourceType... types) {
+        return new BlockingRule(false, urlPattern, Set.of(types));
+    }
+
+    /**
+     * Whether the rule blocks (rather than allows) the requests it matches
+     *
+     * @return True for a block rule
+     */
+    public boolean isBlock() {
+        return block;
+    }
+
+    /**
+     * Get the URL pattern of the rule
+     *
+     * @return The pattern with '*' wildcards, or null if the rule matches any URL
+     */
+    public String getUrlPattern() {
+        return urlPattern;
+    }
+
+    /**
+     * Get the resource types the rule applies to
+     *
+     * @return The types, all of them if the rule was created without types
+     */
+    public Set<ResourceType> getTypes() {
+        return EnumSet.copyOf(types);
+    }
+
+    /**
+     * Whether the rule applies to a request
+     *
+     * @param url The request URL
+     * @param type The resource type of the request
+     * @return True if both the URL pattern and the resource type match
+     */
+    public boolean matches(String url, ResourceType type) {
+        return types.contains(type) && (urlPattern == null || wildcardMatch(urlPattern, url));
+    }
+
+    @Override
+    public String toString() {
+        return (block ? "block " : "allow ") + (urlPattern == null ? "*" : urlPattern) + " " + types;
+    }
+
+    /**
+     * Match text against a pattern where '*' stands for any run of characters, without regex
+     */
+    static boolean wildcardMatch(String pattern, String text) {
+        int p = 0;
+        int t = 0;
+        int star = -1;
+        int starText = 0;
+        while (t < text.length()) {
+            if (p < pattern.length() && pattern.charAt(p) == text.charAt(t)) {
+                p++;
+                t++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                star = p++;
+                starText = t;
+            } else if (star >= 0) {
+                // Let the last '*' swallow one more character and retry
+                p = star + 1;
+                t = ++starText;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
@@ -0,0 +1,392 @@
+package com.rentadsearchqa.network;
+
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocks browser requests the assertions do not need, such as ad networks, analytics,
+ * fonts and listing images.
+ *
+ * Each request is classified by {@link ResourceType} and checked against the rules in
+ * order; the last matching rule decides, and requests no rule matches are allowed.
+ * Blocked requests never reach the network, so pages still render their DOM.
+ *
+ * On its own the filter is installed with {@link #install(DevTools)}, which leaves
+ * allowed traffic to Chrome: URL rules no later allow rule can override are handed to
+ * Network.setBlockedURLs, and only requests the remaining block rules may match are paused
+ * (Fetch, request stage) to be decided here. Response bodies never cross the DevTools
+ * connection, and the size of allowed responses is the transferred size Chrome reports
+ * in Network.loadingFinished. In front of the record/replay filter, which intercepts every
+ * response anyway, it runs as a Selenium NetworkInterceptor filter instead; blocked
+ * requests then get an empty 204 and sizes are those of the received bodies.
+ *
+ * One filter belongs to one browser session. {@link #beginTest(List)} adds the overrides
+ * of the next test and restarts the counts of blocked and allowed requests.
+ *
+ * Configured with system properties:
+ * - block.profile: off (default) or dom-only, see {@link #profile(String)}
+ * - block.urls: extra comma-separated URL patterns to block
+ * - block.types: extra comma-separated resource types to block (e.g. image,font)
+ */
+public class ResourceBlockingFilter implements Filter {
+
+    // Hosts of ad networks, analytics and tag managers
+    private static final String[] TRACKER_PATTERNS = {
+            "*doubleclick.net*", "*googlesyndication.com*", "*googleadservices.com*", "*adservice.google.*",
+            "*googletagmanager.com*", "*google-analytics.com*", "*googletagservices.com*",
+            "*facebook.net*", "*connect.facebook.com*", "*hotjar.com*", "*criteo.*", "*taboola.com*",
+            "*adnxs.com*", "*scorecardresearch.com*", "*clarity.ms*"
+    };
+
+    private static final int TYPES = ResourceType.values().length;
+
+    private static final Event<Map<String, Object>> REQUEST_PAUSED = event("Fetch.requestPaused");
+    private static final Event<Map<String, Object>> RESPONSE_RECEIVED = event("Network.responseReceived");
+    private static final Event<Map<String, Object>> LOADING_FINISHED = event("Network.loadingFinished");
+    private static final Event<Map<String, Object>> LOADING_FAILED = event("Network.loadingFailed");
+
+    private final List<BlockingRule> profileRules;
+    private volatile List<BlockingRule> rules;
+    private final AtomicLongArray blocked = new AtomicLongArray(TYPES);
+    private final AtomicLongArray allowed = new AtomicLongArray(TYPES);
+    private final AtomicLongArray allowedBytes = new AtomicLongArray(TYPES);
+    // Kept across tests: sizes of allowed responses, to estimate the bytes saved
+    private final AtomicLongArray sizedResponses = new AtomicLongArray(TYPES);
+    private final AtomicLongArray sizedBytes = new AtomicLongArray(TYPES);
+    // Resource types of responses Chrome is still loading, by DevTools request id
+    private final Map<String, ResourceType> loading = new ConcurrentHashMap<>();
+    private volatile DevTools devTools;
+
+    /**
+     * Constructor for ResourceBlockingFilter
+     *
+     * @param profileRules Rules applied to every test, in order
+     */
+    public ResourceBlockingFilter(List<BlockingRule> profileRules) {
+        this.profileRules = List.copyOf(profileRules);
+        this.rules = this.profileRules;
+    }
+
+    /**
+     * Get the rules of a named profile
+     *
+     * @param name off (no rules) or dom-only (ad networks, analytics, images, fonts and media blocked)
+     * @return The profile rules, in order
+     * @throws IllegalArgumentException If the profile is unknown
+     */
+    public static List<BlockingRule> profile(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "off":
+                return Collections.emptyList();
+            case "dom-only":
+                List<BlockingRule> rules = new ArrayList<>();
+                for (String pattern : TRACKER_PATTERNS) {
+                    rules.add(BlockingRule.block(pattern));
+                }
+                rules.add(BlockingRule.block(null, ResourceType.IMAGE, ResourceType.FONT, ResourceType.MEDIA));
+                return rules;
+            default:
+                throw new IllegalArgumentException("block.profile must be off or dom-only: " + name);
+        }
+    }
+
+    /**
+     * Get the rules configured with -Dblock.profile, -Dblock.urls and -Dblock.types
+     *
+     * @return The configured rules, empty if nothing is blocked
+     */
+    public static List<BlockingRule> rulesFromSystemProperties() {
+        List<BlockingRule> rules = new ArrayList<>(profile(System.getProperty("block.profile", "off")));
+        for (String pattern : System.getProperty("block.urls", "").split(",")) {
+            if (!pattern.isBlank()) {
+                rules.add(BlockingRule.block(pattern.trim()));
+            }
+        }
+        for (String type : System.getProperty("block.types", "").split(",")) {
+            if (!type.isBlank()) {
+                rules.add(BlockingRule.block(null, ResourceType.fromName(type)));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Prepare for the next test: apply its overrides after the profile rules and restart the counts
+     *
+     * @param overrides Rules of the test, e.g. an allow rule for images in an image-count test
+     */
+    public void beginTest(List<BlockingRule> overrides) {
+        List<BlockingRule> testRules = new ArrayList<>(profileRules);
+        testRules.addAll(overrides);
+        rules = testRules;
+        for (int i = 0; i < TYPES; i++) {
+            blocked.set(i, 0);
+            allowed.set(i, 0);
+            allowedBytes.set(i, 0);
+        }
+        DevTools installed = devTools;
+        if (installed != null) {
+            applyRules(installed);
+        }
+    }
+
+    /**
+     * Block on a Chrome session through its DevTools connection, see the class description
+     *
+     * @param devTools The DevTools connection of the session
+     */
+    public void install(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(REQUEST_PAUSED, paused -> onRequestPaused(devTools, paused));
+        devTools.addListener(RESPONSE_RECEIVED, received ->
+                loading.put((String) received.get("requestId"), ResourceType.fromDevTools((String) received.get("type"))));
+        devTools.addListener(LOADING_FINISHED, finished -> {
+            ResourceType type = loading.remove((String) finished.get("requestId"));
+            recordAllowed(type == null ? ResourceType.OTHER : type,
+                    ((Number) finished.get("encodedDataLength")).longValue());
+        });
+        devTools.addListener(LOADING_FAILED, failed -> {
+            loading.remove((String) failed.get("requestId"));
+            // Requests dropped by setBlockedURLs and those failed in onRequestPaused alike
+            if (String.valueOf(failed.get("errorText")).contains("ERR_BLOCKED_BY_CLIENT")) {
+                blocked.incrementAndGet(ResourceType.fromDevTools((String) failed.get("type")).ordinal());
+            }
+        });
+        devTools.send(new Command<Void>("Network.enable", Map.of()));
+        this.devTools = devTools;
+        applyRules(devTools);
+    }
+
+    /**
+     * Get the URL patterns Chrome can block by itself: those of block rules for every
+     * resource type that no later allow rule can override
+     *
+     * @return The patterns for Network.setBlockedURLs
+     */
+    public List<String> getBlockedUrlPatterns() {
+        List<BlockingRule> current = rules;
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            if (blockedByChrome(current, i)) {
+                patterns.add(current.get(i).getUrlPattern());
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Get the requests that must be paused to be decided by the rules: those the remaining
+     * block rules may match
+     *
+     * @return The request patterns for Fetch.enable, empty if no request needs pausing
+     */
+    public List<Map<String, Object>> getPausedRequestPatterns() {
+        List<BlockingRule> current = rules;
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            BlockingRule rule = current.get(i);
+            if (!rule.isBlock() || blockedByChrome(current, i)) {
+                continue;
+            }
+            // Fetch patterns also know '?' as a wildcard, and backslash as escape
+            String url = rule.getUrlPattern() == null ? "*"
+                    : rule.getUrlPattern().replace("\\", "\\\\").replace("?", "\\?");
+            if (rule.getTypes().contains(ResourceType.OTHER)) {
+                patterns.add(pattern(url, null));
+                continue;
+            }
+            for (ResourceType type : rule.getTypes()) {
+                for (String devToolsType : type.devToolsTypes()) {
+                    patterns.add(pattern(url, devToolsType));
+                }
+            }
+        }
+        return patterns;
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            ResourceType type = ResourceType.of(request);
+            if (isBlocked(request.getUri(), type)) {
+                blocked.incrementAndGet(type.ordinal());
+                return new HttpResponse().setStatus(204);
+            }
+            HttpResponse response = next.execute(request);
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+            recordAllowed(type, body.length);
+            return response;
+        };
+    }
+
+    /**
+     * Whether the current rules block a request
+     *
+     * @param url The request URL
+     * @param type The resource type of the request
+     * @return True if the last matching rule is a block rule
+     */
+    public boolean isBlocked(String url, ResourceType type) {
+        List<BlockingRule> current = rules;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (current.get(i).matches(url, type)) {
+                return current.get(i).isBlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of requests blocked since the test began
+     *
+     * @return Blocked requests of all types
+     */
+    public long getBlockedRequests() {
+        return sum(blocked);
+    }
+
+    /**
+     * Get the number of requests allowed since the test began
+     *
+     * @return Allowed requests of all types
+     */
+    public long getAllowedRequests() {
+        return sum(allowed);
+    }
+
+    /**
+     * Estimate the bytes the blocked requests would have downloaded, from the average measured
+     * size of allowed responses of the same type seen by this session. Blocked requests of types
+     * never allowed count as 0, so the estimate leans low when whole types are blocked.
+     *
+     * @return Estimated bytes saved since the test began
+     */
+    public long getEstimatedBytesSaved() {
+        long saved = 0;
+        for (int i = 0; i < TYPES; i++) {
+            long samples = sizedResponses.get(i);
+            if (samples > 0) {
+                saved += blocked.get(i) * (sizedBytes.get(i) / samples);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Summarise the requests of the test, e.g.
+     * "blocked 42 requests (IMAGE 30, SCRIPT 12), allowed 18 (310 KB), saved about 1250 KB"
+     *
+     * @return One line for the test log
+     */
+    public String report() {
+        StringBuilder line = new StringBuilder("blocked ").append(getBlockedRequests()).append(" requests");
+        String separator = " (";
+        for (ResourceType type : ResourceType.values()) {
+            long count = blocked.get(type.ordinal());
+            if (count > 0) {
+                line.append(separator).append(type).append(' ').append(count);
+                separator = ", ";
+            }
+        }
+        if (!separator.equals(" (")) {
+            line.append(')');
+        }
+        return line.append(", allowed ").append(getAllowedRequests())
+                .append(" (").append(sum(allowedBytes) / 1024).append(" KB)")
+                .append(", saved about ").append(getEstimatedBytesSaved() / 1024).append(" KB")
+                .toString();
+    }
+
+    /**
+     * Send the current rules to Chrome
+     *
+     * @param devTools The DevTools connection the filter is installed on
+     */
+    private void applyRules(DevTools devTools) {
+        devTools.send(new Command<Void>("Network.setBlockedURLs", Map.of("urls", getBlockedUrlPatterns())));
+        List<Map<String, Object>> patterns = getPausedRequestPatterns();
+        if (patterns.isEmpty()) {
+            devTools.send(new Command<Void>("Fetch.disable", Map.of()));
+        } else {
+            devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+    }
+
+    /**
+     * Fail or continue a request paused by Fetch, as the rules decide
+     */
+    @SuppressWarnings("unchecked")
+    private void onRequestPaused(DevTools devTools, Map<String, Object> paused) {
+        String url = (String) ((Map<String, Object>) paused.get("request")).get("url");
+        ResourceType type = ResourceType.fromDevTools((String) paused.get("resourceType"));
+        Object requestId = paused.get("requestId");
+        if (isBlocked(url, type)) {
+            devTools.send(new Command<Void>("Fetch.failRequest",
+                    Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+        } else {
+            devTools.send(new Command<Void>("Fetch.continueRequest", Map.of("requestId", requestId)));
+        }
+    }
+
+    /**
+     * Whether Chrome can block by a rule's URL pattern alone: the rule blocks every resource
+     * type, has a pattern, and is not followed by an allow rule that could let requests through
+     */
+    private static boolean blockedByChrome(List<BlockingRule> rules, int index) {
+        BlockingRule rule = rules.get(index);
+        if (!rule.isBlock() || rule.getUrlPattern() == null || rule.getTypes().size() < TYPES) {
+            return false;
+        }
+        for (int i = index + 1; i < rules.size(); i++) {
+            if (!rules.get(i).isBlock()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordAllowed(ResourceType type, long bytes) {
+        allowed.incrementAndGet(type.ordinal());
+        allowedBytes.addAndGet(type.ordinal(), bytes);
+        sizedResponses.incrementAndGet(type.ordinal());
+        sizedBytes.addAndGet(type.ordinal(), bytes);
+    }
+
+    private static Map<String, Object> pattern(String urlPattern, String devToolsType) {
+        Map<String, Object> pattern = new LinkedHashMap<>();
+        pattern.put("urlPattern", urlPattern);
+        if (devToolsType != null) {
+            pattern.put("resourceType", devToolsType);
+        }
+        pattern.put("requestStage", "Request");
+        return pattern;
+    }
+
+    private static Event<Map<String, Object>> event(String name) {
+        return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static long sum(AtomicLongArray counts) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,201 @@
+package com.rentadsearchqa.network;
+
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kind of resource a browser request loads.
+ */
+public enum ResourceType {
+    DOCUMENT,
+    SCRIPT,
+    STYLESHEET,
+    IMAGE,
+    FONT,
+    MEDIA,
+    XHR,
+    OTHER;
+
+    /**
+     * Classify a browser request.
+     *
+     * The Sec-Fetch-Dest header Chrome sends says what the request is for; when it is
+     * missing, the file extension of the URL path decides, then the Accept header.
+     *
+     * @param request The intercepted browser request
+     * @return The resource type, OTHER if it cannot be told
+     */
+    public static ResourceType of(HttpRequest request) {
+        String destination = request.getHeader("Sec-Fetch-Dest");
+        if (destination != null) {
+            ResourceType type = fromDestination(destination.trim().toLowerCase(Locale.ROOT));
+            if (type != OTHER) {
+                return type;
+            }
+        }
+        ResourceType type = fromExtension(request.getUri());
+        if (type != OTHER) {
+            return type;
+        }
+        String accept = request.getHeader("Accept");
+        if (accept != null) {
+            if (accept.startsWith("text/html")) {
+                return DOCUMENT;
+            }
+            if (accept.startsWith("image/")) {
+                return IMAGE;
+            }
+            if (accept.startsWith("text/css")) {
+                return STYLESHEET;
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Classify a request reported by Chrome DevTools
+     *
+     * @param devToolsType The resourceType of a DevTools Network or Fetch event, e.g. "Image" or "Fetch"
+     * @return The resource type, OTHER if it has no counterpart
+     */
+    public static ResourceType fromDevTools(String devToolsType) {
+        if (devToolsType == null) {
+            return OTHER;
+        }
+        switch (devToolsType) {
+            case "Document":
+                return DOCUMENT;
+            case "Script":
+                return SCRIPT;
+            case "Stylesheet":
+                return STYLESHEET;
+            case "Image":
+                return IMAGE;
+            case "Font":
+                return FONT;
+            case "Media":
+            case "TextTrack":
+                return MEDIA;
+            case "XHR":
+            case "Fetch":
+            case "EventSource":
+                return XHR;
+            default:
+                return OTHER;
+        }
+    }
+
+    /**
+     * Get the Chrome DevTools resource types of this type
+     *
+     * @return The DevTools types, empty for OTHER, which stands for every remaining DevTools type
+     */
+    public List<String> devToolsTypes() {
+        switch (this) {
+            case DOCUMENT:
+                return List.of("Document");
+            case SCRIPT:
+                return List.of("Script");
+            case STYLESHEET:
+                return List.of("Stylesheet");
+            case IMAGE:
+                return List.of("Image");
+            case FONT:
+                return List.of("Font");
+            case MEDIA:
+                return List.of("Media", "TextTrack");
+            case XHR:
+                return List.of("XHR", "Fetch", "EventSource");
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * Parse a type name as used in system properties (e.g. "image", "stylesheet")
+     *
+     * @param name The type name, case-insensitive
+     * @return The resource type
+     * @throws IllegalArgumentException If the name is not a resource type
+     */
+    public static ResourceType fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static ResourceType fromDestination(String destination) {
+        switch (destination) {
+            case "document":
+            case "iframe":
+            case "frame":
+                return DOCUMENT;
+            case "script":
+            case "worker":
+            case "sharedworker":
+            case "serviceworker":
+                return SCRIPT;
+            case "style":
+                return STYLESHEET;
+            case "image":
+                return IMAGE;
+            case "font":
+                return FONT;
+            case "audio":
+            case "video":
+            case "track":
+                return MEDIA;
+            case "empty":
+                return XHR;
+            default:
+                return OTHER;
+        }
+    }
+
+    private static ResourceType fromExtension(String uri) {
+        int end = uri.length();
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        int dot = uri.lastIndexOf('.', end);
+        if (dot < 0 || dot < uri.lastIndexOf('/', end)) {
+            return OTHER;
+        }
+        switch (uri.substring(dot + 1, end).toLowerCase(Locale.ROOT)) {
+            case "html":
+            case "htm":
+                return DOCUMENT;
+            case "js":
+            case "mjs":
+                return SCRIPT;
+            case "css":
+                return STYLESHEET;
+            case "png":
+            case "jpg":
+            case "jpeg":
+            case "gif":
+            case "webp":
+            case "avif":
+            case "svg":
+            case "ico":
+                return IMAGE;
+            case "woff":
+            case "woff2":
+            case "ttf":
+            case "otf":
+            case "eot":
+                return FONT;
+            case "mp4":
+            case "webm":
+            case "mp3":
+            case "ogg":
+                return MEDIA;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.rentadsearchqa.replay;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Network filter that records browser responses to, or replays them from, a {@link ResponseStore}.
+ *
+ * Install it on a Chrome session with Selenium's NetworkInterceptor, which routes every
+ * request of the page (documents, XHR, scripts, images) through the filter over the
+ * DevTools protocol. No proxy or certificate setup is needed for HTTPS sites.
+ *
+ * Configured with system properties:
+ * - replay.mode: off, record or replay (see {@link ReplayMode})
+ * - replay.latency: zero (default) or recorded, to delay replayed responses like the live site
+ */
+public class RecordReplayFilter implements Filter {
+
+    // Bodies are stored decoded, so these no longer describe them
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+    private static final int MAX_MISSED_KEYS = 20;
+
+    private final ReplayMode mode;
+    private final ResponseStore store;
+    private final boolean recordedLatency;
+    private final AtomicInteger misses = new AtomicInteger();
+    private final Set<String> missedKeys = new LinkedHashSet<>();
+
+    /**
+     * Constructor for RecordReplayFilter
+     *
+     * @param mode RECORD or REPLAY; OFF passes every request through
+     * @param store The store to write to or read from
+     * @param recordedLatency Whether replayed responses are delayed by their recorded latency
+     */
+    public RecordReplayFilter(ReplayMode mode, ResponseStore store, boolean recordedLatency) {
+        this.mode = mode;
+        this.store = store;
+        this.recordedLatency = recordedLatency;
+    }
+
+    /**
+     * Create a filter configured from -Dreplay.mode and -Dreplay.latency
+     *
+     * @param store The store to write to or read from
+     * @return The configured filter
+     */
+    public static RecordReplayFilter fromSystemProperties(ResponseStore store) {
+        String latency = System.getProperty("replay.latency", "zero").trim().toLowerCase(Locale.ROOT);
+        if (!latency.equals("zero") && !latency.equals("recorded")) {
+            throw new IllegalArgumentException("replay.latency must be zero or recorded: " + latency);
+        }
+        return new RecordReplayFilter(ReplayMode.fromSystemProperty(), store, latency.equals("recorded"));
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        switch (mode) {
+            case RECORD:
+                return request -> record(request, next);
+            case REPLAY:
+                return this::replay;
+            default:
+                return next;
+        }
+    }
+
+    /**
+     * Get the number of replayed requests that had no recorded response
+     *
+     * @return The number of misses so far
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the first distinct request keys that had no recorded response, to report once
+     * at the end of a run instead of on every miss
+     *
+     * @return Up to 20 keys, in the order they were first missed
+     */
+    public synchronized List<String> getMissedKeys() {
+        return new ArrayList<>(missedKeys);
+    }
+
+    /**
+     * Build the store key of a request: method and URL, plus a hash of the body for
+     * requests other than GET and OPTIONS. The URL fragment is ignored.
+     *
+     * @param request The browser request
+     * @return The request key
+     */
+    public static String requestKey(HttpRequest request) {
+        String uri = request.getUri();
+        int fragment = uri.indexOf('#');
+        HttpMethod method = request.getMethod();
+        String key = method + " " + (fragment >= 0 ? uri.substring(0, fragment) : uri);
+        if (method == HttpMethod.GET || method == HttpMethod.OPTIONS) {
+            return key;
+        }
+        return key + " " + sha256(Contents.bytes(request.getContent()));
+    }
+
+    private HttpResponse record(HttpRequest request, HttpHandler next) {
+        long start = System.nanoTime();
+        HttpResponse response = next.execute(request);
+        int latencyMillis = (int) ((System.nanoTime() - start) / 1_000_000);
+
+        byte[] body = Contents.bytes(response.getContent());
+        List<String[]> headers = new ArrayList<>();
+        response.forEachHeader((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.add(new String[]{name, value});
+            }
+        });
+        store.put(requestKey(request), new RecordedResponse(response.getStatus(), headers, body, latencyMillis));
+
+        // The body stream has been consumed, so hand the browser a fresh one
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+
+    private HttpResponse replay(HttpRequest request) {
+        String key = requestKey(request);
+        RecordedResponse recorded = store.get(key);
+        if (recorded == null) {
+            misses.incrementAndGet();
+            synchronized (this) {
+                if (missedKeys.size() < MAX_MISSED_KEYS) {
+                    missedKeys.add(key);
+                }
+            }
+            return new HttpResponse().setStatus(404).setContent(Contents.utf8String("Not recorded: " + key));
+        }
+        if (recordedLatency && recorded.getLatencyMillis() > 0) {
+            try {
+                Thread.sleep(recorded.getLatencyMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        HttpResponse response = new HttpResponse().setStatus(recorded.getStatus());
+        for (String[] header : recorded.getHeaders()) {
+            response.addHeader(header[0], header[1]);
+        }
+        return response.setContent(Contents.bytes(recorded.getBody()));
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
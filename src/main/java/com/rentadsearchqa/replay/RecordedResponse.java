@@ -0,0 +1,46 @@
+package com.rentadsearchqa.replay;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A response captured during a recording run.
+ */
+public class RecordedResponse {
+
+    private final int status;
+    private final List<String[]> headers;
+    private final byte[] body;
+    private final int latencyMillis;
+
+    /**
+     * Constructor for RecordedResponse
+     *
+     * @param status HTTP status code
+     * @param headers Response headers as name/value pairs, in response order
+     * @param body The decoded response body
+     * @param latencyMillis Time the live site took to answer
+     */
+    public RecordedResponse(int status, List<String[]> headers, byte[] body, int latencyMillis) {
+        this.status = status;
+        this.headers = Collections.unmodifiableList(headers);
+        this.body = body;
+        this.latencyMillis = latencyMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<String[]> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rentadsearchqa.replay;
+
+import java.util.Locale;
+
+/**
+ * Whether browser traffic is recorded to, or replayed from, a {@link ResponseStore}.
+ */
+public enum ReplayMode {
+
+    /**
+     * Browser traffic goes to the live site untouched.
+     */
+    OFF,
+
+    /**
+     * Browser traffic goes to the live site and every response is appended to the store.
+     */
+    RECORD,
+
+    /**
+     * Responses are served from the store; requests that were not recorded get a 404.
+     */
+    REPLAY;
+
+    /**
+     * Get the mode selected with -Dreplay.mode (off, record or replay), defaulting to OFF
+     *
+     * @return The configured replay mode
+     */
+    public static ReplayMode fromSystemProperty() {
+        String value = System.getProperty("replay.mode", "off");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,209 @@
+package com.rentadsearchqa.replay;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only on-disk store of recorded responses, indexed by request key.
+ *
+ * A store is a directory with two files:
+ * - responses.dat: the encoded responses, appended one after the other
+ * - responses.idx: one line per response, "offset TAB length TAB key"
+ *
+ * Only the index is kept in memory; bodies are read from disk on lookup, so
+ * recordings can be much larger than the heap. When a key is recorded again, the
+ * later entry wins. Entries cut short by an interrupted recording are ignored.
+ *
+ * Instances are thread-safe.
+ */
+public class ResponseStore implements AutoCloseable {
+
+    public static final String DATA_FILE = "responses.dat";
+    public static final String INDEX_FILE = "responses.idx";
+
+    private final FileChannel data;
+    private final Writer index;
+    private final Map<String, long[]> entries = new HashMap<>();
+
+    /**
+     * Open a store, creating the directory and files if needed
+     *
+     * @param directory The store directory
+     * @throws UncheckedIOException If the store cannot be opened
+     */
+    public ResponseStore(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Path dataPath = directory.resolve(DATA_FILE);
+            Path indexPath = directory.resolve(INDEX_FILE);
+            this.data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (Files.exists(indexPath)) {
+                loadIndex(indexPath, data.size());
+            }
+            this.index = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open response store " + directory, e);
+        }
+    }
+
+    /**
+     * Append a response for a request key
+     *
+     * @param key The request key (see {@link RecordReplayFilter#requestKey})
+     * @param response The response to store
+     */
+    public synchronized void put(String key, RecordedResponse response) {
+        if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Request key must be a single line: " + key);
+        }
+        byte[] encoded = encode(response);
+        try {
+            long offset = data.size();
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            while (buffer.hasRemaining()) {
+                data.write(buffer, offset + buffer.position());
+            }
+            index.write(offset + "\t" + encoded.length + "\t" + key + "\n");
+            index.flush();
+            entries.put(key, new long[]{offset, encoded.length});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record response for " + key, e);
+        }
+    }
+
+    /**
+     * Look up the response recorded for a request key
+     *
+     * @param key The request key
+     * @return The response, or null if the key was never recorded
+     */
+    public RecordedResponse get(String key) {
+        long[] entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) entry[1]);
+        try {
+            while (buffer.hasRemaining()) {
+                if (data.read(buffer, entry[0] + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + DATA_FILE);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read response for " + key, e);
+        }
+        return decode(buffer.array());
+    }
+
+    /**
+     * Get the number of distinct request keys in the store
+     *
+     * @return The number of keys
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Close the store files
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            index.close();
+            data.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void loadIndex(Path indexPath, long dataSize) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf('\t');
+                int second = first < 0 ? -1 : line.indexOf('\t', first + 1);
+                if (second < 0) {
+                    continue;
+                }
+                long offset = Long.parseLong(line.substring(0, first));
+                long length = Long.parseLong(line.substring(first + 1, second));
+                if (offset + length <= dataSize) {
+                    entries.put(line.substring(second + 1), new long[]{offset, length});
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(RecordedResponse response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.getBody().length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(response.getStatus());
+            out.writeInt(response.getLatencyMillis());
+            out.writeShort(response.getHeaders().size());
+            for (String[] header : response.getHeaders()) {
+                writeString(out, header[0]);
+                writeString(out, header[1]);
+            }
+            out.writeInt(response.getBody().length);
+            out.write(response.getBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static RecordedResponse decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int status = in.readUnsignedShort();
+            int latencyMillis = in.readInt();
+            int headerCount = in.readUnsignedShort();
+            List<String[]> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new String[]{readString(in), readString(in)});
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new RecordedResponse(status, headers, body, latencyMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt entry in " + DATA_FILE, e);
+        }
+    }
+
+    /**
+     * Write a string as its UTF-8 length and bytes. Unlike writeUTF, this has no 64 KB limit,
+     * which large headers such as Content-Security-Policy or Set-Cookie can exceed.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,399 @@
+package com.rentadsearchqa.standin;
+
+import com.rentadsearchqa.utils.ResultsUrlBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for the xe.gr property search, served from synthetic ads.
+ *
+ * Pages carry the same data-testid hooks as the real site, so SearchPage, ResultsPage
+ * and PropertyResultsPage work against it unchanged. It supports area autocomplete,
+ * price and size filters, ascending price sorting, pagination, lazy loading of result
+ * cards, the phone-info dialog and the cookie consent banner. Results pages also embed
+ * their ads as JSON state for the browserless HTTP engine.
+ *
+ * Like the real site, pagination links only the first and last page and the pages
+ * within PAGINATION_WINDOW of the current one, so large result sets do not render
+ * thousands of links.
+ *
+ * Start it from the tests with -Dstandin=true (see TestBase) or on its own:
+ * java -cp ... com.rentadsearchqa.standin.StandInServer [port] [ads] [seed]
+ */
+public class StandInServer implements AutoCloseable {
+
+    public static final int PAGE_SIZE = 30;
+    public static final int RENDERED_CARDS = 10;
+    public static final int LAZY_BATCH = 10;
+    public static final int PAGINATION_WINDOW = 2;
+
+    private static final byte[] PIXEL_GIF = {
+            'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, (byte) 0x80, 0, 0, 0, 0, 0, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, '!', (byte) 0xF9, 4, 1, 0, 0, 0, 0, ',', 0, 0, 0, 0, 1, 0, 1, 0, 0, 2, 2, 'D', 1, 0, ';'
+    };
+
+    private final SyntheticAdGenerator ads;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Json json = new Json();
+    private final byte[] searchPage;
+    private final byte[] script;
+    private final byte[] stylesheet;
+
+    /**
+     * Constructor for StandInServer; the server is started immediately
+     *
+     * @param port Port to listen on, 0 for any free port
+     * @param ads The synthetic ads to serve
+     */
+    public StandInServer(int port, SyntheticAdGenerator ads) {
+        this.ads = ads;
+        this.searchPage = resource("search.html");
+        this.script = resource("standin.js");
+        this.stylesheet = resource("standin.css");
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stand-in server on port " + port, e);
+        }
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Get the base URL of the running server, ending with a slash like the production base URL
+     *
+     * @return e.g. "http://127.0.0.1:41234/"
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Get the synthetic ads the server serves, e.g. to compute the expected results of a search
+     *
+     * @return The ad generator passed to the constructor
+     */
+    public SyntheticAdGenerator getAds() {
+        return ads;
+    }
+
+    /**
+     * Stop the server and its worker threads
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/")) {
+                respond(exchange, 200, "text/html; charset=utf-8", searchPage);
+            } else if (path.equals("/static/standin.js")) {
+                respond(exchange, 200, "application/javascript; charset=utf-8", script);
+            } else if (path.equals("/static/standin.css")) {
+                respond(exchange, 200, "text/css; charset=utf-8", stylesheet);
+            } else if (path.equals("/api/autocomplete")) {
+                respond(exchange, 200, "application/json; charset=utf-8", utf8(autocomplete(exchange)));
+            } else if (path.equals("/property/results")) {
+                respond(exchange, 200, "text/html; charset=utf-8", utf8(resultsPage(exchange)));
+            } else if (path.equals("/api/ads")) {
+                respond(exchange, 200, "text/html; charset=utf-8", utf8(lazyCards(exchange)));
+            } else if (path.startsWith("/img/")) {
+                respond(exchange, 200, "image/gif", PIXEL_GIF);
+            } else {
+                respond(exchange, 404, "text/plain; charset=utf-8", utf8("Not found"));
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "text/plain; charset=utf-8", utf8(String.valueOf(e)));
+        }
+    }
+
+    // ===== PAGES =====
+    private String autocomplete(HttpExchange exchange) {
+        String query = new ResultsUrlBuilder(exchange.getRequestURI().toString()).get("q").stream()
+                .findFirst().orElse("").trim().toLowerCase(Locale.ROOT);
+        List<Map<String, String>> matches = new ArrayList<>();
+        for (String[] area : SyntheticAdGenerator.AREAS) {
+            if (!query.isEmpty() && area[0].toLowerCase(Locale.ROOT).contains(query)) {
+                Map<String, String> match = new LinkedHashMap<>();
+                match.put("name", area[0]);
+                match.put("id", area[1]);
+                matches.add(match);
+            }
+        }
+        return json.toJson(matches);
+    }
+
+    private String resultsPage(HttpExchange exchange) {
+        ResultsQuery query = new ResultsQuery(exchange.getRequestURI().toString());
+        PageWindow window = select(query, 0, PAGE_SIZE);
+        int totalPages = Math.max(1, (window.total + PAGE_SIZE - 1) / PAGE_SIZE);
+
+        StringBuilder html = new StringBuilder(16384);
+        html.append("<!DOCTYPE html><html lang=\"el\"><head><meta charset=\"utf-8\">")
+                .append("<title>Stand-in | Αποτελέσματα</title>")
+                .append("<link rel=\"stylesheet\" href=\"/static/standin.css\"></head><body>");
+        appendFilters(html, query);
+        html.append("<p class=\"results-count\">").append(window.total).append(" αγγελίες</p>");
+
+        // The list carries a data-id of its own, which must not be taken for the id of a card
+        html.append("<div id=\"results\" data-id=\"results-list\">");
+        int rendered = Math.min(RENDERED_CARDS, window.indexes.size());
+        for (int i = 0; i < rendered; i++) {
+            appendCard(html, window.indexes.get(i));
+        }
+        html.append("<div id=\"sentinel\" data-next-offset=\"").append(rendered)
+                .append("\" data-page-end=\"").append(window.indexes.size())
+                .append("\" data-batch=\"").append(LAZY_BATCH).append("\"></div></div>");
+
+        // Links to the first and last page and the pages around the current one, each marked
+        // like the pagination links the locators expect; skipped pages become an ellipsis
+        html.append("<nav class=\"pagination\">");
+        int previous = 0;
+        for (int page = 1; page <= totalPages; page++) {
+            if (page != 1 && page != totalPages && Math.abs(page - query.page) > PAGINATION_WINDOW) {
+                continue;
+            }
+            if (page > previous + 1) {
+                html.append("<span class=\"ellipsis\">&hellip;</span>");
+            }
+            html.append("<a aria-current=\"page\" href=\"")
+                    .append(escape(new ResultsUrlBuilder(exchange.getRequestURI().toString()).page(page).build()))
+                    .append("\">").append(page).append("</a>");
+            previous = page;
+        }
+        html.append("</nav>");
+
+        appendState(html, window, totalPages);
+        html.append("<script src=\"/static/standin.js\"></script></body></html>");
+        return html.toString();
+    }
+
+    private String lazyCards(HttpExchange exchange) {
+        ResultsUrlBuilder url = new ResultsUrlBuilder(exchange.getRequestURI().toString());
+        ResultsQuery query = new ResultsQuery(exchange.getRequestURI().toString());
+        int offset = Integer.parseInt(url.get("offset").stream().findFirst().orElse("0"));
+        int limit = Math.min(PAGE_SIZE, Integer.parseInt(url.get("limit").stream().findFirst().orElse("10")));
+        PageWindow window = select(query, offset, limit);
+        StringBuilder html = new StringBuilder(4096);
+        for (int index : window.indexes) {
+            appendCard(html, index);
+        }
+        return html.toString();
+    }
+
+    private void appendFilters(StringBuilder html, ResultsQuery query) {
+        html.append("<div class=\"filters\">")
+                .append("<button class=\"filters-button\" type=\"button\">Περισσότερα φίλτρα</button>")
+                .append("<button data-testid=\"price-filter-button\" type=\"button\">Τιμή</button>")
+                .append("<button data-testid=\"size-filter-button\" type=\"button\">Εμβαδόν</button>")
+                .append("<button data-testid=\"sorting-dropdown-button\" type=\"button\">Ταξινόμηση</button>")
+                .append("<div id=\"sort-options\" class=\"sort-options\" hidden>")
+                .append("<button data-id=\"price_asc\" type=\"button\">Τιμή (αύξουσα)</button></div>")
+                .append("<div id=\"filter-panel\" class=\"filter-panel\" hidden>")
+                .append("<div id=\"price-group\">")
+                .append(input("minimum_price_input", query.minPrice))
+                .append(input("maximum_price_input", query.maxPrice))
+                .append("</div><div id=\"size-group\">")
+                .append(input("minimum_size_input", query.minSize))
+                .append(input("maximum_size_input", query.maxSize))
+                .append("</div><button data-testid=\"submit-input\" type=\"button\">Εφαρμογή</button></div></div>");
+    }
+
+    private static String input(String testId, int value) {
+        return "<input type=\"text\" inputmode=\"numeric\" data-testid=\"" + testId + "\" value=\""
+                + (value < 0 || value == Integer.MAX_VALUE ? "" : String.valueOf(value)) + "\">";
+    }
+
+    /**
+     * Append one ad card. The images sit beside the title's block rather than around it, and
+     * only every other card carries a data-id; the others are identified by their link.
+     */
+    private void appendCard(StringBuilder html, int index) {
+        long id = ads.getAdId(index);
+        html.append("<div class=\"ad-card\"><div data-testid=\"property-ad-image-container\">");
+        for (int image = 0; image < ads.getImageCount(index); image++) {
+            html.append("<img loading=\"lazy\" alt=\"\" src=\"/img/").append(id).append('/').append(image)
+                    .append(".gif\">");
+        }
+        html.append("</div><div class=\"ad-body\"");
+        if (index % 2 == 0) {
+            html.append(" data-id=\"").append(id).append('"');
+        }
+        html.append("><a href=\"/property/d/enoikiaseis-katoikion/").append(id).append("/\">")
+                .append("<h3 data-testid=\"property-ad-title\">").append(escape(ads.getTitle(index)))
+                .append("</h3></a><span data-testid=\"property-ad-price\">")
+                .append(SyntheticAdGenerator.formatPrice(ads.getPrice(index)))
+                .append("</span></div></div>");
+    }
+
+    private void appendState(StringBuilder html, PageWindow window, int totalPages) {
+        List<Map<String, Object>> state = new ArrayList<>(window.indexes.size());
+        for (int index : window.indexes) {
+            Map<String, Object> ad = new LinkedHashMap<>();
+            ad.put("id", String.valueOf(ads.getAdId(index)));
+            ad.put("title", ads.getTitle(index));
+            ad.put("price", SyntheticAdGenerator.formatPrice(ads.getPrice(index)));
+            ad.put("size", ads.getSize(index) + " τ.μ.");
+            ad.put("images", ads.getImageCount(index));
+            state.add(ad);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("totalPages", totalPages);
+        root.put("total", window.total);
+        root.put("ads", state);
+        html.append("<script type=\"application/json\" data-testid=\"results-state\">")
+                .append(json.toJson(root).replace("</", "<\\/")).append("</script>");
+    }
+
+    // ===== QUERY =====
+    /**
+     * Walk the ads in the requested order, count all matches and keep the indexes of the
+     * requested window of the requested page. Runs in one pass without materialising
+     * the full result set.
+     */
+    private PageWindow select(ResultsQuery query, int offsetInPage, int limit) {
+        int from = (query.page - 1) * PAGE_SIZE + offsetInPage;
+        int to = Math.min(from + limit, query.page * PAGE_SIZE);
+        List<Integer> indexes = new ArrayList<>(Math.max(0, to - from));
+        int total = 0;
+        for (int position = 0; position < ads.getCount(); position++) {
+            int index = query.priceAscending ? ads.getIndexByPrice(position) : position;
+            if (query.matches(ads, index)) {
+                if (total >= from && total < to) {
+                    indexes.add(index);
+                }
+                total++;
+            }
+        }
+        return new PageWindow(indexes, total);
+    }
+
+    /**
+     * Filters, sorting and page of a results request
+     */
+    private static final class ResultsQuery {
+        private final boolean[] areas = new boolean[SyntheticAdGenerator.AREAS.length];
+        private final boolean anyArea;
+        private final int minPrice;
+        private final int maxPrice;
+        private final int minSize;
+        private final int maxSize;
+        private final boolean priceAscending;
+        private final int page;
+
+        private ResultsQuery(String url) {
+            ResultsUrlBuilder parameters = new ResultsUrlBuilder(url);
+            boolean selected = false;
+            for (String areaId : parameters.get(ResultsUrlBuilder.PARAM_AREA)) {
+                for (int i = 0; i < SyntheticAdGenerator.AREAS.length; i++) {
+                    if (SyntheticAdGenerator.AREAS[i][1].equals(areaId)) {
+                        areas[i] = true;
+                        selected = true;
+                    }
+                }
+            }
+            this.anyArea = !selected;
+            this.minPrice = intParameter(parameters, ResultsUrlBuilder.PARAM_MINIMUM_PRICE, -1);
+            this.maxPrice = intParameter(parameters, ResultsUrlBuilder.PARAM_MAXIMUM_PRICE, Integer.MAX_VALUE);
+            this.minSize = intParameter(parameters, ResultsUrlBuilder.PARAM_MINIMUM_SIZE, -1);
+            this.maxSize = intParameter(parameters, ResultsUrlBuilder.PARAM_MAXIMUM_SIZE, Integer.MAX_VALUE);
+            this.priceAscending = parameters.get(ResultsUrlBuilder.PARAM_SORTING)
+                    .contains(ResultsUrlBuilder.SORT_PRICE_ASCENDING);
+            this.page = Math.max(1, intParameter(parameters, ResultsUrlBuilder.PARAM_PAGE, 1));
+        }
+
+        private boolean matches(SyntheticAdGenerator ads, int index) {
+            int price = ads.getPrice(index);
+            int size = ads.getSize(index);
+            return (anyArea || areas[ads.getArea(index)])
+                    && price >= minPrice && price <= maxPrice
+                    && size >= minSize && size <= maxSize;
+        }
+
+        private static int intParameter(ResultsUrlBuilder parameters, String name, int defaultValue) {
+            List<String> values = parameters.get(name);
+            if (values.isEmpty() || values.get(0).isBlank()) {
+                return defaultValue;
+            }
+            return Integer.parseInt(values.get(0).trim());
+        }
+    }
+
+    /**
+     * Indexes of the ads in a requested window and the total number of matches
+     */
+    private static final class PageWindow {
+        private final List<Integer> indexes;
+        private final int total;
+
+        private PageWindow(List<Integer> indexes, int total) {
+            this.indexes = indexes;
+            this.total = total;
+        }
+    }
+
+    // ===== HELPERS =====
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] resource(String name) {
+        try (InputStream in = StandInServer.class.getResourceAsStream("/standin/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing stand-in resource: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Run the stand-in server until the process is stopped
+     *
+     * @param args Optional port (default 8081), ad count (default 1000) and seed (default 42)
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        StandInServer server = new StandInServer(port, new SyntheticAdGenerator(count, seed));
+        System.out.println("Stand-in server with " + count + " ads listening on " + server.getBaseUrl());
+    }
+}
@@ -0,0 +1,149 @@
+package com.rentadsearchqa.standin;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of synthetic rental ads for the stand-in server.
+ *
+ * Ads are stored as primitive columns (price, size, image count, area), so a
+ * million ads take a few megabytes; titles and ids are derived on demand. The same
+ * seed and count always produce the same ads, which keeps timing runs repeatable.
+ */
+public class SyntheticAdGenerator {
+
+    public static final int MIN_ADS = 10;
+    public static final int MAX_ADS = 1_000_000;
+
+    /**
+     * Areas offered by the stand-in autocomplete, as name and place id.
+     */
+    public static final String[][] AREAS = {
+            {"Παγκράτι", "area-pagkrati"},
+            {"Άνω Παγκράτι", "area-ano-pagkrati"},
+            {"Κουκάκι", "area-koukaki"},
+            {"Κολωνάκι", "area-kolonaki"},
+            {"Εξάρχεια", "area-exarcheia"},
+            {"Μετς", "area-mets"},
+            {"Νέος Κόσμος", "area-neos-kosmos"},
+            {"Αμπελόκηποι", "area-ampelokipoi"}
+    };
+
+    private static final String[] PROPERTY_TYPES = {"Διαμέρισμα", "Μεζονέτα", "Στούντιο", "Μονοκατοικία"};
+
+    private final long seed;
+    private final int[] prices;
+    private final int[] sizes;
+    private final byte[] imageCounts;
+    private final byte[] areas;
+    private final int[] priceOrder;
+
+    /**
+     * Constructor for SyntheticAdGenerator
+     *
+     * @param count Number of ads to generate, between {@link #MIN_ADS} and {@link #MAX_ADS}
+     * @param seed Seed of the random generator
+     */
+    public SyntheticAdGenerator(int count, long seed) {
+        if (count < MIN_ADS || count > MAX_ADS) {
+            throw new IllegalArgumentException("Ad count must be between " + MIN_ADS + " and " + MAX_ADS + ": " + count);
+        }
+        this.seed = seed;
+        this.prices = new int[count];
+        this.sizes = new int[count];
+        this.imageCounts = new byte[count];
+        this.areas = new byte[count];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            sizes[i] = 25 + random.nextInt(226);
+            // Rent roughly follows size, with a wide spread
+            prices[i] = Math.max(150, sizes[i] * (4 + random.nextInt(9)) + random.nextInt(100) - 50);
+            imageCounts[i] = (byte) random.nextInt(31);
+            areas[i] = (byte) random.nextInt(AREAS.length);
+        }
+
+        // Price order as packed (price, index) keys, so no boxed comparator is needed
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) prices[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        this.priceOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            priceOrder[i] = (int) keys[i];
+        }
+    }
+
+    public int getCount() {
+        return prices.length;
+    }
+
+    public int getPrice(int index) {
+        return prices[index];
+    }
+
+    public int getSize(int index) {
+        return sizes[index];
+    }
+
+    public int getImageCount(int index) {
+        return imageCounts[index];
+    }
+
+    public int getArea(int index) {
+        return areas[index];
+    }
+
+    /**
+     * Get the index of the ad at a position of the ascending price order
+     *
+     * @param position Position in price order, 0-based
+     * @return The ad index
+     */
+    public int getIndexByPrice(int position) {
+        return priceOrder[position];
+    }
+
+    /**
+     * Get the stable id of an ad, derived from the seed and its index. The index is kept in
+     * the low bits, so ids are unique however many ads there are.
+     *
+     * @param index The ad index
+     * @return A positive id of at least nine digits
+     */
+    public long getAdId(int index) {
+        long mixed = (seed + index) * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 31;
+        return 100_000_000L + ((mixed & 0x3FFL) << 31 | index);
+    }
+
+    /**
+     * Get the title of an ad, e.g. "Διαμέρισμα 85 τ.μ., Παγκράτι"
+     *
+     * @param index The ad index
+     * @return The title text
+     */
+    public String getTitle(int index) {
+        return PROPERTY_TYPES[(int) (getAdId(index) % PROPERTY_TYPES.length)] + " " + sizes[index] + " τ.μ., "
+                + AREAS[areas[index]][0];
+    }
+
+    /**
+     * Format a price as the site does, with a dot as thousands separator (e.g. "1.200 €")
+     *
+     * @param price The price in euros
+     * @return The formatted price
+     */
+    public static String formatPrice(int price) {
+        String digits = Integer.toString(price);
+        StringBuilder formatted = new StringBuilder(digits.length() + 4);
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) {
+                formatted.append('.');
+            }
+            formatted.append(digits.charAt(i));
+        }
+        return formatted.append(" €").toString();
+    }
+}
@@ -0,0 +1,281 @@
+package com.rentadsearchqa.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the chromedriver binary, and the Chrome binary it belongs to, from a pinned pair
+ * in a local cache directory.
+ *
+ * The pin is a properties file in the cache directory that names both binaries and their
+ * SHA-256 checksums. When the pinned binaries exist and their checksums match, they are used
+ * without any network access. Without a pin, the pair is resolved with WebDriverManager (into
+ * the same cache directory) and pinned for the next run. A pin whose binaries are missing or
+ * changed fails the run instead of going to the network; -Ddriver.refresh=true replaces it.
+ * On air-gapped agents, provision the cache directory and pin file once; paths in the pin may
+ * be relative to the cache directory.
+ *
+ * A system Chrome changes whenever it auto-updates, which breaks its pin. Pin a Chrome for
+ * Testing build unpacked into the cache instead, with -Ddriver.browser: it never updates, and
+ * chromedriver is resolved for its version.
+ *
+ * Configured with system properties:
+ * - driver.cache: cache directory (default ~/.cache/selenium, the WebDriverManager cache)
+ * - driver.browser: Chrome binary to pin, e.g. a Chrome for Testing build in the cache
+ *   (default: the Chrome installed on the system)
+ * - driver.refresh=true: clear the cache and resolve again, replacing the pin
+ */
+public class DriverBinaryResolver {
+
+    public static final String PIN_FILE = "pinned-chrome.properties";
+
+    private final Path cacheDirectory;
+    private final Supplier<Resolution> fallback;
+
+    /**
+     * Constructor for DriverBinaryResolver
+     *
+     * @param cacheDirectory Directory holding the pin file and, usually, the binaries
+     * @param fallback Resolves the binaries when the pin is missing or does not verify
+     */
+    public DriverBinaryResolver(Path cacheDirectory, Supplier<Resolution> fallback) {
+        this.cacheDirectory = cacheDirectory;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Create a resolver for chromedriver configured from -Ddriver.cache, -Ddriver.browser and
+     * -Ddriver.refresh, falling back to WebDriverManager
+     *
+     * @return The configured resolver
+     */
+    public static DriverBinaryResolver forChrome() {
+        Path cacheDirectory = Paths.get(System.getProperty("driver.cache",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium").toString()));
+        boolean refresh = Boolean.getBoolean("driver.refresh");
+        String browser = System.getProperty("driver.browser");
+        if (refresh) {
+            try {
+                Files.deleteIfExists(cacheDirectory.resolve(PIN_FILE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not remove the driver pin in " + cacheDirectory, e);
+            }
+        }
+        return new DriverBinaryResolver(cacheDirectory, () -> {
+            WebDriverManager manager = WebDriverManager.chromedriver().cachePath(cacheDirectory.toString());
+            if (browser != null) {
+                // Match the driver to the given build rather than to the system Chrome
+                manager.browserVersionDetectionCommand("\"" + browser + "\" --version");
+            }
+            if (refresh) {
+                manager.clearDriverCache();
+            }
+            manager.setup();
+            Path browserPath = browser != null ? Paths.get(browser) : manager.getBrowserPath().orElse(null);
+            return new Resolution(Paths.get(manager.getDownloadedDriverPath()),
+                    browserPath, manager.getDownloadedDriverVersion(), false);
+        });
+    }
+
+    /**
+     * Resolve the binaries from the pin, or through the fallback when there is no pin, and pin the result.
+     * Sets webdriver.chrome.driver so new ChromeDriver sessions use the resolved driver.
+     *
+     * @return The resolved binaries
+     * @throws IllegalStateException If a pinned binary is missing or no longer matches its checksum
+     */
+    public Resolution resolve() {
+        long start = System.nanoTime();
+        Resolution resolution = readPin();
+        if (resolution == null) {
+            resolution = fallback.get();
+            writePin(resolution);
+        }
+        System.setProperty("webdriver.chrome.driver", resolution.getDriverPath().toString());
+        System.out.println("Chrome driver " + resolution.getDriverVersion() + " resolved "
+                + (resolution.isPinned() ? "from pin in " + cacheDirectory : "with WebDriverManager")
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return resolution;
+    }
+
+    /**
+     * Read the pin and verify the binaries it names
+     *
+     * @return The pinned binaries, or null if there is no readable pin
+     * @throws IllegalStateException If a pinned binary is missing or changed
+     */
+    private Resolution readPin() {
+        Path pinFile = cacheDirectory.resolve(PIN_FILE);
+        if (!Files.isRegularFile(pinFile)) {
+            return null;
+        }
+        Properties pin = new Properties();
+        try (InputStream in = Files.newInputStream(pinFile)) {
+            pin.load(in);
+        } catch (IOException e) {
+            System.out.println("Could not read driver pin " + pinFile + ": " + e.getMessage());
+            return null;
+        }
+        if (pin.getProperty("driver.path") == null || pin.getProperty("driver.sha256") == null) {
+            System.out.println("Driver pin " + pinFile + " names no driver, resolving again");
+            return null;
+        }
+        Path driverPath = verified(pin, "driver");
+        Path browserPath = pin.getProperty("browser.path") != null ? verified(pin, "browser") : null;
+        return new Resolution(driverPath, browserPath, pin.getProperty("driver.version", "(unknown version)"), true);
+    }
+
+    /**
+     * Check one pinned binary against its checksum
+     *
+     * @param pin The pin properties
+     * @param prefix "driver" or "browser"
+     * @return The absolute path of the binary
+     * @throws IllegalStateException If the binary is missing or its checksum differs
+     */
+    private Path verified(Properties pin, String prefix) {
+        Path binary = cacheDirectory.resolve(pin.getProperty(prefix + ".path"));
+        String checksum = pin.getProperty(prefix + ".sha256", "");
+        String problem = !Files.isRegularFile(binary) ? "is missing"
+                : !sha256(binary).equalsIgnoreCase(checksum.trim()) ? "changed since it was pinned" : null;
+        if (problem != null) {
+            throw new IllegalStateException("Pinned " + prefix + " " + binary + " " + problem
+                    + (prefix.equals("browser") ? " (an auto-updated system Chrome?)" : "")
+                    + ". Run once with -Ddriver.refresh=true to resolve and pin again, or pin a Chrome for Testing"
+                    + " build in " + cacheDirectory + " with -Ddriver.browser.");
+        }
+        return binary;
+    }
+
+    /**
+     * Pin freshly resolved binaries, with paths inside the cache directory kept relative to it
+     *
+     * @param resolution The binaries to pin
+     */
+    private void writePin(Resolution resolution) {
+        Properties pin = new Properties();
+        pin.setProperty("driver.path", relativePath(resolution.getDriverPath()));
+        pin.setProperty("driver.sha256", sha256(resolution.getDriverPath()));
+        pin.setProperty("driver.version", String.valueOf(resolution.getDriverVersion()));
+        if (resolution.getBrowserPath() != null && Files.isRegularFile(resolution.getBrowserPath())) {
+            pin.setProperty("browser.path", relativePath(resolution.getBrowserPath()));
+            pin.setProperty("browser.sha256", sha256(resolution.getBrowserPath()));
+            if (!isInCache(resolution.getBrowserPath())) {
+                System.out.println("Pinned the system Chrome " + resolution.getBrowserPath()
+                        + "; its next auto-update breaks the pin. Pin a Chrome for Testing build with -Ddriver.browser.");
+            }
+        }
+        try {
+            Files.createDirectories(cacheDirectory);
+            try (OutputStream out = Files.newOutputStream(cacheDirectory.resolve(PIN_FILE))) {
+                pin.store(out, "Pinned chromedriver and Chrome binaries");
+            }
+        } catch (IOException e) {
+            // The binaries are resolved already; only the next run loses the shortcut
+            System.out.println("Could not write driver pin in " + cacheDirectory + ": " + e.getMessage());
+        }
+    }
+
+    private String relativePath(Path binary) {
+        Path absolute = binary.toAbsolutePath().normalize();
+        return isInCache(binary) ? cacheDirectory.toAbsolutePath().normalize().relativize(absolute).toString()
+                : absolute.toString();
+    }
+
+    private boolean isInCache(Path binary) {
+        return binary.toAbsolutePath().normalize().startsWith(cacheDirectory.toAbsolutePath().normalize());
+    }
+
+    private static String sha256(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A resolved driver binary and the browser binary it belongs to
+     */
+    public static final class Resolution {
+
+        private final Path driverPath;
+        private final Path browserPath;
+        private final String driverVersion;
+        private final boolean pinned;
+
+        /**
+         * Constructor for Resolution
+         *
+         * @param driverPath Path of the driver binary
+         * @param browserPath Path of the browser binary, or null to let the driver find the browser
+         * @param driverVersion Version of the driver, for logging
+         * @param pinned Whether the binaries came from the pin rather than the fallback
+         */
+        public Resolution(Path driverPath, Path browserPath, String driverVersion, boolean pinned) {
+            this.driverPath = driverPath;
+            this.browserPath = browserPath;
+            this.driverVersion = driverVersion;
+            this.pinned = pinned;
+        }
+
+        /**
+         * Get the driver binary
+         *
+         * @return Path of the chromedriver binary
+         */
+        public Path getDriverPath() {
+            return driverPath;
+        }
+
+        /**
+         * Get the browser binary the driver belongs to
+         *
+         * @return Path of the Chrome binary, or null to let the driver find the browser
+         */
+        public Path getBrowserPath() {
+            return browserPath;
+        }
+
+        /**
+         * Get the version of the driver
+         *
+         * @return e.g. "119.0.6045.105"
+         */
+        public String getDriverVersion() {
+            return driverVersion;
+        }
+
+        /**
+         * Whether the binaries came from the pin
+         *
+         * @return True if read from the pin, false if resolved through the fallback
+         */
+        public boolean isPinned() {
+            return pinned;
+        }
+    }
+}
@@ -8,11 +8,14 @@ import org.openqa.selenium.WebDriver;
  * This class provides a singleton pattern to store and access the current
  * WebDriver instance throughout the application without needing to pass
  * it as a parameter to every function.
+ * 
+ * The driver is stored per thread, so tests running in parallel (TestNG
+ * parallel="methods" or parallel="classes") each see their own session.
  */
 public class DriverContext {
     
     private static DriverContext instance;
-    private WebDriver driver;
+    private final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
     
     // Private constructor to prevent instantiation
     private DriverContext() {}
@@ -30,40 +33,42 @@ public class DriverContext {
     }
     
     /**
-     * Set the current WebDriver instance.
+     * Set the WebDriver instance for the current thread.
      * 
      * @param driver The WebDriver instance to store
      */
     public void setDriver(WebDriver driver) {
-        this.driver = driver;
+        this.driver.set(driver);
     }
     
     /**
-     * Get the current WebDriver instance.
+     * Get the WebDriver instance of the current thread.
      * 
      * @return The current WebDriver instance
-     * @throws RuntimeException If no driver has been set
+     * @throws RuntimeException If no driver has been set on this thread
      */
     public WebDriver getDriver() {
-        if (driver == null) {
-            throw new RuntimeException("No driver has been set. Call setDriver() first.");
+        WebDriver current = driver.get();
+        if (current == null) {
+            throw new RuntimeException("No driver has been set for thread '"
+                    + Thread.currentThread().getName() + "'. Call setDriver() first.");
         }
-        return driver;
+        return current;
     }
     
     /**
-     * Clear the current WebDriver instance.
+     * Clear the WebDriver instance of the current thread.
      */
     public void clearDriver() {
-        this.driver = null;
+        driver.remove();
     }
     
     /**
-     * Check if a driver is currently set.
+     * Check if a driver is currently set on this thread.
      * 
      * @return True if a driver is set, False otherwise
      */
     public boolean hasDriver() {
-        return driver != null;
+        return driver.get() != null;
     }
 }
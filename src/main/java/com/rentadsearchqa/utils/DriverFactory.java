@@ -0,0 +1,40 @@
+package com.rentadsearchqa.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * Creates browser sessions, either on this machine or on a Selenium Grid.
+ *
+ * TestBase hands the same options to whichever factory is configured, so tests do not
+ * know where their browser runs. Factories holding resources (HTTP connections, a
+ * local Grid process) release them on {@link #close()}.
+ */
+public interface DriverFactory extends AutoCloseable {
+
+    /**
+     * Start a new browser session
+     *
+     * @param capabilities The browser options, e.g. ChromeOptions
+     * @return The started WebDriver
+     */
+    WebDriver create(Capabilities capabilities);
+
+    /**
+     * Release the resources of the factory; sessions still open are not quit
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Factory starting ChromeDriver on this machine
+     *
+     * @return The local factory
+     */
+    static DriverFactory local() {
+        return capabilities -> new ChromeDriver(new ChromeOptions().merge(capabilities));
+    }
+}
@@ -0,0 +1,310 @@
+package com.rentadsearchqa.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm WebDriver sessions.
+ *
+ * Tests lease a session that has already been started and navigated (warmed up)
+ * and return it when they finish. On return the session is reset and warmed up again,
+ * without paying for a browser startup: tabs opened during the test are closed, all
+ * cookies are deleted, and localStorage and sessionStorage of the page the tab is on are
+ * cleared. Storage of other origins, IndexedDB and the HTTP cache survive the reset;
+ * tests that must not see those use a pool with maxUses 1.
+ *
+ * A session is recycled (quit and replaced on demand) when it has served the
+ * configured number of tests, when the test using it failed, or when the reset fails.
+ *
+ * Sessions can also be started in the background ahead of demand with {@link #prestart(int)},
+ * which pays off most for Grid sessions that take seconds to create. Once prestarted, the
+ * pool also starts a replacement in the background for every session it recycles.
+ */
+public class DriverPool {
+
+    private final int maxUses;
+    private final Supplier<WebDriver> factory;
+    private final Consumer<WebDriver> warmUp;
+    private final Semaphore permits;
+    private final Deque<PooledSession> idle = new ArrayDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new IdentityHashMap<>();
+    private ExecutorService starter;
+    private boolean closed;
+
+    /**
+     * Constructor for DriverPool
+     *
+     * @param maxSize Maximum number of sessions alive at the same time
+     * @param maxUses Number of tests a session serves before it is recycled (1 disables reuse)
+     * @param factory Creates a new browser session
+     * @param warmUp Brings a new or reset session to its starting state (e.g. open base URL, accept cookies)
+     */
+    public DriverPool(int maxSize, int maxUses, Supplier<WebDriver> factory, Consumer<WebDriver> warmUp) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("maxSize and maxUses must be at least 1");
+        }
+        this.maxUses = maxUses;
+        this.factory = factory;
+        this.warmUp = warmUp;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Lease a warm session, blocking while all sessions are in use
+     *
+     * @return A warmed up WebDriver owned by the caller until {@link #release(WebDriver, boolean)}
+     * @throws IllegalStateException If the pool has been shut down
+     */
+    public WebDriver lease() {
+        permits.acquireUninterruptibly();
+        return leaseAcquired();
+    }
+
+    /**
+     * Lease a warm session only if one is available without waiting
+     *
+     * @return A warmed up WebDriver owned by the caller until {@link #release(WebDriver, boolean)},
+     *         or null if all sessions are in use
+     * @throws IllegalStateException If the pool has been shut down
+     */
+    public WebDriver tryLease() {
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        return leaseAcquired();
+    }
+
+    /**
+     * Start sessions in the background so that leases find them warm.
+     * Every session holds a permit while it starts, so started and leased sessions together
+     * never exceed the pool size; a lease arriving meanwhile waits for a session to finish
+     * starting instead of starting one more.
+     *
+     * @param count Number of sessions to start
+     * @return Completes when every session has started or failed to start (failures are logged)
+     * @throws IllegalStateException If the pool has been shut down
+     */
+    public synchronized CompletableFuture<Void> prestart(int count) {
+        if (closed) {
+            throw new IllegalStateException("Driver pool has been shut down");
+        }
+        if (starter == null) {
+            AtomicInteger threads = new AtomicInteger();
+            starter = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "driver-prestart-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        List<CompletableFuture<Void>> starts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            starts.add(CompletableFuture.runAsync(this::startIdleSession, starter));
+        }
+        return CompletableFuture.allOf(starts.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Start and warm up one session and keep it idle, if a permit is free
+     */
+    private void startIdleSession() {
+        if (!permits.tryAcquire()) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            WebDriver driver = factory.get();
+            try {
+                warmUp.accept(driver);
+            } catch (RuntimeException e) {
+                quitQuietly(driver);
+                throw e;
+            }
+            synchronized (this) {
+                if (!closed) {
+                    idle.addLast(new PooledSession(driver));
+                    return;
+                }
+            }
+            quitQuietly(driver);
+        } catch (RuntimeException e) {
+            System.err.println("Could not prestart a pooled driver: " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Hand out an idle session, or start a new one, for a permit the caller already holds
+     *
+     * @return The leased WebDriver
+     */
+    private WebDriver leaseAcquired() {
+        PooledSession session;
+        synchronized (this) {
+            if (closed) {
+                permits.release();
+                throw new IllegalStateException("Driver pool has been shut down");
+            }
+            session = idle.pollFirst();
+        }
+        try {
+            if (session == null) {
+                WebDriver driver = factory.get();
+                session = new PooledSession(driver);
+                warmUp.accept(driver);
+            }
+        } catch (RuntimeException e) {
+            if (session != null) {
+                quitQuietly(session.driver);
+            }
+            permits.release();
+            throw e;
+        }
+        try {
+            session.home = session.driver.getWindowHandle();
+        } catch (RuntimeException e) {
+            quitQuietly(session.driver);
+            permits.release();
+            throw e;
+        }
+        synchronized (this) {
+            session.uses++;
+            leased.put(session.driver, session);
+        }
+        return session.driver;
+    }
+
+    /**
+     * Return a leased session to the pool
+     *
+     * @param driver The WebDriver obtained from {@link #lease()}
+     * @param failed True if the test using the session failed; the session is then recycled
+     */
+    public void release(WebDriver driver, boolean failed) {
+        PooledSession session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session == null) {
+            throw new IllegalArgumentException("Driver was not leased from this pool");
+        }
+        boolean open;
+        synchronized (this) {
+            open = !closed;
+        }
+        try {
+            boolean reusable = !failed && open && session.uses < maxUses && reset(session);
+            if (reusable) {
+                synchronized (this) {
+                    if (!closed) {
+                        idle.addLast(session);
+                        return;
+                    }
+                }
+            }
+            quitQuietly(session.driver);
+        } finally {
+            permits.release();
+        }
+        // The session was quit; once prestarting, start its replacement ahead of the next lease
+        synchronized (this) {
+            if (starter != null && !closed) {
+                starter.execute(this::startIdleSession);
+            }
+        }
+    }
+
+    /**
+     * Quit all idle sessions and reject further leases.
+     * Sessions still leased are quit when they are released.
+     */
+    public void shutdown() {
+        Deque<PooledSession> toQuit;
+        synchronized (this) {
+            closed = true;
+            toQuit = new ArrayDeque<>(idle);
+            idle.clear();
+            if (starter != null) {
+                starter.shutdown();
+            }
+        }
+        for (PooledSession session : toQuit) {
+            quitQuietly(session.driver);
+        }
+    }
+
+    /**
+     * Reset browser state so the next test cannot observe the previous one, then warm up again.
+     * The tab the session was leased on is kept; if the test closed it, the tab it ended on is kept.
+     *
+     * @param session The session to reset
+     * @return True if the session is clean and warm, false if it should be recycled
+     */
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String keep = handles.contains(session.home) ? session.home : driver.getWindowHandle();
+            for (String handle : handles) {
+                if (!handle.equals(keep)) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keep);
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            warmUp.accept(driver);
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Recycling pooled driver after failed reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quit a session, ignoring errors from browsers that are already gone
+     *
+     * @param driver The session to quit
+     */
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Error during driver cleanup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A pooled browser session, the number of tests it has served and the tab it was leased on
+     */
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+        private String home;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
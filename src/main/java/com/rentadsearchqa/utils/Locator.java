@@ -0,0 +1,135 @@
+package com.rentadsearchqa.utils;
+
+import org.openqa.selenium.By;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry entry for a templated element locator.
+ *
+ * A locator is defined once by an XPath template with {} placeholders, e.g.
+ * "//span[@data-testid='{}-ad-price']", and may declare an equivalent, faster CSS
+ * template. Locators are interned per template, and the XPath string and {@link By}
+ * for each distinct argument list are built once and then reused by every thread.
+ */
+public final class Locator {
+
+    private static final Map<String, Locator> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, By> XPATH_BYS = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_ARGUMENTS = 1024;
+    private static final int MAX_CACHED_XPATHS = 8192;
+
+    private final String xpathTemplate;
+    private final String cssTemplate;
+    private final Map<String, String> xpaths = new ConcurrentHashMap<>();
+    private final Map<String, By> bys = new ConcurrentHashMap<>();
+
+    private Locator(String xpathTemplate, String cssTemplate) {
+        this.xpathTemplate = xpathTemplate;
+        this.cssTemplate = cssTemplate;
+    }
+
+    /**
+     * Get the interned locator for an XPath template
+     *
+     * @param xpathTemplate XPath with {} placeholders for the arguments
+     * @return The locator shared by all callers using this template
+     */
+    public static Locator of(String xpathTemplate) {
+        return TEMPLATES.computeIfAbsent(xpathTemplate + "\u0000", key -> new Locator(xpathTemplate, null));
+    }
+
+    /**
+     * Get the interned locator for an XPath template that is resolved through an equivalent CSS selector
+     *
+     * @param xpathTemplate XPath with {} placeholders, used where an XPath string is required
+     * @param cssTemplate Equivalent CSS selector with {} placeholders, used for element lookups
+     * @return The locator shared by all callers using these templates
+     */
+    public static Locator of(String xpathTemplate, String cssTemplate) {
+        return TEMPLATES.computeIfAbsent(xpathTemplate + "\u0000" + cssTemplate,
+                key -> new Locator(xpathTemplate, cssTemplate));
+    }
+
+    /**
+     * Get the interned By for a plain XPath string
+     *
+     * @param xpath The XPath
+     * @return A By.xpath instance reused for equal XPath strings
+     */
+    public static By byXpath(String xpath) {
+        By by = XPATH_BYS.get(xpath);
+        if (by == null) {
+            by = By.xpath(xpath);
+            if (XPATH_BYS.size() < MAX_CACHED_XPATHS) {
+                XPATH_BYS.putIfAbsent(xpath, by);
+            }
+        }
+        return by;
+    }
+
+    /**
+     * Build the XPath for the given arguments
+     *
+     * @param args Values for the {} placeholders, in order
+     * @return The XPath string
+     */
+    public String xpath(String... args) {
+        return cached(xpaths, args, () -> fill(xpathTemplate, args));
+    }
+
+    /**
+     * Build the By for the given arguments, using the CSS template when one is declared
+     *
+     * @param args Values for the {} placeholders, in order
+     * @return The By instance
+     */
+    public By by(String... args) {
+        return cached(bys, args, () -> cssTemplate != null
+                ? By.cssSelector(fill(cssTemplate, args))
+                : byXpath(xpath(args)));
+    }
+
+    /**
+     * Look up a value built for an argument list, building and caching it on first use.
+     * The cache stops growing after a fixed number of distinct argument lists.
+     */
+    private static <T> T cached(Map<String, T> cache, String[] args, Supplier<T> builder) {
+        String key = args.length == 1 ? args[0] : String.join("\u0000", args);
+        T value = cache.get(key);
+        if (value == null) {
+            value = builder.get();
+            if (cache.size() < MAX_CACHED_ARGUMENTS) {
+                cache.putIfAbsent(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Replace the {} placeholders of a template with the arguments
+     */
+    private static String fill(String template, String[] args) {
+        StringBuilder result = new StringBuilder(template.length() + 32);
+        int from = 0;
+        for (String arg : args) {
+            int placeholder = template.indexOf("{}", from);
+            if (placeholder < 0) {
+                throw new IllegalArgumentException("Too many arguments for locator template: " + template);
+            }
+            result.append(template, from, placeholder).append(arg);
+            from = placeholder + 2;
+        }
+        if (template.indexOf("{}", from) >= 0) {
+            throw new IllegalArgumentException("Too few arguments for locator template: " + template);
+        }
+        return result.append(template, from, template.length()).toString();
+    }
+
+    @Override
+    public String toString() {
+        return cssTemplate != null ? xpathTemplate + " | css: " + cssTemplate : xpathTemplate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentadsearchqa.utils;
+
+/**
+ * Outcome of a presence or absence check on an XPath.
+ *
+ * Reports whether the expected state (present or absent) was reached within
+ * the allowed time and how long the check took.
+ */
+public class PresenceResult {
+
+    private final String xpath;
+    private final boolean expectedPresent;
+    private final boolean conditionMet;
+    private final long elapsedMillis;
+
+    /**
+     * Constructor for PresenceResult
+     *
+     * @param xpath The XPath that was checked
+     * @param expectedPresent True if the element was expected to be present, false if absent
+     * @param conditionMet True if the expected state was reached in time
+     * @param elapsedMillis Time the check took, in milliseconds
+     */
+    public PresenceResult(String xpath, boolean expectedPresent, boolean conditionMet, long elapsedMillis) {
+        this.xpath = xpath;
+        this.expectedPresent = expectedPresent;
+        this.conditionMet = conditionMet;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getXpath() {
+        return xpath;
+    }
+
+    public boolean isExpectedPresent() {
+        return expectedPresent;
+    }
+
+    public boolean isConditionMet() {
+        return conditionMet;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Check whether the element was present when the check ended
+     *
+     * @return True if the element was present
+     */
+    public boolean isPresent() {
+        return expectedPresent == conditionMet;
+    }
+
+    /**
+     * Throw if the expected state was not reached
+     *
+     * @throws AssertionError If the element was present when it should be absent, or vice versa
+     */
+    public void assertConditionMet() {
+        if (!conditionMet) {
+            throw new AssertionError(String.format("Expected element %s to be %s, but it was still %s after %d ms",
+                    xpath, expectedPresent ? "present" : "absent", expectedPresent ? "absent" : "present",
+                    elapsedMillis));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PresenceResult{xpath='" + xpath + "', expectedPresent=" + expectedPresent
+                + ", conditionMet=" + conditionMet + ", elapsedMillis=" + elapsedMillis + "}";
+    }
+}
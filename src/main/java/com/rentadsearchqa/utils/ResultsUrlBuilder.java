@@ -0,0 +1,159 @@
+package com.rentadsearchqa.utils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder for results page URLs (deep links).
+ *
+ * Starts from an existing results URL, typically the one the site opened after an
+ * area search, so the area selection and transaction parameters are kept. Filters,
+ * sort order and page are then written as query parameters, replacing any existing
+ * value, so the filtered and sorted results open with a single navigation.
+ */
+public class ResultsUrlBuilder {
+
+    // ===== QUERY PARAMETERS =====
+    public static final String PARAM_MINIMUM_PRICE = "minimum_price";
+    public static final String PARAM_MAXIMUM_PRICE = "maximum_price";
+    public static final String PARAM_MINIMUM_SIZE = "minimum_size";
+    public static final String PARAM_MAXIMUM_SIZE = "maximum_size";
+    public static final String PARAM_AREA = "geo_place_ids[]";
+    public static final String PARAM_SORTING = "sorting";
+    public static final String PARAM_PAGE = "page";
+    public static final String SORT_PRICE_ASCENDING = "price_asc";
+
+    private final String baseUrl;
+    private final List<String[]> parameters = new ArrayList<>();
+
+    /**
+     * Constructor for ResultsUrlBuilder
+     *
+     * @param resultsUrl An existing results URL whose query parameters are kept
+     */
+    public ResultsUrlBuilder(String resultsUrl) {
+        int fragment = resultsUrl.indexOf('#');
+        String url = fragment >= 0 ? resultsUrl.substring(0, fragment) : resultsUrl;
+        int query = url.indexOf('?');
+        this.baseUrl = query >= 0 ? url.substring(0, query) : url;
+        if (query >= 0 && query < url.length() - 1) {
+            for (String pair : url.substring(query + 1).split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = decode(equals >= 0 ? pair.substring(0, equals) : pair);
+                String value = equals >= 0 ? decode(pair.substring(equals + 1)) : "";
+                parameters.add(new String[]{name, value});
+            }
+        }
+    }
+
+    /**
+     * Apply filter maps as used by properties.filterAndValidateResults
+     *
+     * @param filters List of filter maps with "title" ("price" or "size"), "min" and "max"
+     * @return This builder
+     * @throws IllegalArgumentException If a filter title is not supported
+     */
+    public ResultsUrlBuilder filters(List<Map<String, String>> filters) {
+        for (Map<String, String> filter : filters) {
+            String title = filter.get("title");
+            if (title.equals("price")) {
+                set(PARAM_MINIMUM_PRICE, filter.get("min"));
+                set(PARAM_MAXIMUM_PRICE, filter.get("max"));
+            } else if (title.equals("size")) {
+                set(PARAM_MINIMUM_SIZE, filter.get("min"));
+                set(PARAM_MAXIMUM_SIZE, filter.get("max"));
+            } else {
+                throw new IllegalArgumentException("Unsupported filter for deep links: " + title);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Set the sort order
+     *
+     * @param sorting Sort key (e.g. {@link #SORT_PRICE_ASCENDING})
+     * @return This builder
+     */
+    public ResultsUrlBuilder sorting(String sorting) {
+        return set(PARAM_SORTING, sorting);
+    }
+
+    /**
+     * Set the results page, 1-based. Page 1 removes the parameter.
+     *
+     * @param page The page number
+     * @return This builder
+     */
+    public ResultsUrlBuilder page(int page) {
+        if (page <= 1) {
+            parameters.removeIf(parameter -> parameter[0].equals(PARAM_PAGE));
+            return this;
+        }
+        return set(PARAM_PAGE, String.valueOf(page));
+    }
+
+    /**
+     * Set a single-valued query parameter, replacing existing values
+     *
+     * @param name The parameter name
+     * @param value The parameter value
+     * @return This builder
+     */
+    public ResultsUrlBuilder set(String name, String value) {
+        parameters.removeIf(parameter -> parameter[0].equals(name));
+        parameters.add(new String[]{name, value});
+        return this;
+    }
+
+    /**
+     * Get all values of a query parameter
+     *
+     * @param name The parameter name
+     * @return The values in URL order, empty if absent
+     */
+    public List<String> get(String name) {
+        List<String> values = new ArrayList<>();
+        for (String[] parameter : parameters) {
+            if (parameter[0].equals(name)) {
+                values.add(parameter[1]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Build the results URL
+     *
+     * @return The URL with all query parameters encoded
+     */
+    public String build() {
+        StringBuilder url = new StringBuilder(baseUrl);
+        char separator = '?';
+        for (String[] parameter : parameters) {
+            url.append(separator).append(encode(parameter[0])).append('=').append(encode(parameter[1]));
+            separator = '&';
+        }
+        return url.toString();
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
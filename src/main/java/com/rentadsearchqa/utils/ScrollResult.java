@@ -0,0 +1,72 @@
+package com.rentadsearchqa.utils;
+
+/**
+ * Outcome of a settle-based scroll through lazy-loaded content.
+ *
+ * Reports how many scroll steps were taken, how long the scroll took, whether
+ * the page settled (no pending requests, no DOM mutations) before the configured
+ * ceiling was reached, and whether the end of the content was reached.
+ */
+public class ScrollResult {
+
+    private final int iterations;
+    private final long elapsedMillis;
+    private final boolean settled;
+    private final int itemCount;
+    private final boolean atEnd;
+
+    /**
+     * Constructor for the result of a scroll that runs until the end of the content
+     *
+     * @param iterations Number of scroll steps performed
+     * @param elapsedMillis Time spent scrolling and waiting, in milliseconds
+     * @param settled True if the page settled at the end, false if the ceiling was reached first
+     * @param itemCount Number of elements matching the item selector at the end, or -1 if none was given
+     */
+    public ScrollResult(int iterations, long elapsedMillis, boolean settled, int itemCount) {
+        this(iterations, elapsedMillis, settled, itemCount, settled);
+    }
+
+    /**
+     * Constructor for ScrollResult
+     *
+     * @param iterations Number of scroll steps performed
+     * @param elapsedMillis Time spent scrolling and waiting, in milliseconds
+     * @param settled True if the page settled, false if the ceiling was reached first
+     * @param itemCount Number of elements matching the item selector at the end, or -1 if none was given
+     * @param atEnd True if the edge was reached and the last step loaded no new content
+     */
+    public ScrollResult(int iterations, long elapsedMillis, boolean settled, int itemCount, boolean atEnd) {
+        this.iterations = iterations;
+        this.elapsedMillis = elapsedMillis;
+        this.settled = settled;
+        this.itemCount = itemCount;
+        this.atEnd = atEnd;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public boolean isAtEnd() {
+        return atEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "ScrollResult{iterations=" + iterations + ", elapsedMillis=" + elapsedMillis
+                + ", settled=" + settled + ", itemCount=" + itemCount + ", atEnd=" + atEnd + "}";
+    }
+}
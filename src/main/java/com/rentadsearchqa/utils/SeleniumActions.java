@@ -8,16 +8,37 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.Keys;
+import org.openqa.selenium.TimeoutException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Utility class for common Selenium actions with enhanced error handling and waiting mechanisms.
  */
 public class SeleniumActions {
     
+    private static final long PRESENCE_POLL_MILLIS = 100;
+    private static final Duration DEFAULT_POLLING = Duration.ofMillis(500);
+    private static final Duration CLEAR_TIMEOUT = Duration.ofSeconds(2);
+    
+    /**
+     * Sets an input value through the native setter and fires input/change events.
+     */
+    private static final String SET_VALUE_SCRIPT =
+            "var element = arguments[0], value = arguments[1];"
+            + "var prototype = element instanceof HTMLTextAreaElement"
+            + "    ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+            + "Object.getOwnPropertyDescriptor(prototype, 'value').set.call(element, value);"
+            + "element.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "element.dispatchEvent(new Event('change', { bubbles: true }));";
+    
     private final WebDriver driver;
     private final int waitSeconds;
+    private final Map<String, WebDriverWait> waits = new ConcurrentHashMap<>();
     
     /**
      * Constructor for SeleniumActions
@@ -39,6 +60,27 @@ public class SeleniumActions {
         this(driver, 10);
     }
     
+    /**
+     * Get the WebDriver instance used by these actions
+     * 
+     * @return The WebDriver instance
+     */
+    protected WebDriver getDriver() {
+        return driver;
+    }
+    
+    /**
+     * Get a wait for the given timeout, created once and reused by later calls
+     * 
+     * @param timeout Maximum time to wait
+     * @param polling Interval between condition checks
+     * @return The shared WebDriverWait
+     */
+    protected WebDriverWait waitFor(Duration timeout, Duration polling) {
+        return waits.computeIfAbsent(timeout.toMillis() + "/" + polling.toMillis(),
+                key -> new WebDriverWait(driver, timeout, polling));
+    }
+    
     /**
      * Open a URL in the browser
      * 
@@ -48,6 +90,53 @@ public class SeleniumActions {
         driver.get(url);
     }
     
+    /**
+     * Open a URL in a new tab that loads in the background while the driver stays on the current tab
+     * 
+     * @param url The URL to load
+     * @return The window handle of the new tab
+     * @throws TimeoutException If the new tab does not appear within the default wait time
+     */
+    public String openInBackgroundTab(String url) {
+        String current = driver.getWindowHandle();
+        Set<String> before = driver.getWindowHandles();
+        ((JavascriptExecutor) driver).executeScript("window.open(arguments[0], '_blank');", url);
+        String opened = waitFor(Duration.ofSeconds(waitSeconds), Duration.ofMillis(PRESENCE_POLL_MILLIS))
+                .until(d -> {
+                    for (String handle : d.getWindowHandles()) {
+                        if (!before.contains(handle)) {
+                            return handle;
+                        }
+                    }
+                    return null;
+                });
+        // Bring the current tab back to the front, so its lazy loading is not throttled as hidden
+        driver.switchTo().window(current);
+        return opened;
+    }
+    
+    /**
+     * Close the current tab and continue in another one
+     * 
+     * @param handle The window handle to continue in
+     */
+    public void switchToTabClosingCurrent(String handle) {
+        driver.close();
+        driver.switchTo().window(handle);
+    }
+    
+    /**
+     * Close a background tab and stay on the current one
+     * 
+     * @param handle The window handle of the tab to close
+     */
+    public void closeBackgroundTab(String handle) {
+        String current = driver.getWindowHandle();
+        driver.switchTo().window(handle);
+        driver.close();
+        driver.switchTo().window(current);
+    }
+    
     /**
      * Find an element by XPath with optional existence validation
      * 
@@ -58,18 +147,98 @@ public class SeleniumActions {
     public Object find(String xpath, boolean exists) {
         if (exists) {
             // Original behavior - wait for element and return it
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(waitSeconds));
-            WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath(xpath)));
-            return element;
+            return find(Locator.byXpath(xpath));
         } else {
-            // Just check if element exists without waiting
-            try {
-                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(0)); // No wait
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath(xpath)));
-                return true;
-            } catch (Exception e) {
-                return false;
+            // Just check if element exists without waiting (implicit wait suspended)
+            return isPresent(xpath);
+        }
+    }
+    
+    /**
+     * Check whether an element exists right now, without waiting.
+     * The implicit wait of the driver is suspended for the lookup.
+     * 
+     * @param xpath The XPath to check
+     * @return True if at least one element matches
+     */
+    public boolean isPresent(String xpath) {
+        By locator = Locator.byXpath(xpath);
+        return withImplicitWaitSuspended(() -> !driver.findElements(locator).isEmpty());
+    }
+    
+    /**
+     * Wait until an element appears, polling without the implicit wait
+     * 
+     * @param xpath The XPath expected to appear
+     * @param timeout Maximum time to wait
+     * @return Result telling whether the element appeared in time and how long it took
+     */
+    public PresenceResult appearsWithin(String xpath, Duration timeout) {
+        return awaitPresence(xpath, true, timeout);
+    }
+    
+    /**
+     * Wait until no element matches, polling without the implicit wait.
+     * Returns immediately if the element is already absent.
+     * 
+     * @param xpath The XPath expected to disappear
+     * @param timeout Maximum time to wait
+     * @return Result telling whether the element disappeared in time and how long it took
+     */
+    public PresenceResult disappearsWithin(String xpath, Duration timeout) {
+        return awaitPresence(xpath, false, timeout);
+    }
+    
+    /**
+     * Poll an XPath until it is present (or absent) or the timeout expires
+     * 
+     * @param xpath The XPath to check
+     * @param expectPresent True to wait for presence, false to wait for absence
+     * @param timeout Maximum time to wait
+     * @return Result of the check
+     */
+    private PresenceResult awaitPresence(String xpath, boolean expectPresent, Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        By locator = Locator.byXpath(xpath);
+        boolean met = withImplicitWaitSuspended(() -> {
+            while (true) {
+                if (driver.findElements(locator).isEmpty() != expectPresent) {
+                    return true;
+                }
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(PRESENCE_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
             }
+        });
+        return new PresenceResult(xpath, expectPresent, met, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Run a lookup with the implicit wait of the driver set to zero, restoring it afterwards.
+     * Without this, every findElements on a missing element blocks for the full implicit wait.
+     * 
+     * @param lookup The lookup to run
+     * @param <T> The lookup result type
+     * @return The lookup result
+     */
+    protected <T> T withImplicitWaitSuspended(Supplier<T> lookup) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration implicitWait = timeouts.getImplicitWaitTimeout();
+        if (implicitWait.isZero()) {
+            return lookup.get();
+        }
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            return lookup.get();
+        } finally {
+            timeouts.implicitlyWait(implicitWait);
         }
     }
     
@@ -80,7 +249,18 @@ public class SeleniumActions {
      * @return WebElement
      */
     public WebElement find(String xpath) {
-        return (WebElement) find(xpath, true);
+        return find(Locator.byXpath(xpath));
+    }
+    
+    /**
+     * Find an element by any locator strategy, waiting for its presence
+     * 
+     * @param locator The locator to find
+     * @return WebElement
+     */
+    public WebElement find(By locator) {
+        return waitFor(Duration.ofSeconds(waitSeconds), DEFAULT_POLLING)
+                .until(ExpectedConditions.presenceOfElementLocated(locator));
     }
     
     /**
@@ -89,25 +269,173 @@ public class SeleniumActions {
      * @param xpath The XPath of the element to click
      */
     public void findAndClick(String xpath) {
-        WebElement element = find(xpath);
-        element.click();
+        findAndClick(Locator.byXpath(xpath));
     }
     
     /**
-     * After validating the existence of the xpath, send keys to it
+     * After validating the existence of the locator, click it
+     * 
+     * @param locator The locator of the element to click
+     */
+    public void findAndClick(By locator) {
+        find(locator).click();
+    }
+    
+    /**
+     * After validating the existence of the xpath, replace its value with the given text.
+     * Instead of fixed delays, typing waits on the observable state of the field: the value
+     * is empty after clearing and equals the text after typing. A field that is not empty
+     * shortly after clear() is cleared once more via script before typing fails.
+     * With -Dtyping.mode=script the value is set via script (see {@link #findAndSetValue(String, String)}).
      * 
      * @param xpath The XPath of the element to type into
      * @param text The text to send
+     * @throws AssertionError If the field cannot be cleared or does not hold the text after typing
      */
     public void findAndType(String xpath, String text) {
-        WebElement element = find(xpath);
+        findAndType(Locator.byXpath(xpath), text);
+    }
+    
+    /**
+     * After validating the existence of the locator, replace its value with the given text.
+     * See {@link #findAndType(String, String)}.
+     * 
+     * @param locator The locator of the element to type into
+     * @param text The text to send
+     * @throws AssertionError If the field cannot be cleared or does not hold the text after typing
+     */
+    public void findAndType(By locator, String text) {
+        if ("script".equalsIgnoreCase(System.getProperty("typing.mode"))) {
+            findAndSetValue(locator, text);
+            return;
+        }
+        WebElement element = find(locator);
+        clearValue(element);
+        element.sendKeys(text);
+        verifyValue(element, text);
+    }
+    
+    /**
+     * Fast path for typing: set the value of an input via script and dispatch the
+     * input and change events frameworks listen to, then verify the final value.
+     * The native value setter is used so React-style controlled inputs notice the change.
+     * 
+     * @param xpath The XPath of the input element
+     * @param text The value to set
+     * @throws AssertionError If the field does not hold the text afterwards
+     */
+    public void findAndSetValue(String xpath, String text) {
+        findAndSetValue(Locator.byXpath(xpath), text);
+    }
+    
+    /**
+     * Fast path for typing by any locator strategy. See {@link #findAndSetValue(String, String)}.
+     * 
+     * @param locator The locator of the input element
+     * @param text The value to set
+     * @throws AssertionError If the field does not hold the text afterwards
+     */
+    public void findAndSetValue(By locator, String text) {
+        WebElement element = find(locator);
+        ((JavascriptExecutor) driver).executeScript(SET_VALUE_SCRIPT, element, text);
+        verifyValue(element, text);
+    }
+    
+    /**
+     * Empty an input, retrying once via script when clear() leaves a value behind
+     * (e.g. a controlled input restoring its state)
+     * 
+     * @param element The input element
+     * @throws AssertionError If the field still holds a value after the retry
+     */
+    private void clearValue(WebElement element) {
         element.clear();
+        if (awaitValue(element, "", CLEAR_TIMEOUT)) {
+            return;
+        }
+        ((JavascriptExecutor) driver).executeScript(SET_VALUE_SCRIPT, element, "");
+        if (!awaitValue(element, "", CLEAR_TIMEOUT)) {
+            throw new AssertionError(String.format("Could not clear input, it still holds '%s'",
+                    element.getDomProperty("value")));
+        }
+    }
+    
+    /**
+     * Wait until an input holds the expected value
+     * 
+     * @param element The input element
+     * @param expected The expected value
+     * @param timeout Maximum time to wait
+     * @return True if the value was reached within the timeout
+     */
+    private boolean awaitValue(WebElement element, String expected, Duration timeout) {
         try {
-            Thread.sleep(300); // Small delay to ensure clear operation completes
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            waitFor(timeout, Duration.ofMillis(50))
+                    .until(d -> sameValue(element.getDomProperty("value"), expected));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
         }
-        element.sendKeys(text);
+    }
+    
+    /**
+     * Wait for an input to hold the typed text and fail if it never does
+     * 
+     * @param element The input element
+     * @param expected The text that was typed
+     * @throws AssertionError If the value differs after the default wait time
+     */
+    private void verifyValue(WebElement element, String expected) {
+        if (!awaitValue(element, expected, Duration.ofSeconds(waitSeconds))) {
+            throw new AssertionError(String.format("Expected input value '%s' but found '%s'",
+                    expected, element.getDomProperty("value")));
+        }
+    }
+    
+    /**
+     * Compare an input value with the typed text, tolerating the grouping separators
+     * and spaces inputs add when they format numbers (e.g. "1.200" for "1200")
+     * 
+     * @param actual The current value of the input
+     * @param expected The typed text
+     * @return True if both represent the same value
+     */
+    private static boolean sameValue(String actual, String expected) {
+        if (actual == null) {
+            return expected.isEmpty();
+        }
+        return actual.equals(expected)
+                || actual.replaceAll("[\\s.,]", "").equals(expected.replaceAll("[\\s.,]", ""));
+    }
+    
+    /**
+     * Wait until the number of elements matching an XPath stops changing,
+     * e.g. an autocomplete dropdown that is still receiving options.
+     * Returns as soon as two consecutive lookups find the same number of elements,
+     * or with the last lookup once the default wait time is over.
+     * 
+     * @param xpathPattern The XPath of the elements to watch
+     * @param pollInterval Time between two lookups
+     * @return The settled elements
+     */
+    public List<WebElement> findSettledElements(String xpathPattern, Duration pollInterval) {
+        List<WebElement> elements = findElements(xpathPattern);
+        long deadline = System.nanoTime() + Duration.ofSeconds(waitSeconds).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            List<WebElement> current = withImplicitWaitSuspended(() -> findElements(xpathPattern));
+            boolean settled = current.size() == elements.size();
+            elements = current;
+            if (settled) {
+                break;
+            }
+        }
+        return elements;
     }
     
     /**
@@ -127,7 +455,7 @@ public class SeleniumActions {
         }
         
         // Count all elements that match the xpath pattern
-        List<WebElement> elements = driver.findElements(By.xpath(xpathPattern));
+        List<WebElement> elements = findElements(xpathPattern);
         int foundCount = elements.size();
         
         int expectedCount = expectedValues.length;
@@ -155,13 +483,25 @@ public class SeleniumActions {
 
     
     /**
-     * Count the number of elements matching the given XPath pattern
+     * Count the number of elements matching the given XPath pattern.
+     * Counts what is in the page right now; the implicit wait is suspended so
+     * a count of zero does not block.
      * 
      * @param xpathPattern The XPath pattern to search for
      * @return The number of elements found
      */
     public int countElements(String xpathPattern) {
-        return driver.findElements(By.xpath(xpathPattern)).size();
+        return countElements(Locator.byXpath(xpathPattern));
+    }
+    
+    /**
+     * Count the number of elements matching the given locator right now, without waiting
+     * 
+     * @param locator The locator to search for
+     * @return The number of elements found
+     */
+    public int countElements(By locator) {
+        return withImplicitWaitSuspended(() -> driver.findElements(locator).size());
     }
     
     /**
@@ -171,93 +511,170 @@ public class SeleniumActions {
      * @return List of WebElements matching the pattern
      */
     public List<WebElement> findElements(String xpathPattern) {
-        return driver.findElements(By.xpath(xpathPattern));
+        return findElements(Locator.byXpath(xpathPattern));
+    }
+    
+    /**
+     * Find all elements matching the given locator
+     * 
+     * @param locator The locator to search for
+     * @return List of WebElements matching the locator
+     */
+    public List<WebElement> findElements(By locator) {
+        return driver.findElements(locator);
     }
     
     /**
      * Scroll to the end of the page step by step to load all content progressively.
-     * This method scrolls down in increments of 1000 pixels, waiting for content to load,
-     * until no new content is loaded. Useful for lazy-loaded pages.
+     * Each step scrolls one viewport down and moves on as soon as the page has settled:
+     * no fetch/XHR requests pending and no nodes added or removed for the quiet period.
+     * The scroll ends when the bottom is reached and no new content appeared.
+     * Useful for lazy-loaded pages.
+     * 
+     * @return The number of scroll steps and time used
      */
-    public void scrollToEndOfPage() {
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        
-        // Get initial page height
-        Long lastHeight = (Long) js.executeScript("return document.body.scrollHeight");
-        
-        while (true) {
-            // Scroll down by 1000 pixels at a time
-            js.executeScript("window.scrollBy(0, 1000);");
-            
-            // Wait for content to load
-            try {
-                Thread.sleep(1500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-            
-            // Get new page height after scrolling
-            Long newHeight = (Long) js.executeScript("return document.body.scrollHeight");
-            
-            // If page height hasn't changed, we've reached the end
-            if (newHeight.equals(lastHeight)) {
-                break;
-            }
-            
-            lastHeight = newHeight;
-        }
-        
-        // Final scroll to absolute bottom
-        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-        
-        // Final wait to ensure all content is loaded
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    public ScrollResult scrollToEndOfPage() {
+        return scrollToEndOfPage(null);
     }
 
+    /**
+     * Scroll to the end of the page like {@link #scrollToEndOfPage()}, additionally
+     * requiring the number of elements matching itemSelector to be stable before finishing.
+     * 
+     * @param itemSelector CSS selector of the lazy-loaded items (e.g. result cards), or null
+     * @return The number of scroll steps, time used and final item count
+     */
+    public ScrollResult scrollToEndOfPage(String itemSelector) {
+        return settleScroll(0, 1, itemSelector, 0);
+    }
+
+    /**
+     * Scroll one viewport down and wait until the page has settled, so lazy-loaded
+     * items can be processed as they arrive instead of after the whole page.
+     * 
+     * @param itemSelector CSS selector of the lazy-loaded items (e.g. result cards), or null
+     * @return The step outcome; {@link ScrollResult#isAtEnd()} tells whether the end was reached
+     *         and the step loaded no new content
+     */
+    public ScrollResult scrollStep(String itemSelector) {
+        return settleScroll(0, 1, itemSelector, 1);
+    }
 
     /**
      * Scroll to the start of the page (leftmost position) step by step.
-     * This method scrolls left in increments of 1000 pixels until reaching the beginning.
+     * This method scrolls left one viewport at a time, waiting only until the page
+     * has settled after each step, until reaching the beginning.
      * Useful for horizontal scrolling scenarios.
+     * 
+     * @return The number of scroll steps and time used
      */
-    public void scrollToStartOfPage() {
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        
-        // Get initial page height
-        Long lastLeft = (Long) js.executeScript("return document.body.scrollLeft");
+    public ScrollResult scrollToStartOfPage() {
+        return settleScroll(-1, 0, null, 0);
+    }
+
+    /**
+     * Run the settle-based scroll loop inside the page in a single asynchronous script.
+     * The quiet period and ceiling are read from the scroll.quietMs (default 300)
+     * and scroll.ceilingMs (default 30000) system properties.
+     * 
+     * @param dx Horizontal direction of each step (-1, 0 or 1 viewport widths)
+     * @param dy Vertical direction of each step (-1, 0 or 1 viewport heights)
+     * @param itemSelector CSS selector whose match count must be stable, or null
+     * @param maxSteps Maximum number of scroll steps, 0 to scroll until the end
+     * @return The number of scroll steps, time used and final item count
+     */
+    private ScrollResult settleScroll(int dx, int dy, String itemSelector, int maxSteps) {
+        long quietMillis = Long.getLong("scroll.quietMs", 300);
+        long ceilingMillis = Long.getLong("scroll.ceilingMs", 30000);
         
-        while (true) {
-            // Scroll down by 1000 pixels at a time
-            js.executeScript("window.scrollBy(-1000, 0);");
-            
-            // Wait for content to load
-            try {
-                Thread.sleep(1500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-            
-            // Get new page height after scrolling
-            Long newLeft = (Long) js.executeScript("return document.body.scrollLeft");
-            
-            // If page height hasn't changed, we've reached the end
-            if (newLeft.equals(lastLeft)) {
-                break;
+        // The script timeout must outlast the ceiling, otherwise the driver aborts the loop
+        Duration previousScriptTimeout = driver.manage().timeouts().getScriptTimeout();
+        Duration requiredScriptTimeout = Duration.ofMillis(ceilingMillis + 5000);
+        if (previousScriptTimeout.compareTo(requiredScriptTimeout) < 0) {
+            driver.manage().timeouts().scriptTimeout(requiredScriptTimeout);
+        }
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeAsyncScript(
+                    SETTLE_SCROLL_SCRIPT, dx, dy, itemSelector, quietMillis, ceilingMillis, maxSteps);
+            Map<?, ?> result = (Map<?, ?>) raw;
+            return new ScrollResult(
+                    ((Number) result.get("iterations")).intValue(),
+                    ((Number) result.get("elapsed")).longValue(),
+                    Boolean.TRUE.equals(result.get("settled")),
+                    ((Number) result.get("items")).intValue(),
+                    Boolean.TRUE.equals(result.get("atEnd")));
+        } finally {
+            if (previousScriptTimeout.compareTo(requiredScriptTimeout) < 0) {
+                driver.manage().timeouts().scriptTimeout(previousScriptTimeout);
             }
-            
-            lastLeft = newLeft;
         }
-        
-        // Final scroll to absolute bottom
-        js.executeScript("window.scrollTo(0, document.body.scrollLeft);");
     }
 
+    /**
+     * In-page scroll loop. Counts pending fetch/XHR requests (instrumented once per page),
+     * records the time nodes were last added or removed and only takes the next step once
+     * the page has been quiet for the quiet period. Attribute changes are not observed, so
+     * animations, carousels and ticking timers do not keep the page from settling. Finishes when the edge is reached and
+     * neither the document size nor the item count changed, after maxSteps settled
+     * steps (if not 0), or when the ceiling is hit.
+     */
+    private static final String SETTLE_SCROLL_SCRIPT =
+            "var dx = arguments[0], dy = arguments[1], selector = arguments[2],"
+            + "    quietMs = arguments[3], ceilingMs = arguments[4], maxSteps = arguments[5],"
+            + "    done = arguments[arguments.length - 1];"
+            + "if (!window.__qaPendingRequests) {"
+            + "  window.__qaPendingRequests = { count: 0 };"
+            + "  var pending = window.__qaPendingRequests;"
+            + "  if (window.fetch) {"
+            + "    var originalFetch = window.fetch;"
+            + "    window.fetch = function() {"
+            + "      pending.count++;"
+            + "      return originalFetch.apply(this, arguments).finally(function() { pending.count--; });"
+            + "    };"
+            + "  }"
+            + "  var originalSend = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function() {"
+            + "    pending.count++;"
+            + "    this.addEventListener('loadend', function() { pending.count--; });"
+            + "    return originalSend.apply(this, arguments);"
+            + "  };"
+            + "}"
+            + "var start = Date.now(), lastMutation = start, iterations = 0;"
+            + "var observer = new MutationObserver(function() { lastMutation = Date.now(); });"
+            + "observer.observe(document.body, { childList: true, subtree: true });"
+            + "function items() { return selector ? document.querySelectorAll(selector).length : -1; }"
+            + "function size() { return dy !== 0 ? document.body.scrollHeight : document.body.scrollWidth; }"
+            + "function atEdge() {"
+            + "  if (dy > 0) { return window.innerHeight + window.scrollY >= document.body.scrollHeight - 2; }"
+            + "  if (dy < 0) { return window.scrollY <= 0; }"
+            + "  if (dx > 0) { return window.innerWidth + window.scrollX >= document.body.scrollWidth - 2; }"
+            + "  return window.scrollX <= 0;"
+            + "}"
+            + "var lastSize = size(), lastItems = items();"
+            + "function finish(settled, atEnd) {"
+            + "  observer.disconnect();"
+            + "  done({ iterations: iterations, elapsed: Date.now() - start, settled: settled, items: items(),"
+            + "         atEnd: atEnd });"
+            + "}"
+            + "function step() {"
+            + "  var now = Date.now();"
+            + "  if (now - start > ceilingMs) { finish(false, false); return; }"
+            + "  if (window.__qaPendingRequests.count > 0 || now - lastMutation < quietMs) {"
+            + "    setTimeout(step, 50); return;"
+            + "  }"
+            + "  var currentSize = size(), currentItems = items();"
+            + "  if (atEdge() && currentSize === lastSize && currentItems === lastItems && iterations > 0) {"
+            + "    finish(true, true); return;"
+            + "  }"
+            + "  if (maxSteps > 0 && iterations >= maxSteps) { finish(true, false); return; }"
+            + "  lastSize = currentSize; lastItems = currentItems;"
+            + "  window.scrollBy(dx * window.innerWidth, dy * window.innerHeight);"
+            + "  iterations++;"
+            + "  lastMutation = Date.now();"
+            + "  setTimeout(step, 50);"
+            + "}"
+            + "step();";
+
     /**
      * Send the Escape key to the browser.
      * Useful for closing dialogs, dropdowns, or canceling operations.
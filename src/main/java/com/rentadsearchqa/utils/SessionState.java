@@ -0,0 +1,204 @@
+package com.rentadsearchqa.utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the browser state a test depends on: the cookies and localStorage of the site
+ * and the page they were captured on.
+ *
+ * Capture it once a session has reached a known state (e.g. cookie consent accepted, or an
+ * area searched), then restore it in other sessions instead of replaying the UI steps.
+ * Cookies can only be set on a page of their own site, so restoring first opens the site's
+ * robots.txt, a tiny same-origin document, then writes the state and opens the captured page.
+ *
+ * Snapshots are immutable and can be saved as JSON to reuse them across runs.
+ */
+public final class SessionState {
+
+    private static final String READ_LOCAL_STORAGE_SCRIPT =
+            "var items = {};"
+            + "try {"
+            + "  for (var i = 0; i < window.localStorage.length; i++) {"
+            + "    var key = window.localStorage.key(i);"
+            + "    items[key] = window.localStorage.getItem(key);"
+            + "  }"
+            + "} catch (e) {}"
+            + "return items;";
+
+    private static final String WRITE_LOCAL_STORAGE_SCRIPT =
+            "var items = arguments[0];"
+            + "for (var key in items) { window.localStorage.setItem(key, items[key]); }";
+
+    private static final Json JSON = new Json();
+
+    private final String url;
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, String> localStorage;
+
+    private SessionState(String url, List<Map<String, Object>> cookies, Map<String, String> localStorage) {
+        this.url = url;
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+    }
+
+    /**
+     * Capture the state of the current page's site
+     *
+     * @param driver The session in the state to capture
+     * @return The snapshot
+     */
+    public static SessionState capture(WebDriver driver) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("name", cookie.getName());
+            fields.put("value", cookie.getValue());
+            fields.put("domain", cookie.getDomain());
+            fields.put("path", cookie.getPath());
+            fields.put("secure", cookie.isSecure());
+            fields.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                fields.put("expiry", cookie.getExpiry().getTime() / 1000);
+            }
+            if (cookie.getSameSite() != null) {
+                fields.put("sameSite", cookie.getSameSite());
+            }
+            cookies.add(fields);
+        }
+        Map<String, String> localStorage = new LinkedHashMap<>();
+        Object items = ((JavascriptExecutor) driver).executeScript(READ_LOCAL_STORAGE_SCRIPT);
+        if (items instanceof Map) {
+            for (Map.Entry<?, ?> item : ((Map<?, ?>) items).entrySet()) {
+                localStorage.put(String.valueOf(item.getKey()), String.valueOf(item.getValue()));
+            }
+        }
+        return new SessionState(driver.getCurrentUrl(), cookies, localStorage);
+    }
+
+    /**
+     * Restore the snapshot in a session and open the page it was captured on.
+     * Cookies that expired since the capture are skipped.
+     *
+     * @param driver The session to restore into, e.g. a new or pooled browser
+     */
+    public void restore(WebDriver driver) {
+        driver.get(URI.create(url).resolve("/robots.txt").toString());
+        long now = System.currentTimeMillis() / 1000;
+        for (Map<String, Object> fields : cookies) {
+            Number expiry = (Number) fields.get("expiry");
+            if (expiry != null && expiry.longValue() <= now) {
+                continue;
+            }
+            Cookie.Builder cookie = new Cookie.Builder((String) fields.get("name"), (String) fields.get("value"))
+                    .domain((String) fields.get("domain"))
+                    .path((String) fields.get("path"))
+                    .isSecure(Boolean.TRUE.equals(fields.get("secure")))
+                    .isHttpOnly(Boolean.TRUE.equals(fields.get("httpOnly")));
+            if (expiry != null) {
+                cookie.expiresOn(new Date(expiry.longValue() * 1000));
+            }
+            if (fields.get("sameSite") != null) {
+                cookie.sameSite((String) fields.get("sameSite"));
+            }
+            driver.manage().addCookie(cookie.build());
+        }
+        if (!localStorage.isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(WRITE_LOCAL_STORAGE_SCRIPT, localStorage);
+        }
+        driver.get(url);
+    }
+
+    /**
+     * Get the page the snapshot was captured on
+     *
+     * @return The page URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get the number of cookies in the snapshot
+     *
+     * @return The cookie count
+     */
+    public int getCookieCount() {
+        return cookies.size();
+    }
+
+    /**
+     * Get the localStorage items in the snapshot
+     *
+     * @return The items by key
+     */
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    /**
+     * Save the snapshot as JSON
+     *
+     * @param file The file to write
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    public void save(Path file) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("url", url);
+        json.put("cookies", cookies);
+        json.put("localStorage", localStorage);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, JSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save session state to " + file, e);
+        }
+    }
+
+    /**
+     * Load a snapshot saved with {@link #save(Path)}
+     *
+     * @param file The file to read
+     * @return The snapshot
+     * @throws UncheckedIOException If the file cannot be read
+     * @throws JsonException If the file is not a saved snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionState load(Path file) {
+        Map<String, Object> json;
+        try {
+            json = JSON.toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load session state from " + file, e);
+        }
+        if (!(json.get("url") instanceof String)) {
+            throw new JsonException("Not a session state file: " + file);
+        }
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Object cookie : (List<Object>) json.getOrDefault("cookies", List.of())) {
+            cookies.add(new LinkedHashMap<>((Map<String, Object>) cookie));
+        }
+        Map<String, String> localStorage = new LinkedHashMap<>();
+        ((Map<String, Object>) json.getOrDefault("localStorage", Map.of()))
+                .forEach((key, value) -> localStorage.put(key, String.valueOf(value)));
+        return new SessionState((String) json.get("url"), cookies, localStorage);
+    }
+}
@@ -0,0 +1,72 @@
+package com.rentadsearchqa.validation;
+
+/**
+ * Open-addressing hash map from primitive ad ids to primitive locations.
+ *
+ * Used for duplicate detection across result pages: each id costs two longs,
+ * with no boxing and no references to the ad cards it came from.
+ * Locations must be non-zero; zero marks an empty slot.
+ */
+final class AdIdIndex {
+
+    private long[] ids;
+    private long[] locations;
+    private int size;
+
+    AdIdIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.ids = new long[capacity];
+        this.locations = new long[capacity];
+    }
+
+    /**
+     * Store the location of an id unless the id is already present
+     *
+     * @param id The ad id
+     * @param location The non-zero location to store
+     * @return The location stored earlier for the id, or 0 if the id is new
+     */
+    long putIfAbsent(long id, long location) {
+        int mask = ids.length - 1;
+        int slot = mix(id) & mask;
+        while (locations[slot] != 0) {
+            if (ids[slot] == id) {
+                return locations[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        locations[slot] = location;
+        if (++size * 2 > ids.length) {
+            grow();
+        }
+        return 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldIds = ids;
+        long[] oldLocations = locations;
+        ids = new long[oldIds.length * 2];
+        locations = new long[oldIds.length * 2];
+        int mask = ids.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldLocations[i] != 0) {
+                int slot = mix(oldIds[i]) & mask;
+                while (locations[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                ids[slot] = oldIds[i];
+                locations[slot] = oldLocations[i];
+            }
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,239 @@
+package com.rentadsearchqa.validation;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Extracts prices and sizes from displayed text into primitive values.
+ *
+ * Text is scanned character by character, with no regex and no intermediate strings.
+ * Values are returned as fixed-point hundredths, so "1.200 €" gives 120000 and
+ * "85,5 τ.μ." gives 8550. A number is found next to its unit (before it, or right after
+ * it for prefixed currencies such as "€ 650"). Dots, commas, non-breaking spaces and
+ * the separators of the locale are recognised: a separator followed by exactly three
+ * digits groups thousands ("1.200", "1,200"), any other dot or comma is the
+ * decimal point ("85,5", "85.5").
+ *
+ * Text that has the unit but no valid number, or no unit at all, is reported
+ * with a {@link NumberFormatException} rather than skipped.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class NumericExtractor {
+
+    /**
+     * Extractor for text formatted as on xe.gr, e.g. "1.200 €" and "85,5 τ.μ."
+     */
+    public static final NumericExtractor GREEK = new NumericExtractor('.', ',');
+
+    public static final long HUNDREDTHS = 100;
+
+    /**
+     * Units the extractor locates numbers by
+     */
+    public enum Unit {
+        EUROS("€"),
+        SQUARE_METERS("τ.μ", "m²");
+
+        private final String[] suffixes;
+
+        Unit(String... suffixes) {
+            this.suffixes = suffixes;
+        }
+    }
+
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+
+    /**
+     * Constructor for NumericExtractor
+     *
+     * @param groupingSeparator Thousands separator of the locale (e.g. '.')
+     * @param decimalSeparator Decimal separator of the locale (e.g. ',')
+     */
+    public NumericExtractor(char groupingSeparator, char decimalSeparator) {
+        this.groupingSeparator = groupingSeparator;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * Get an extractor using the separators of a locale
+     *
+     * @param locale The locale the site formats numbers in
+     * @return The extractor
+     */
+    public static NumericExtractor forLocale(Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        return new NumericExtractor(symbols.getGroupingSeparator(), symbols.getDecimalSeparator());
+    }
+
+    /**
+     * Extract the value next to a unit, in hundredths
+     *
+     * @param text The displayed text (e.g. "1.200 €")
+     * @param unit The unit that marks the number
+     * @return The value multiplied by 100
+     * @throws NumberFormatException If the unit or a valid number next to it is missing
+     */
+    public long extractHundredths(CharSequence text, Unit unit) {
+        int unitAt = -1;
+        int unitLength = 0;
+        for (String suffix : unit.suffixes) {
+            int at = indexOf(text, suffix);
+            if (at >= 0 && (unitAt < 0 || at < unitAt)) {
+                unitAt = at;
+                unitLength = suffix.length();
+            }
+        }
+        if (unitAt < 0) {
+            throw failure(text, unit, "no unit");
+        }
+
+        // Number before the unit ("650 €"), else right after it ("€ 650")
+        int end = skipSpaceBackward(text, unitAt);
+        int start = end;
+        while (start > 0 && isNumberChar(text.charAt(start - 1))) {
+            start--;
+        }
+        if (start == end) {
+            start = skipSpaceForward(text, unitAt + unitLength);
+            end = start;
+            while (end < text.length() && isNumberChar(text.charAt(end))) {
+                end++;
+            }
+        }
+        return parse(text, start, end, unit);
+    }
+
+    /**
+     * Extract the value next to a unit, rounded to a whole number
+     *
+     * @param text The displayed text
+     * @param unit The unit that marks the number
+     * @return The value, rounded half up
+     * @throws NumberFormatException If the unit or a valid number next to it is missing
+     */
+    public long extractWhole(CharSequence text, Unit unit) {
+        return (extractHundredths(text, unit) + HUNDREDTHS / 2) / HUNDREDTHS;
+    }
+
+    /**
+     * Format a value in hundredths for messages, without trailing zero decimals (e.g. "1200", "85.5")
+     *
+     * @param hundredths The value multiplied by 100
+     * @return The formatted value
+     */
+    public static String format(long hundredths) {
+        long whole = hundredths / HUNDREDTHS;
+        long fraction = Math.abs(hundredths % HUNDREDTHS);
+        if (fraction == 0) {
+            return Long.toString(whole);
+        }
+        return whole + "." + (fraction % 10 == 0 ? Long.toString(fraction / 10) : (fraction < 10 ? "0" : "") + fraction);
+    }
+
+    /**
+     * Parse digits with grouping and decimal separators between start and end
+     */
+    private long parse(CharSequence text, int start, int end, Unit unit) {
+        // Separators at the edges belong to the surrounding text, e.g. "1.200, €"
+        while (start < end && !isDigit(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && !isDigit(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            throw failure(text, unit, "no number");
+        }
+
+        long whole = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (!inFraction) {
+                    whole = whole * 10 + (c - '0');
+                    if (whole > Long.MAX_VALUE / (HUNDREDTHS * 10)) {
+                        throw failure(text, unit, "value too large");
+                    }
+                } else if (fractionDigits < 3) {
+                    // The third decimal is only kept for rounding
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                }
+            } else if (!inFraction && isThousandsGroup(text, i, end)) {
+                continue;
+            } else if (!inFraction && !isSpace(c)) {
+                inFraction = true;
+            } else {
+                throw failure(text, unit, "unexpected '" + c + "'");
+            }
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        } else if (fractionDigits == 3) {
+            fraction = (fraction + 5) / 10;
+        }
+        return whole * HUNDREDTHS + fraction;
+    }
+
+    /**
+     * Whether the separator at index is followed by exactly three digits, then the end
+     * of the number or another separator
+     */
+    private static boolean isThousandsGroup(CharSequence text, int index, int end) {
+        return index + 4 <= end && isDigit(text.charAt(index + 1)) && isDigit(text.charAt(index + 2))
+                && isDigit(text.charAt(index + 3)) && (index + 4 == end || !isDigit(text.charAt(index + 4)));
+    }
+
+    private boolean isNumberChar(char c) {
+        return isDigit(c) || c == '.' || c == ',' || c == groupingSeparator || c == decimalSeparator || isSpace(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Non-breaking spaces group thousands in several locales; plain spaces separate words
+     */
+    private static boolean isSpace(char c) {
+        return c == '\u00A0' || c == '\u202F';
+    }
+
+    private static int skipSpaceBackward(CharSequence text, int index) {
+        while (index > 0 && (Character.isWhitespace(text.charAt(index - 1)) || isSpace(text.charAt(index - 1)))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int skipSpaceForward(CharSequence text, int index) {
+        while (index < text.length() && (Character.isWhitespace(text.charAt(index)) || isSpace(text.charAt(index)))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int indexOf(CharSequence text, String token) {
+        int last = text.length() - token.length();
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < token.length(); j++) {
+                if (text.charAt(i + j) != token.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static NumberFormatException failure(CharSequence text, Unit unit, String reason) {
+        return new NumberFormatException("Cannot read " + unit.name().toLowerCase(Locale.ROOT).replace('_', ' ')
+                + " from '" + text + "': " + reason);
+    }
+}
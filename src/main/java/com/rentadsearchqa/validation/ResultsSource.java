@@ -0,0 +1,32 @@
+package com.rentadsearchqa.validation;
+
+import com.rentadsearchqa.models.AdCard;
+
+import java.util.List;
+
+/**
+ * Source of paginated results data for page-at-a-time validation.
+ *
+ * Implementations decide how a whole page is obtained; {@link ResultsValidator#validate}
+ * walks the pages in order. The browserless HttpResultsEngine is the implementation.
+ * The browser flow does not go through this interface: properties.filterAndValidateResults
+ * reads pages batch by batch while they lazy-load, fans them out over pooled sessions or
+ * prefetches them, and feeds the same {@link StreamingResultsValidator} directly.
+ */
+public interface ResultsSource {
+
+    /**
+     * Get the number of results pages
+     *
+     * @return The page count, at least 1
+     */
+    int getPageCount();
+
+    /**
+     * Load the ad cards of a results page
+     *
+     * @param page The page number, 1-based
+     * @return The ad cards of the page in display order
+     */
+    List<AdCard> loadPage(int page);
+}
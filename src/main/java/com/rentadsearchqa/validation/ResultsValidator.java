@@ -0,0 +1,61 @@
+package com.rentadsearchqa.validation;
+
+import com.rentadsearchqa.models.AdCard;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates filtered results page by page, independent of how the pages are loaded.
+ *
+ * The browser flow in properties.filterAndValidateResults and browserless engines
+ * share {@link #start(List)}, so every engine applies the same image, price, sort,
+ * size and duplicate rules, within and across pages. Browserless engines hand over a
+ * {@link ResultsSource} to {@link #validate(ResultsSource, List)}; the browser flow
+ * feeds the streaming validator itself, batch by batch. The image limit is checked on the
+ * image count of each {@link AdCard}, read from its card together with price and size.
+ */
+public class ResultsValidator {
+
+    /**
+     * Validate every page of a results source
+     *
+     * @param source The results to validate
+     * @param filters List of filter maps with "title" ("price" or "size"), "min" and "max"
+     * @return The number of pages validated
+     * @throws AssertionError If any ad doesn't meet the rules
+     */
+    public int validate(ResultsSource source, List<Map<String, String>> filters) {
+        StreamingResultsValidator run = start(filters);
+        int totalPages = source.getPageCount();
+        for (int page = 1; page <= totalPages; page++) {
+            List<AdCard> adCards = source.loadPage(page);
+            run.acceptPage(page, adCards, imageCounts(adCards));
+        }
+        return totalPages;
+    }
+
+    /**
+     * Start validating a result set whose pages are fed one by one
+     *
+     * @param filters List of filter maps with "title" ("price" or "size"), "min" and "max"
+     * @return A validator that checks each page and the rules spanning pages
+     */
+    public StreamingResultsValidator start(List<Map<String, String>> filters) {
+        return new StreamingResultsValidator(filters, NumericExtractor.GREEK);
+    }
+
+    /**
+     * Collect the image counts of ad cards
+     *
+     * @param adCards The ad cards
+     * @return Image count per card, in the same order
+     */
+    public static int[] imageCounts(List<AdCard> adCards) {
+        int[] counts = new int[adCards.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = adCards.get(i).getImageCount();
+        }
+        return counts;
+    }
+}
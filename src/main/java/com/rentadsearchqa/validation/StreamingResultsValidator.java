@@ -0,0 +1,237 @@
+package com.rentadsearchqa.validation;
+
+import com.rentadsearchqa.models.AdCard;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates a whole result set page by page, including the rules that span pages.
+ *
+ * Pages are fed in order with {@link #acceptPage(int, List, int[])}, or in several
+ * batches per page with {@link #acceptBatch(int, List, int[])}. Only primitive
+ * state is kept between pages: the last price and where it was seen, the running
+ * minimum and maximum price, and a hash index of ad ids. This catches a price drop
+ * at a page boundary and the same ad listed on two pages without holding on to
+ * cards, strings or WebElements. Violations fail fast with an AssertionError naming
+ * the page and the position of the ad on it.
+ *
+ * One instance validates one result set and is not thread-safe.
+ */
+public class StreamingResultsValidator {
+
+    public static final int MAX_IMAGES_PER_AD = 30;
+
+    private static final long NO_LIMIT_MIN = Long.MIN_VALUE;
+    private static final long NO_LIMIT_MAX = Long.MAX_VALUE;
+
+    private final NumericExtractor extractor;
+    private final long minPrice;
+    private final long maxPrice;
+    private final long minSize;
+    private final long maxSize;
+    private final boolean checkPrices;
+    private final AdIdIndex adIds = new AdIdIndex(1024);
+
+    private long lastPrice = Long.MIN_VALUE;
+    private long lastPriceLocation;
+    private long lowestPrice = Long.MAX_VALUE;
+    private long highestPrice = Long.MIN_VALUE;
+    private int adCount;
+    private int lastPage;
+    private int pageAdCount;
+
+    /**
+     * Constructor for StreamingResultsValidator
+     *
+     * @param filters List of filter maps with "title" ("price" or "size"), "min" and "max"
+     * @param extractor Extractor for the number format of the site
+     */
+    public StreamingResultsValidator(List<Map<String, String>> filters, NumericExtractor extractor) {
+        this.extractor = extractor;
+        long priceMin = NO_LIMIT_MIN;
+        long priceMax = NO_LIMIT_MAX;
+        long sizeMin = NO_LIMIT_MIN;
+        long sizeMax = NO_LIMIT_MAX;
+        boolean prices = false;
+        for (Map<String, String> filter : filters) {
+            if (filter.get("title").equals("price")) {
+                priceMin = Integer.parseInt(filter.get("min")) * NumericExtractor.HUNDREDTHS;
+                priceMax = Integer.parseInt(filter.get("max")) * NumericExtractor.HUNDREDTHS;
+                prices = true;
+            }
+            if (filter.get("title").equals("size")) {
+                sizeMin = Integer.parseInt(filter.get("min")) * NumericExtractor.HUNDREDTHS;
+                sizeMax = Integer.parseInt(filter.get("max")) * NumericExtractor.HUNDREDTHS;
+            }
+        }
+        this.minPrice = priceMin;
+        this.maxPrice = priceMax;
+        this.minSize = sizeMin;
+        this.maxSize = sizeMax;
+        this.checkPrices = prices;
+    }
+
+    /**
+     * Validate the next page of the result set
+     *
+     * @param page The 1-based page number; pages must be fed in ascending order
+     * @param adCards The ad cards of the page, in page order
+     * @param imageCounts Image count per ad, in page order
+     * @throws AssertionError If an ad breaks a rule on this page or against an earlier page
+     */
+    public void acceptPage(int page, List<AdCard> adCards, int[] imageCounts) {
+        if (page <= lastPage) {
+            throw new IllegalArgumentException("Page " + page + " fed after page " + lastPage);
+        }
+        acceptBatch(page, adCards, imageCounts);
+    }
+
+    /**
+     * Validate the next batch of ads. Batches of one page continue its ad numbering;
+     * a batch for a higher page number starts that page.
+     *
+     * @param page The 1-based page number of the batch; must not be lower than the previous batch
+     * @param adCards The ad cards of the batch, in page order
+     * @param imageCounts Image count per ad of the batch, in page order
+     * @throws AssertionError If an ad breaks a rule within the result set read so far
+     */
+    public void acceptBatch(int page, List<AdCard> adCards, int[] imageCounts) {
+        if (page < lastPage) {
+            throw new IllegalArgumentException("Page " + page + " fed after page " + lastPage);
+        }
+        if (page > lastPage) {
+            lastPage = page;
+            pageAdCount = 0;
+        }
+        for (int i = 0; i < adCards.size(); i++) {
+            AdCard card = adCards.get(i);
+            long location = location(page, pageAdCount);
+            if (i < imageCounts.length && imageCounts[i] > MAX_IMAGES_PER_AD) {
+                throw new AssertionError("Property has " + imageCounts[i] + " images, which exceeds the limit of "
+                        + MAX_IMAGES_PER_AD + describe(location));
+            }
+            checkDuplicate(card.getAdId(), location);
+            if (checkPrices && !card.getRawPrice().isEmpty()) {
+                checkPrice(read(card.getRawPrice(), NumericExtractor.Unit.EUROS, "price", location), location);
+            }
+            if ((minSize != NO_LIMIT_MIN || maxSize != NO_LIMIT_MAX) && !card.getRawSize().isEmpty()) {
+                long size = read(card.getRawSize(), NumericExtractor.Unit.SQUARE_METERS, "size", location);
+                if (size < minSize || size > maxSize) {
+                    throw new AssertionError("Property size " + NumericExtractor.format(size) + " not in range "
+                            + NumericExtractor.format(minSize) + "-" + NumericExtractor.format(maxSize)
+                            + describe(location));
+                }
+            }
+            pageAdCount++;
+            adCount++;
+        }
+    }
+
+    /**
+     * Get the number of ads validated so far
+     *
+     * @return The ad count
+     */
+    public int getAdCount() {
+        return adCount;
+    }
+
+    /**
+     * Get the number of distinct ad ids seen so far
+     *
+     * @return The count of distinct ids, ads without an id excluded
+     */
+    public int getDistinctAdIds() {
+        return adIds.size();
+    }
+
+    /**
+     * Get the lowest price seen so far, in hundredths
+     *
+     * @return The lowest price, or Long.MAX_VALUE if no price was read
+     */
+    public long getLowestPrice() {
+        return lowestPrice;
+    }
+
+    /**
+     * Get the highest price seen so far, in hundredths
+     *
+     * @return The highest price, or Long.MIN_VALUE if no price was read
+     */
+    public long getHighestPrice() {
+        return highestPrice;
+    }
+
+    private void checkPrice(long price, long location) {
+        if (price < minPrice || price > maxPrice) {
+            throw new AssertionError("Property price " + NumericExtractor.format(price) + " not in range "
+                    + NumericExtractor.format(minPrice) + "-" + NumericExtractor.format(maxPrice) + describe(location));
+        }
+        if (price < lastPrice) {
+            throw new AssertionError("Property prices are not sorted ascending. Price "
+                    + NumericExtractor.format(price) + describe(location) + " is less than previous price "
+                    + NumericExtractor.format(lastPrice) + describe(lastPriceLocation));
+        }
+        lastPrice = price;
+        lastPriceLocation = location;
+        lowestPrice = Math.min(lowestPrice, price);
+        highestPrice = Math.max(highestPrice, price);
+    }
+
+    private void checkDuplicate(String adId, long location) {
+        if (adId.isEmpty()) {
+            return;
+        }
+        long firstSeen = adIds.putIfAbsent(idKey(adId), location);
+        if (firstSeen != 0) {
+            throw new AssertionError("Property " + adId + describe(location) + " was already listed"
+                    + describe(firstSeen));
+        }
+    }
+
+    private long read(String text, NumericExtractor.Unit unit, String name, long location) {
+        try {
+            return extractor.extractHundredths(text, unit);
+        } catch (NumberFormatException e) {
+            throw new AssertionError("Property has an unreadable " + name + describe(location) + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Numeric ids are used as they are; other ids are reduced to a 64-bit FNV-1a hash
+     */
+    private static long idKey(String adId) {
+        long numeric = 0;
+        int length = adId.length();
+        if (length <= 18) {
+            int i = 0;
+            while (i < length && adId.charAt(i) >= '0' && adId.charAt(i) <= '9') {
+                numeric = numeric * 10 + (adId.charAt(i) - '0');
+                i++;
+            }
+            if (i == length) {
+                return numeric;
+            }
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ adId.charAt(i)) * 0x100000001b3L;
+        }
+        // Keep hashed ids apart from numeric ones
+        return hash | Long.MIN_VALUE;
+    }
+
+    /**
+     * Pack a page and 0-based index into a non-zero location
+     */
+    private static long location(int page, int index) {
+        return ((long) page << 32) | (index + 1L);
+    }
+
+    private static String describe(long location) {
+        return " on page " + (location >>> 32) + ", ad " + (location & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,213 @@
+(function () {
+    'use strict';
+
+    function onReady(callback) {
+        if (document.readyState === 'loading') {
+            document.addEventListener('DOMContentLoaded', callback);
+        } else {
+            callback();
+        }
+    }
+
+    // ===== COOKIE CONSENT =====
+    function setupConsent() {
+        var banner = document.getElementById('cookie-banner');
+        if (!banner) {
+            return;
+        }
+        if (document.cookie.indexOf('consent=1') >= 0) {
+            banner.remove();
+            return;
+        }
+        document.getElementById('accept-btn').addEventListener('click', function () {
+            document.cookie = 'consent=1; path=/; max-age=31536000';
+            banner.remove();
+        });
+    }
+
+    // ===== SEARCH PAGE =====
+    function setupSearch() {
+        var form = document.getElementById('search-form');
+        if (!form) {
+            return;
+        }
+        var input = form.querySelector("input[data-testid='area-search-input']");
+        var dropdown = document.getElementById('dropdown');
+        var tags = document.getElementById('area-tags');
+        var selected = [];
+        var requestId = 0;
+
+        input.addEventListener('input', function () {
+            var query = input.value.trim();
+            var current = ++requestId;
+            if (!query) {
+                dropdown.innerHTML = '';
+                return;
+            }
+            fetch('/api/autocomplete?q=' + encodeURIComponent(query))
+                .then(function (response) { return response.json(); })
+                .then(function (areas) {
+                    if (current !== requestId) {
+                        return;
+                    }
+                    dropdown.innerHTML = '';
+                    areas.forEach(function (area) {
+                        var option = document.createElement('button');
+                        option.type = 'button';
+                        option.setAttribute('data-testid', 'dropdown_option');
+                        option.textContent = area.name;
+                        option.addEventListener('click', function () {
+                            if (selected.indexOf(area.id) < 0) {
+                                selected.push(area.id);
+                                var tag = document.createElement('button');
+                                tag.type = 'button';
+                                tag.className = 'area-tag-button';
+                                tag.textContent = area.name;
+                                tags.appendChild(tag);
+                            }
+                            input.value = '';
+                            dropdown.innerHTML = '';
+                        });
+                        dropdown.appendChild(option);
+                    });
+                });
+        });
+
+        form.addEventListener('submit', function (event) {
+            event.preventDefault();
+            var query = 'transaction_name=rent&item_type=re_residence';
+            selected.forEach(function (id) {
+                query += '&' + encodeURIComponent('geo_place_ids[]') + '=' + encodeURIComponent(id);
+            });
+            window.location.href = '/property/results?' + query;
+        });
+    }
+
+    // ===== RESULTS PAGE =====
+    function navigateWith(params) {
+        var search = new URLSearchParams(window.location.search);
+        Object.keys(params).forEach(function (name) {
+            if (params[name] === null || params[name] === '') {
+                search.delete(name);
+            } else {
+                search.set(name, params[name]);
+            }
+        });
+        search.delete('page');
+        window.location.href = window.location.pathname + '?' + search.toString();
+    }
+
+    function setupFilters() {
+        var panel = document.getElementById('filter-panel');
+        if (!panel) {
+            return;
+        }
+        var priceGroup = document.getElementById('price-group');
+        var sizeGroup = document.getElementById('size-group');
+        document.querySelector("button[data-testid='price-filter-button']").addEventListener('click', function () {
+            panel.hidden = false;
+            priceGroup.hidden = false;
+            sizeGroup.hidden = true;
+        });
+        document.querySelector("button[data-testid='size-filter-button']").addEventListener('click', function () {
+            panel.hidden = false;
+            priceGroup.hidden = true;
+            sizeGroup.hidden = false;
+        });
+        document.querySelector("button[data-testid='submit-input']").addEventListener('click', function () {
+            function value(testId) {
+                return panel.querySelector("input[data-testid='" + testId + "']").value.replace(/\D/g, '');
+            }
+            navigateWith({
+                minimum_price: value('minimum_price_input'),
+                maximum_price: value('maximum_price_input'),
+                minimum_size: value('minimum_size_input'),
+                maximum_size: value('maximum_size_input')
+            });
+        });
+        var options = document.getElementById('sort-options');
+        document.querySelector("button[data-testid='sorting-dropdown-button']").addEventListener('click', function () {
+            options.hidden = !options.hidden;
+        });
+        options.querySelector("button[data-id='price_asc']").addEventListener('click', function () {
+            navigateWith({ sorting: 'price_asc' });
+        });
+    }
+
+    function setupLazyLoading() {
+        var sentinel = document.getElementById('sentinel');
+        if (!sentinel) {
+            return;
+        }
+        var loading = false;
+        var observer = new IntersectionObserver(function (entries) {
+            if (!entries[0].isIntersecting || loading) {
+                return;
+            }
+            var offset = parseInt(sentinel.getAttribute('data-next-offset'), 10);
+            var end = parseInt(sentinel.getAttribute('data-page-end'), 10);
+            if (offset >= end) {
+                observer.disconnect();
+                return;
+            }
+            loading = true;
+            var limit = Math.min(parseInt(sentinel.getAttribute('data-batch'), 10), end - offset);
+            var search = window.location.search ? window.location.search + '&' : '?';
+            fetch('/api/ads' + search + 'offset=' + offset + '&limit=' + limit)
+                .then(function (response) { return response.text(); })
+                .then(function (html) {
+                    sentinel.insertAdjacentHTML('beforebegin', html);
+                    sentinel.setAttribute('data-next-offset', String(offset + limit));
+                    loading = false;
+                    // Re-observe so a sentinel that is still visible triggers the next batch
+                    observer.unobserve(sentinel);
+                    observer.observe(sentinel);
+                });
+        }, { rootMargin: '200px' });
+        observer.observe(sentinel);
+    }
+
+    function setupPhoneDialog() {
+        var results = document.getElementById('results');
+        if (!results) {
+            return;
+        }
+        var modal = null;
+        results.addEventListener('click', function (event) {
+            var price = event.target.closest("[data-testid$='-ad-price']");
+            if (!price || modal) {
+                return;
+            }
+            modal = document.createElement('div');
+            modal.className = 'ad-modal';
+            modal.innerHTML = '<p>' + price.textContent + '</p>'
+                + '<button type="button" data-testid="call-action-button">Εμφάνιση τηλεφώνου</button>';
+            modal.querySelector("button[data-testid='call-action-button']").addEventListener('click', function () {
+                if (!modal.querySelector("[data-testid='phones']")) {
+                    modal.insertAdjacentHTML('beforeend', '<div data-testid="phones">210 000 0000</div>');
+                }
+            });
+            document.body.appendChild(modal);
+        });
+        document.addEventListener('keydown', function (event) {
+            if (event.key !== 'Escape' || !modal) {
+                return;
+            }
+            var phones = modal.querySelector("[data-testid='phones']");
+            if (phones) {
+                phones.remove();
+            } else {
+                modal.remove();
+                modal = null;
+            }
+        });
+    }
+
+    onReady(function () {
+        setupConsent();
+        setupSearch();
+        setupFilters();
+        setupLazyLoading();
+        setupPhoneDialog();
+    });
+})();
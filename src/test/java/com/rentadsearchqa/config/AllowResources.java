@@ -0,0 +1,31 @@
+package com.rentadsearchqa.config;
+
+import com.rentadsearchqa.network.ResourceType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets a test load resources that the blocking profile (-Dblock.profile) would block,
+ * e.g. {@code @AllowResources(types = ResourceType.IMAGE)} for a test that counts images.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllowResources {
+
+    /**
+     * Resource types to allow; empty allows every type of the given URLs
+     *
+     * @return The allowed resource types
+     */
+    ResourceType[] types() default {};
+
+    /**
+     * URL patterns with '*' wildcards to allow; empty allows the types from any URL
+     *
+     * @return The allowed URL patterns
+     */
+    String[] urls() default {};
+}
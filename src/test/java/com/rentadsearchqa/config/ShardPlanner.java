@@ -0,0 +1,184 @@
+package com.rentadsearchqa.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Splits tests over shards by their recorded durations.
+ *
+ * Tests are assigned longest first, each to the shard with the least work so far
+ * (longest-processing-time balancing). Ties are broken by test name and shard index, so
+ * every worker computes the same plan from the same history. Tests without history are
+ * assumed to take the median recorded duration, or {@link #DEFAULT_MILLIS} without any.
+ *
+ * The history is a directory of properties files, one per shard of a run, mapping test
+ * names to milliseconds. Each shard writes only its own file, so workers on different
+ * machines never write the same file; collect the files of all workers into one directory
+ * for the next run. When a test appears in several files, the newest file wins.
+ */
+public class ShardPlanner {
+
+    public static final long DEFAULT_MILLIS = 1000;
+
+    // Weight of the latest run when updating a recorded duration
+    private static final double LATEST_RUN_WEIGHT = 0.5;
+
+    private final Map<String, Long> history;
+    private final long fallbackMillis;
+
+    /**
+     * Constructor for ShardPlanner
+     *
+     * @param history Recorded duration in milliseconds per test name
+     */
+    public ShardPlanner(Map<String, Long> history) {
+        this.history = new HashMap<>(history);
+        this.fallbackMillis = median(history.values());
+    }
+
+    /**
+     * Load the recorded durations of every shard file in a history directory
+     *
+     * @param directory The history directory; a missing directory means no history
+     * @return Duration in milliseconds per test name
+     * @throws UncheckedIOException If the directory cannot be read
+     */
+    public static Map<String, Long> loadHistory(Path directory) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return durations;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.properties")) {
+            stream.forEach(files::add);
+            // Oldest first, so newer files overwrite what they share with older ones
+            files.sort((a, b) -> lastModified(a).compareTo(lastModified(b)));
+            for (Path file : files) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(file)) {
+                    properties.load(in);
+                }
+                for (String test : properties.stringPropertyNames()) {
+                    try {
+                        durations.put(test, Long.parseLong(properties.getProperty(test).trim()));
+                    } catch (NumberFormatException e) {
+                        System.out.println("Ignoring duration of " + test + " in " + file + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read shard history " + directory, e);
+        }
+        return durations;
+    }
+
+    /**
+     * Write the durations measured by one shard, blended with the earlier recorded ones
+     *
+     * @param directory The history directory
+     * @param shardIndex The 0-based shard index
+     * @param shardCount The number of shards of the run
+     * @param measured Duration in milliseconds per test name measured in this run
+     * @param previous The history the run was planned with
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    public static void writeHistory(Path directory, int shardIndex, int shardCount,
+                                    Map<String, Long> measured, Map<String, Long> previous) {
+        Properties properties = new Properties();
+        long total = 0;
+        for (Map.Entry<String, Long> test : new TreeMap<>(measured).entrySet()) {
+            Long earlier = previous.get(test.getKey());
+            long duration = earlier == null ? test.getValue()
+                    : Math.round(LATEST_RUN_WEIGHT * test.getValue() + (1 - LATEST_RUN_WEIGHT) * earlier);
+            properties.setProperty(test.getKey(), Long.toString(duration));
+            total += test.getValue();
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("shard-" + (shardIndex + 1) + "-of-" + shardCount + ".properties");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "Test durations in ms, shard " + (shardIndex + 1) + " of " + shardCount
+                        + ", " + total + " ms in total");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write shard history " + directory, e);
+        }
+    }
+
+    /**
+     * Get the duration a test is expected to take
+     *
+     * @param test The test name
+     * @return The recorded duration, or the fallback for tests without history
+     */
+    public long expectedMillis(String test) {
+        Long recorded = history.get(test);
+        return recorded != null ? recorded : fallbackMillis;
+    }
+
+    /**
+     * Assign tests to shards
+     *
+     * @param tests The test names; duplicates are planned once
+     * @param shardCount The number of shards
+     * @return The shard index (0-based) of every test
+     */
+    public Map<String, Integer> assign(Collection<String> tests, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1");
+        }
+        List<String> ordered = new ArrayList<>(new TreeSet<>(tests));
+        ordered.sort((a, b) -> {
+            int byDuration = Long.compare(expectedMillis(b), expectedMillis(a));
+            return byDuration != 0 ? byDuration : a.compareTo(b);
+        });
+        long[] load = new long[shardCount];
+        Map<String, Integer> shards = new HashMap<>();
+        for (String test : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (load[shard] < load[lightest]) {
+                    lightest = shard;
+                }
+            }
+            load[lightest] += expectedMillis(test);
+            shards.put(test, lightest);
+        }
+        return shards;
+    }
+
+    /**
+     * Median of the recorded durations, used for tests without history
+     */
+    private static long median(Collection<Long> recorded) {
+        if (recorded.isEmpty()) {
+            return DEFAULT_MILLIS;
+        }
+        long[] durations = recorded.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(durations);
+        return durations[durations.length / 2];
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.rentadsearchqa.config;
+
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG listener that runs only this worker's share of the suite and records test durations.
+ *
+ * Start the same suite on N workers (JVMs or machines) with the same history directory:
+ * mvn test -Dshard.count=4 -Dshard.index=1   (and 2, 3, 4 on the other workers)
+ *
+ * Every worker plans the same split with {@link ShardPlanner} from the recorded durations and
+ * keeps the test methods assigned to its own index. Each &lt;test&gt; of testng.xml is split on
+ * its own. Test methods with a data provider are not planned as one unit: every worker runs
+ * them with its share of the rows (row i goes to shard i mod shard.count), so the data
+ * provider must return its rows in the same order on every worker.
+ *
+ * Sharded runs record the durations of the planned methods and write them when the suite
+ * finishes. A worker must not change the history its sibling workers plan from, so each
+ * writes its file to shard.history.out; copy those files of all workers into the history
+ * directory (e.g. the CI cache) for the next run, and the split improves with every run.
+ * Unsharded runs record nothing.
+ *
+ * Configured with system properties:
+ * - shard.count: number of workers (default 1, no sharding)
+ * - shard.index: this worker's shard, 1 to shard.count (default 1)
+ * - shard.history: directory of recorded durations (default target/shard-history)
+ * - shard.history.out: where a worker writes its durations (default target/shard-history-out)
+ */
+public class ShardingListener implements IMethodInterceptor, IDataProviderInterceptor, ITestListener, ISuiteListener {
+
+    public static final String COUNT_PROPERTY = "shard.count";
+    public static final String INDEX_PROPERTY = "shard.index";
+    public static final String HISTORY_PROPERTY = "shard.history";
+    public static final String HISTORY_OUT_PROPERTY = "shard.history.out";
+
+    private final int shardCount;
+    private final int shardIndex;
+    private final Path historyDirectory;
+    private final Path outputDirectory;
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private Map<String, Long> history;
+
+    /**
+     * Constructor for ShardingListener configured by system properties, as created by TestNG
+     */
+    public ShardingListener() {
+        this(System.getProperties());
+    }
+
+    /**
+     * Constructor for ShardingListener
+     *
+     * @param properties The shard settings, see the class description
+     */
+    public ShardingListener(Properties properties) {
+        this.shardCount = Integer.parseInt(properties.getProperty(COUNT_PROPERTY, "1").trim());
+        this.shardIndex = Integer.parseInt(properties.getProperty(INDEX_PROPERTY, "1").trim());
+        this.historyDirectory = Paths.get(properties.getProperty(HISTORY_PROPERTY, "target/shard-history"));
+        this.outputDirectory = Paths.get(properties.getProperty(HISTORY_OUT_PROPERTY, "target/shard-history-out"));
+    }
+
+    /**
+     * Check the shard settings and load the recorded durations before the suite runs
+     *
+     * @param suite The suite about to run
+     * @throws IllegalArgumentException If the shard index is outside 1 to shard.count
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        if (shardCount < 1 || shardIndex < 1 || shardIndex > shardCount) {
+            throw new IllegalArgumentException(INDEX_PROPERTY + " must be between 1 and " + COUNT_PROPERTY
+                    + " (" + shardCount + "): " + shardIndex);
+        }
+        history();
+    }
+
+    /**
+     * Keep the test methods of this shard, in their original order, and every data-driven method
+     *
+     * @param methods The test methods of one &lt;test&gt; about to run
+     * @param context The &lt;test&gt; context
+     * @return The methods assigned to this shard
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (shardCount == 1) {
+            return methods;
+        }
+        List<String> names = new ArrayList<>(methods.size());
+        for (IMethodInstance method : methods) {
+            if (!isDataDriven(method.getMethod())) {
+                names.add(method.getMethod().getQualifiedName());
+            }
+        }
+        ShardPlanner planner = new ShardPlanner(history());
+        Map<String, Integer> plan = planner.assign(names, shardCount);
+
+        List<IMethodInstance> kept = new ArrayList<>();
+        int dataDriven = 0;
+        long keptMillis = 0;
+        long totalMillis = 0;
+        for (IMethodInstance method : methods) {
+            if (isDataDriven(method.getMethod())) {
+                kept.add(method);
+                dataDriven++;
+                continue;
+            }
+            String name = method.getMethod().getQualifiedName();
+            long expected = planner.expectedMillis(name);
+            totalMillis += expected;
+            if (plan.get(name) == shardIndex - 1) {
+                kept.add(method);
+                keptMillis += expected;
+            }
+        }
+        System.out.println("Shard " + shardIndex + "/" + shardCount + " of '" + context.getName() + "': "
+                + (kept.size() - dataDriven) + " of " + names.size() + " tests, about " + keptMillis / 1000
+                + " s of " + totalMillis / 1000 + " s"
+                + (dataDriven > 0 ? ", and its rows of " + dataDriven + " data-driven tests" : ""));
+        return kept;
+    }
+
+    /**
+     * Keep the data provider rows of this shard: row i runs on shard i mod shard.count
+     *
+     * @param original The rows of the data provider
+     * @param dataProviderMethod The data provider
+     * @param method The test method the rows are for
+     * @param context The &lt;test&gt; context
+     * @return The rows of this shard, in their original order
+     */
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        if (shardCount == 1) {
+            return original;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int row = 0; original.hasNext(); row++) {
+            Object[] parameters = original.next();
+            if (row % shardCount == shardIndex - 1) {
+                rows.add(parameters);
+            }
+        }
+        return rows.iterator();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result);
+    }
+
+    /**
+     * Write this shard's measured durations to the output directory
+     *
+     * @param suite The suite that finished
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!measured.isEmpty()) {
+            ShardPlanner.writeHistory(outputDirectory, shardIndex - 1, shardCount, measured, history());
+        }
+    }
+
+    /**
+     * Add the time of one test invocation to its method's duration
+     *
+     * @param result The finished invocation
+     */
+    private void record(ITestResult result) {
+        if (shardCount == 1 || isDataDriven(result.getMethod())) {
+            return;
+        }
+        measured.merge(result.getMethod().getQualifiedName(),
+                result.getEndMillis() - result.getStartMillis(), Long::sum);
+    }
+
+    /**
+     * Whether a test method gets its parameters from a data provider
+     *
+     * @param method The test method
+     * @return True if its @Test, or the @Test of its class, names a data provider
+     */
+    private static boolean isDataDriven(ITestNGMethod method) {
+        Method javaMethod = method.getConstructorOrMethod().getMethod();
+        if (javaMethod == null) {
+            return false;
+        }
+        Test test = javaMethod.getAnnotation(Test.class);
+        if (test == null || test.dataProvider().isEmpty()) {
+            test = javaMethod.getDeclaringClass().getAnnotation(Test.class);
+        }
+        return test != null && !test.dataProvider().isEmpty();
+    }
+
+    private synchronized Map<String, Long> history() {
+        if (history == null) {
+            history = ShardPlanner.loadHistory(historyDirectory);
+        }
+        return history;
+    }
+}
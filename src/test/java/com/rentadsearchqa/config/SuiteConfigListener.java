@@ -0,0 +1,98 @@
+package com.rentadsearchqa.config;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * TestNG listener that applies the parallel execution settings of the suite.
+ * 
+ * The defaults come from the parallel/thread-count attributes of the suite and its tests in
+ * testng.xml and can be overridden per run with system properties, e.g.
+ * mvn test -Dsuite.parallel=classes -Dsuite.threadCount=8
+ * An override applies to every test of the suite, including tests with their own attributes,
+ * so it also opts the browser tests into parallel runs.
+ * 
+ * Parallel data providers run on their own pool, sized by data-provider-thread-count
+ * and overridden with -Dsuite.dataProviderThreadCount.
+ * 
+ * Supported modes are the TestNG ones: none, methods, classes, tests and instances.
+ */
+public class SuiteConfigListener implements IAlterSuiteListener {
+
+    public static final String PARALLEL_PROPERTY = "suite.parallel";
+    public static final String THREAD_COUNT_PROPERTY = "suite.threadCount";
+    public static final String DATA_PROVIDER_THREAD_COUNT_PROPERTY = "suite.dataProviderThreadCount";
+
+    private final Properties properties;
+
+    /**
+     * Constructor for SuiteConfigListener configured by system properties, as created by TestNG
+     */
+    public SuiteConfigListener() {
+        this(System.getProperties());
+    }
+
+    /**
+     * Constructor for SuiteConfigListener
+     *
+     * @param properties The suite overrides, see the class description
+     */
+    public SuiteConfigListener(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Apply the parallel mode and thread count overrides to every suite and its tests before it runs
+     * 
+     * @param suites The suites parsed from the TestNG configuration
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String parallel = properties.getProperty(PARALLEL_PROPERTY);
+        String threadCount = properties.getProperty(THREAD_COUNT_PROPERTY);
+        String dataProviderThreadCount = properties.getProperty(DATA_PROVIDER_THREAD_COUNT_PROPERTY);
+
+        for (XmlSuite suite : suites) {
+            if (parallel != null && !parallel.isBlank()) {
+                XmlSuite.ParallelMode mode = parseParallelMode(parallel);
+                suite.setParallel(mode);
+                suite.getTests().forEach(test -> test.setParallel(mode));
+            }
+            if (threadCount != null && !threadCount.isBlank()) {
+                int count = Integer.parseInt(threadCount.trim());
+                suite.setThreadCount(count);
+                suite.getTests().forEach(test -> test.setThreadCount(count));
+            }
+            if (dataProviderThreadCount != null && !dataProviderThreadCount.isBlank()) {
+                suite.setDataProviderThreadCount(Integer.parseInt(dataProviderThreadCount.trim()));
+            }
+            System.out.println("Suite '" + suite.getName() + "' runs with parallel=" + suite.getParallel()
+                    + ", thread-count=" + suite.getThreadCount()
+                    + ", data-provider-thread-count=" + suite.getDataProviderThreadCount());
+            for (XmlTest test : suite.getTests()) {
+                System.out.println("  Test '" + test.getName() + "' runs with parallel=" + test.getParallel()
+                        + ", thread-count=" + test.getThreadCount());
+            }
+        }
+    }
+
+    /**
+     * Parse a parallel mode name, rejecting unknown values instead of silently running serially
+     * 
+     * @param value The mode name (case-insensitive)
+     * @return The matching TestNG parallel mode
+     * @throws IllegalArgumentException If the value is not a TestNG parallel mode
+     */
+    static XmlSuite.ParallelMode parseParallelMode(String value) {
+        try {
+            return XmlSuite.ParallelMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported value for " + PARALLEL_PROPERTY + ": " + value, e);
+        }
+    }
+}
@@ -1,59 +1,313 @@
 package com.rentadsearchqa.config;
 
+import com.rentadsearchqa.grid.LocalGrid;
+import com.rentadsearchqa.grid.RemoteDriverFactory;
+import com.rentadsearchqa.network.BlockingRule;
+import com.rentadsearchqa.network.ResourceBlockingFilter;
+import com.rentadsearchqa.replay.RecordReplayFilter;
+import com.rentadsearchqa.replay.ReplayMode;
+import com.rentadsearchqa.replay.ResponseStore;
+import com.rentadsearchqa.standin.StandInServer;
+import com.rentadsearchqa.standin.SyntheticAdGenerator;
+import com.rentadsearchqa.utils.DriverBinaryResolver;
 import com.rentadsearchqa.utils.DriverContext;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.rentadsearchqa.utils.DriverFactory;
+import com.rentadsearchqa.utils.DriverPool;
+import com.rentadsearchqa.utils.SessionState;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
 
 import java.io.File;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base test class that provides WebDriver setup and teardown functionality.
  * This replaces the pytest fixtures from the Python version.
+ * 
+ * The driver is kept in the thread-local {@link DriverContext} rather than in a
+ * field, so one test class instance can safely run methods on several threads.
+ * 
+ * Browsers are leased from a {@link DriverPool} of warm sessions. Pool behaviour is
+ * configured with system properties:
+ * - pool.size: maximum number of browsers (defaults to the suite thread count, or the
+ *   data-provider thread count when a test has a parallel data provider, whichever is larger)
+ * - pool.maxUses: tests served by one browser before it is recycled (default 10, 1 disables reuse)
+ * - pool.prestart: browsers started in the background at suite start (default 0); the pool
+ *   then also replaces recycled browsers in the background
+ * 
+ * Browsers are started by a {@link DriverFactory}, on this machine by default or on a Selenium Grid:
+ * - grid.url: address of the Grid, or local to start a standalone {@link LocalGrid} from grid.jar
+ * - grid.readTimeout: seconds to wait for a Grid command, including session creation (default 120)
+ * 
+ * The site under test defaults to xe.gr and can be switched with:
+ * - base.url: any other deployment of the site
+ * - standin=true: a local {@link StandInServer} with synthetic ads, sized by
+ *   standin.ads (default 1000) and seeded by standin.seed (default 42)
+ * 
+ * Browser traffic can be recorded and replayed with a {@link RecordReplayFilter}:
+ * - replay.mode: off (default), record or replay
+ * - replay.store: directory of the {@link ResponseStore} (default recordings/default)
+ * - replay.latency: zero (default) or recorded
+ * 
+ * Requests the assertions do not need can be blocked with a {@link ResourceBlockingFilter}:
+ * - block.profile: off (default) or dom-only
+ * - block.urls / block.types: extra URL patterns and resource types to block
+ * Tests annotated with {@link AllowResources} load what they need regardless, and the
+ * blocked and allowed requests of every test are logged.
+ * 
+ * Browser state can be snapshotted with {@link SessionState} instead of replaying UI steps:
+ * - session.snapshot=true: the first session accepts cookie consent and captures its state;
+ *   later sessions restore it and skip the consent wait
+ * - session.snapshot.file: JSON file the consent state is loaded from and saved to across runs
+ * - session.snapshot.bannerWait: milliseconds a restored session waits for a late consent
+ *   banner before it is trusted to be consented (default 2000)
+ * Tests can also capture and restore named states, e.g. after an area search.
  */
 public class TestBase {
     
-    protected WebDriver driver;
+    private static DriverPool driverPool;
+    private static DriverFactory driverFactory;
+    private static LocalGrid localGrid;
+    private static Path chromeBinary;
+    private static StandInServer standInServer;
+    private static ResponseStore responseStore;
+    private static RecordReplayFilter recordReplayFilter;
+    private static List<BlockingRule> blockingRules = Collections.emptyList();
+    private static volatile SessionState consentState;
+    private static final Map<String, SessionState> namedStates = new ConcurrentHashMap<>();
+    // Each browser has its own blocking filter, so per-test overrides and counts stay with it
+    private static final Map<WebDriver, ResourceBlockingFilter> blockingFilters =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    
     protected String baseUrl;
     
     /**
      * Setup method that runs before the entire test suite.
-     * Configures WebDriverManager and clears driver cache.
+     * Resolves the pinned chromedriver and Chrome binaries (see {@link DriverBinaryResolver})
+     * unless the browsers run on a remote Grid, then creates the driver factory and pool.
+     * 
+     * @param context The TestNG context, used to size the pool after the suite thread count
      */
     @BeforeSuite
-    public void setupSuite() {
-        // Setup WebDriverManager and clear cache
-        WebDriverManager.chromedriver().clearDriverCache().setup();
+    public void setupSuite(ITestContext context) {
+        int poolSize = Integer.getInteger("pool.size", defaultPoolSize(context.getSuite()));
+        String gridUrl = System.getProperty("grid.url");
+        if (gridUrl == null || "local".equals(gridUrl)) {
+            // Use the pinned driver and browser, resolving them with WebDriverManager only when missing
+            chromeBinary = DriverBinaryResolver.forChrome().resolve().getBrowserPath();
+        }
+        driverFactory = createDriverFactory(gridUrl, poolSize);
+        if (Boolean.getBoolean("standin")) {
+            standInServer = new StandInServer(0, new SyntheticAdGenerator(
+                    Integer.getInteger("standin.ads", 1000), Long.getLong("standin.seed", 42L)));
+            System.out.println("Stand-in server started on " + standInServer.getBaseUrl());
+        }
+        setupBaseUrl();
+        if (ReplayMode.fromSystemProperty() != ReplayMode.OFF) {
+            responseStore = new ResponseStore(Paths.get(System.getProperty("replay.store", "recordings/default")));
+            recordReplayFilter = RecordReplayFilter.fromSystemProperties(responseStore);
+            System.out.println("Replay mode " + ReplayMode.fromSystemProperty() + " with "
+                    + responseStore.size() + " recorded responses");
+        }
+        blockingRules = ResourceBlockingFilter.rulesFromSystemProperties();
+        Path snapshotFile = snapshotFile();
+        if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+            consentState = SessionState.load(snapshotFile);
+            System.out.println("Session state loaded from " + snapshotFile);
+        }
+        
+        int maxUses = Integer.getInteger("pool.maxUses", 10);
+        driverPool = new DriverPool(poolSize, maxUses, this::setupChromeDriver, this::warmUpSession);
+        int prestart = Integer.getInteger("pool.prestart", 0);
+        if (prestart > 0) {
+            driverPool.prestart(Math.min(prestart, poolSize));
+        }
+    }
+    
+    /**
+     * Get the number of browsers the suite can use at once: the thread count of a parallel
+     * suite, raised to the data-provider thread count when a test has a parallel data provider
+     * 
+     * @param suite The suite about to run
+     * @return The default pool size
+     */
+    private static int defaultPoolSize(ISuite suite) {
+        XmlSuite xmlSuite = suite.getXmlSuite();
+        int size = xmlSuite.getParallel() == null || xmlSuite.getParallel() == XmlSuite.ParallelMode.NONE
+                ? 1 : xmlSuite.getThreadCount();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            if (hasParallelDataProvider(method.getConstructorOrMethod().getMethod())) {
+                return Math.max(size, xmlSuite.getDataProviderThreadCount());
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * Check whether a test method takes its rows from a parallel data provider
+     * 
+     * @param method The test method
+     * @return True if its @DataProvider is declared with parallel = true
+     */
+    private static boolean hasParallelDataProvider(Method method) {
+        Test test = method == null ? null : method.getAnnotation(Test.class);
+        if (test == null || test.dataProvider().isEmpty()) {
+            return false;
+        }
+        Class<?> providerClass = test.dataProviderClass() == Object.class
+                ? method.getDeclaringClass() : test.dataProviderClass();
+        for (Method candidate : providerClass.getMethods()) {
+            DataProvider provider = candidate.getAnnotation(DataProvider.class);
+            if (provider != null && test.dataProvider().equals(
+                    provider.name().isEmpty() ? candidate.getName() : provider.name())) {
+                return provider.parallel();
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Create the factory the pool starts browsers with
+     * 
+     * @param gridUrl The grid.url property: null for local browsers, local for a local Grid, or a Grid address
+     * @param poolSize The number of browsers the pool may run at once
+     * @return The driver factory
+     * @throws IllegalArgumentException If grid.url is not a valid URL
+     */
+    private static DriverFactory createDriverFactory(String gridUrl, int poolSize) {
+        if (gridUrl == null) {
+            return DriverFactory.local();
+        }
+        Duration readTimeout = Duration.ofSeconds(Integer.getInteger("grid.readTimeout", 120));
+        if ("local".equals(gridUrl)) {
+            localGrid = LocalGrid.fromSystemProperties(poolSize);
+            return new RemoteDriverFactory(localGrid.getUrl(), readTimeout);
+        }
+        try {
+            return new RemoteDriverFactory(new URL(gridUrl), readTimeout);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid grid.url: " + gridUrl, e);
+        }
     }
     
     /**
      * Setup method that runs before each test method.
-     * Initializes browser, navigates to base URL, handles cookies, and sets up driver context.
+     * Runs {@link #beforeLease(Method)}, leases a browser that is already on the base URL
+     * with cookies handled, applies the resource overrides of the test and sets up driver context.
+     * 
+     * @param method The test method about to run
      */
     @BeforeMethod
-    public void setupBrowser() {
-        setupChromeDriver();
+    public void setupBrowser(Method method) {
         setupBaseUrl();
-        navigateToBaseUrl();
-        handleCookieConsent();
-        setupDriverContext();
+        beforeLease(method);
+        WebDriver driver;
+        try {
+            driver = driverPool.lease();
+        } catch (RuntimeException e) {
+            afterRelease();
+            throw e;
+        }
+        ResourceBlockingFilter blockingFilter = blockingFilters.get(driver);
+        if (blockingFilter != null) {
+            blockingFilter.beginTest(resourceOverrides(method.getAnnotation(AllowResources.class)));
+        }
+        setupDriverContext(driver);
+    }
+    
+    /**
+     * Hook run on the test thread before a browser is leased for a test method, so anything
+     * waited for here also covers starting and warming up the browser; does nothing by default
+     * 
+     * @param method The test method about to run
+     */
+    protected void beforeLease(Method method) {
+    }
+    
+    /**
+     * Hook run on the test thread once the browser of a test method is back in the pool
+     * (reset and warmed up again), or when no browser could be leased; does nothing by default
+     */
+    protected void afterRelease() {
+    }
+    
+    /**
+     * Turn the {@link AllowResources} annotation of a test into allow rules
+     * 
+     * @param allow The annotation, or null if the test has none
+     * @return The allow rules, empty without annotation
+     */
+    private static List<BlockingRule> resourceOverrides(AllowResources allow) {
+        List<BlockingRule> overrides = new ArrayList<>();
+        if (allow == null) {
+            return overrides;
+        }
+        if (allow.urls().length == 0) {
+            overrides.add(BlockingRule.allow(null, allow.types()));
+        }
+        for (String url : allow.urls()) {
+            overrides.add(BlockingRule.allow(url, allow.types()));
+        }
+        return overrides;
+    }
+    
+    /**
+     * Get the WebDriver instance owned by the current test thread
+     * 
+     * @return The WebDriver for the running test method
+     */
+    protected WebDriver getDriver() {
+        return DriverContext.getInstance().getDriver();
+    }
+    
+    /**
+     * Get the pool of warm browser sessions, e.g. to spread results pages over extra sessions
+     * 
+     * @return The driver pool of the suite
+     */
+    protected DriverPool getDriverPool() {
+        return driverPool;
     }
     
     /**
-     * Setup Chrome browser for testing
+     * Setup Chrome browser for testing, locally or on the Grid depending on the driver factory
      * This replaces the browser fixture from conftest.py
+     * 
+     * @return The started WebDriver
      */
-    private void setupChromeDriver() {
+    private WebDriver setupChromeDriver() {
         ChromeOptions chromeOptions = new ChromeOptions();
         
         // Chrome options (equivalent to Python version)
@@ -65,12 +319,35 @@ public class TestBase {
         chromeOptions.addArguments("--disable-web-security");
         chromeOptions.addArguments("--allow-running-insecure-content");
         chromeOptions.addArguments("--disable-extensions");
+        if (chromeBinary != null) {
+            chromeOptions.setBinary(chromeBinary.toFile());
+        }
         
         try {
             // Setup Chrome driver with better error handling
-            driver = new ChromeDriver(chromeOptions);
+            WebDriver driver = driverFactory.create(chromeOptions);
             driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
             driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+            // Blocked requests never reach the record/replay filter
+            Filter networkFilter = null;
+            if (!blockingRules.isEmpty()) {
+                ResourceBlockingFilter blockingFilter = new ResourceBlockingFilter(blockingRules);
+                blockingFilters.put(driver, blockingFilter);
+                if (recordReplayFilter == null) {
+                    // Without record/replay, allowed responses stay out of the DevTools connection
+                    blockingFilter.install(((HasDevTools) driver).getDevTools());
+                } else {
+                    networkFilter = blockingFilter;
+                }
+            }
+            if (recordReplayFilter != null) {
+                networkFilter = networkFilter == null ? recordReplayFilter : networkFilter.andThen(recordReplayFilter);
+            }
+            if (networkFilter != null) {
+                // The interceptor lives as long as the browser's DevTools connection
+                new NetworkInterceptor(driver, networkFilter);
+            }
+            return driver;
         } catch (Exception e) {
             throw new RuntimeException("Could not start Chrome browser: " + e.getMessage(), e);
         }
@@ -78,25 +355,118 @@ public class TestBase {
     
     /**
      * Setup base URL for testing
-     * This sets the base URL for xe.gr website
+     * This sets the base URL for xe.gr website, the stand-in server or the base.url property
      */
     private void setupBaseUrl() {
-        baseUrl = "https://www.xe.gr/";
+        if (standInServer != null) {
+            baseUrl = standInServer.getBaseUrl();
+        } else {
+            baseUrl = System.getProperty("base.url", "https://www.xe.gr/");
+        }
     }
     
     /**
      * Navigate to base URL and maximize window
      * This replaces the setup_browser_test fixture from conftest.py
+     * 
+     * @param driver The browser to navigate
      */
-    private void navigateToBaseUrl() {
+    private void navigateToBaseUrl(WebDriver driver) {
         driver.get(baseUrl);
         driver.manage().window().maximize();
     }
     
+    /**
+     * Bring a new or reset session to the base URL with cookie consent handled.
+     * With -Dsession.snapshot=true the consent state is restored from the first session
+     * that accepted it; if the banner shows anyway (e.g. the consent expired), consent is
+     * accepted again and the snapshot replaced.
+     * 
+     * @param driver The browser to warm up
+     */
+    private void warmUpSession(WebDriver driver) {
+        SessionState state = consentState;
+        if (state != null && state.getUrl().startsWith(baseUrl)) {
+            state.restore(driver);
+            driver.manage().window().maximize();
+            if (!isConsentBannerShown(driver, Duration.ofMillis(Long.getLong("session.snapshot.bannerWait", 2000)))) {
+                return;
+            }
+        } else {
+            navigateToBaseUrl(driver);
+        }
+        handleCookieConsent(driver);
+        if (Boolean.getBoolean("session.snapshot")) {
+            consentState = SessionState.capture(driver);
+            Path snapshotFile = snapshotFile();
+            if (snapshotFile != null) {
+                consentState.save(snapshotFile);
+            }
+        }
+    }
+    
+    /**
+     * Get the file the consent state is kept in across runs
+     * 
+     * @return The -Dsession.snapshot.file path, or null if snapshots are off or kept in memory only
+     */
+    private static Path snapshotFile() {
+        String file = System.getProperty("session.snapshot.file");
+        return Boolean.getBoolean("session.snapshot") && file != null ? Paths.get(file) : null;
+    }
+    
+    /**
+     * Check whether the cookie consent banner is visible, waiting a little for a banner the
+     * consent script injects after the page has loaded
+     * 
+     * @param driver The browser to check
+     * @param timeout How long to wait for the banner
+     * @return True if the accept button is displayed within the timeout
+     */
+    private static boolean isConsentBannerShown(WebDriver driver, Duration timeout) {
+        try {
+            return new WebDriverWait(driver, timeout, Duration.ofMillis(100))
+                    .until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(
+                            "var button = document.getElementById('accept-btn');"
+                            + "return button !== null && button.offsetParent !== null;")));
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Capture the state of the current test's browser under a name, e.g. after an area search
+     * 
+     * @param name The name to restore the state by
+     * @return The captured state
+     */
+    protected SessionState captureSessionState(String name) {
+        SessionState state = SessionState.capture(getDriver());
+        namedStates.put(name, state);
+        return state;
+    }
+    
+    /**
+     * Fast-forward the current test's browser to a state captured earlier in the suite
+     * 
+     * @param name The name the state was captured under
+     * @return True if the state was restored, false if no state has that name yet
+     */
+    protected boolean restoreSessionState(String name) {
+        SessionState state = namedStates.get(name);
+        if (state == null) {
+            return false;
+        }
+        state.restore(getDriver());
+        return true;
+    }
+    
     /**
      * Handle cookie consent dialog by clicking accept button if it appears
+     * 
+     * @param driver The browser showing the consent dialog
      */
-    private void handleCookieConsent() {
+    private void handleCookieConsent(WebDriver driver) {
         try {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(5));
             WebElement acceptButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@id='accept-btn']")));
@@ -109,10 +479,12 @@ public class TestBase {
     }
     
     /**
-     * Set the driver in the global context
+     * Set the driver in the global context for the current thread
      * This replaces the driver context setup from conftest.py
+     * 
+     * @param driver The WebDriver started for this test method
      */
-    private void setupDriverContext() {
+    private void setupDriverContext(WebDriver driver) {
         DriverContext.getInstance().setDriver(driver);
     }
     
@@ -136,32 +508,63 @@ public class TestBase {
      */
     public void navigateToPath(String path) {
         String fullUrl = buildUrl(path);
-        driver.get(fullUrl);
+        getDriver().get(fullUrl);
     }
     
     /**
      * Teardown method that runs after each test method.
-     * Closes the browser and clears the driver context.
-     */
-    @AfterMethod
-    public void teardownBrowser() {
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-                System.err.println("Error during driver cleanup: " + e.getMessage());
+     * Logs the blocked and allowed requests of the test, returns the browser to the pool
+     * (recycling it if the test failed), clears the driver context and runs {@link #afterRelease()}.
+     * 
+     * @param result The result of the test method that just ran
+     */
+    @AfterMethod(alwaysRun = true)
+    public void teardownBrowser(ITestResult result) {
+        DriverContext context = DriverContext.getInstance();
+        try {
+            if (context.hasDriver()) {
+                ResourceBlockingFilter blockingFilter = blockingFilters.get(context.getDriver());
+                if (blockingFilter != null) {
+                    System.out.println("Requests of " + result.getMethod().getMethodName() + ": " + blockingFilter.report());
+                }
+                driverPool.release(context.getDriver(), result.getStatus() == ITestResult.FAILURE);
             }
+        } finally {
+            context.clearDriver();
+            afterRelease();
         }
-        DriverContext.getInstance().clearDriver();
     }
     
     /**
      * Teardown method that runs after the entire test suite.
-     * Performs additional cleanup if needed.
+     * Quits all browsers kept warm by the pool, closes the driver factory (logging Grid latency per node),
+     * stops the local Grid and the stand-in server and closes the response store.
      */
-    @AfterSuite
+    @AfterSuite(alwaysRun = true)
     public void teardownSuite() {
-        // Additional cleanup if needed
+        if (driverPool != null) {
+            driverPool.shutdown();
+        }
+        if (driverFactory != null) {
+            driverFactory.close();
+            driverFactory = null;
+        }
+        if (localGrid != null) {
+            localGrid.close();
+            localGrid = null;
+        }
+        if (standInServer != null) {
+            standInServer.close();
+            standInServer = null;
+        }
+        if (responseStore != null) {
+            if (recordReplayFilter.getMisses() > 0) {
+                System.out.println(recordReplayFilter.getMisses() + " requests had no recorded response, e.g.:");
+                recordReplayFilter.getMissedKeys().forEach(key -> System.out.println("  " + key));
+            }
+            responseStore.close();
+            responseStore = null;
+            recordReplayFilter = null;
+        }
     }
 }
@@ -0,0 +1,104 @@
+package tests;
+
+import com.rentadsearchqa.locators.components.AdCardBatches;
+import com.rentadsearchqa.locators.components.ResultsPage;
+import com.rentadsearchqa.models.AdCard;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for reading the ad cards of a results page batch by batch while it lazy-loads.
+ * The browser is a stand-in driver that loads a batch of cards per scroll step.
+ */
+public class AdCardBatchesTest {
+
+    /**
+     * Every batch must be read once, and reading must end when a step reaches the end of the page.
+     */
+    @Test
+    public void testBatchesAreReadUntilTheEndOfThePage() {
+        FakeLazyPage page = new FakeLazyPage(List.of(2, 3), true);
+        AdCardBatches batches = new ResultsPage(page.driver).streamAdCards("property");
+
+        List<AdCard> cards = new ArrayList<>();
+        batches.forEachRemaining(cards::addAll);
+
+        Assert.assertEquals(cards.size(), 5);
+        Assert.assertEquals(cards.get(4).getAdId(), "ad-4");
+        Assert.assertEquals(batches.getScrollSteps(), 2, "One step loads the second batch, one reaches the end");
+    }
+
+    /**
+     * A step that hits the scroll ceiling without the page settling must fail, naming the cards
+     * read and the steps taken, instead of ending the page with the cards read so far.
+     */
+    @Test
+    public void testScrollCeilingFailsThePage() {
+        FakeLazyPage page = new FakeLazyPage(List.of(2), false);
+        Iterator<List<AdCard>> batches = new ResultsPage(page.driver).streamAdCards("property");
+
+        Assert.assertEquals(batches.next().size(), 2);
+        AssertionError error = Assert.expectThrows(AssertionError.class, batches::hasNext);
+
+        Assert.assertEquals(error.getMessage(),
+                "Results page did not finish loading within the scroll ceiling (2 cards read after 1 scroll steps)");
+    }
+
+    /**
+     * Stand-in driver for a lazy-loading results page: the first batch is loaded at once and
+     * each settled scroll step loads the next one
+     */
+    private static final class FakeLazyPage {
+
+        private final WebDriver driver;
+        private final List<Map<String, Object>> loaded = new ArrayList<>();
+        private int batchesLoaded;
+
+        /**
+         * @param batchSizes The number of cards in each batch
+         * @param settles Whether scroll steps settle; if not, every step hits the ceiling
+         */
+        private FakeLazyPage(List<Integer> batchSizes, boolean settles) {
+            load(batchSizes);
+            WebDriver.Timeouts timeouts = Fakes.of(WebDriver.Timeouts.class, (method, args) ->
+                    method.equals("getScriptTimeout") ? Duration.ofMinutes(5) : Duration.ZERO);
+            WebDriver.Options options = Fakes.of(WebDriver.Options.class, (method, args) ->
+                    method.equals("timeouts") ? timeouts : null);
+            driver = Fakes.driver((method, args) -> {
+                switch (method) {
+                    case "manage":
+                        return options;
+                    case "executeScript":
+                        int from = ((Number) ((Object[]) args[1])[1]).intValue();
+                        return new ArrayList<>(loaded.subList(Math.min(from, loaded.size()), loaded.size()));
+                    case "executeAsyncScript":
+                        // Like the settle loop, a step that loads nothing new has reached the end
+                        boolean loadedMore = settles && load(batchSizes);
+                        return Map.of("iterations", 1L, "elapsed", 300L, "settled", settles, "items",
+                                (long) loaded.size(), "atEnd", settles && !loadedMore);
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private boolean load(List<Integer> batchSizes) {
+            if (batchesLoaded >= batchSizes.size()) {
+                return false;
+            }
+            for (int i = 0; i < batchSizes.get(batchesLoaded); i++) {
+                loaded.add(Map.of("id", "ad-" + loaded.size(), "title", "Διαμέρισμα 80 τ.μ.",
+                        "price", "500 €", "size", "80 τ.μ.", "images", 5L));
+            }
+            batchesLoaded++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package tests;
+
+import com.rentadsearchqa.utils.DriverBinaryResolver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test class for resolving driver binaries from a pinned, checksummed cache.
+ */
+public class DriverBinaryResolverTest {
+
+    private final String previousDriverProperty = System.getProperty("webdriver.chrome.driver");
+    private Path cache;
+
+    /**
+     * Restore the driver system property the resolver sets and delete the cache directory
+     */
+    @AfterMethod(alwaysRun = true)
+    public void restoreDriverProperty() throws IOException {
+        if (previousDriverProperty == null) {
+            System.clearProperty("webdriver.chrome.driver");
+        } else {
+            System.setProperty("webdriver.chrome.driver", previousDriverProperty);
+        }
+        if (cache != null) {
+            try (Stream<Path> files = Files.walk(cache)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * The first resolution must pin the binaries, later ones must use the pin without the
+     * fallback, and a binary that no longer matches its checksum must fail the run with a
+     * clear message instead of being resolved again.
+     */
+    @Test
+    public void testPinnedBinariesAreReusedUntilTheirChecksumChanges() throws IOException {
+        cache = Files.createTempDirectory("driver-cache");
+        Path driver = Files.createDirectories(cache.resolve("chromedriver/linux64/119.0")).resolve("chromedriver");
+        Path browser = Files.createDirectories(cache.resolve("chrome/linux64/119.0")).resolve("chrome");
+        Files.write(driver, "driver".getBytes(StandardCharsets.UTF_8));
+        Files.write(browser, "browser".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger fallbacks = new AtomicInteger();
+        DriverBinaryResolver resolver = new DriverBinaryResolver(cache, () -> {
+            fallbacks.incrementAndGet();
+            return new DriverBinaryResolver.Resolution(driver, browser, "119.0", false);
+        });
+
+        Assert.assertFalse(resolver.resolve().isPinned());
+        Assert.assertTrue(Files.readString(cache.resolve(DriverBinaryResolver.PIN_FILE))
+                .contains("driver.path=chromedriver/linux64/119.0/chromedriver"), "Paths in the cache stay relative");
+
+        DriverBinaryResolver.Resolution pinned = resolver.resolve();
+        Assert.assertTrue(pinned.isPinned());
+        Assert.assertEquals(pinned.getDriverPath(), driver);
+        Assert.assertEquals(pinned.getBrowserPath(), browser);
+        Assert.assertEquals(pinned.getDriverVersion(), "119.0");
+        Assert.assertEquals(System.getProperty("webdriver.chrome.driver"), driver.toString());
+        Assert.assertEquals(fallbacks.get(), 1);
+
+        Files.write(browser, "updated browser".getBytes(StandardCharsets.UTF_8));
+        IllegalStateException changed = Assert.expectThrows(IllegalStateException.class, resolver::resolve);
+        Assert.assertTrue(changed.getMessage().startsWith("Pinned browser " + browser + " changed since it was pinned"),
+                changed.getMessage());
+        Assert.assertTrue(changed.getMessage().contains("-Ddriver.refresh=true"), changed.getMessage());
+        Assert.assertEquals(fallbacks.get(), 1, "A broken pin must not go to the network");
+    }
+}
@@ -0,0 +1,103 @@
+package tests;
+
+import com.rentadsearchqa.config.SuiteConfigListener;
+import com.rentadsearchqa.utils.DriverContext;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Test class for the thread isolation of the driver context.
+ * 
+ * These tests do not start a browser; they use stub WebDriver instances to verify
+ * that parallel test threads never see each other's sessions.
+ */
+public class DriverContextTest {
+
+    /**
+     * Every thread stores its own driver, yields to the other threads and must
+     * read back exactly the driver it stored.
+     */
+    @Test(threadPoolSize = 8, invocationCount = 64)
+    public void testDriverIsIsolatedPerThread() throws InterruptedException {
+        DriverContext context = DriverContext.getInstance();
+        WebDriver own = Fakes.driver();
+
+        context.setDriver(own);
+        Thread.sleep(5);
+        Assert.assertSame(context.getDriver(), own, "Thread " + Thread.currentThread().getName()
+                + " received a driver set by another thread");
+
+        context.clearDriver();
+        Assert.assertFalse(context.hasDriver(), "Driver should be cleared for the current thread only");
+    }
+
+    /**
+     * A driver set on one thread must not be visible from a thread that never set one.
+     */
+    @Test
+    public void testDriverIsNotVisibleFromOtherThread() throws InterruptedException {
+        DriverContext context = DriverContext.getInstance();
+        context.setDriver(Fakes.driver());
+        boolean[] otherThreadHasDriver = {true};
+
+        Thread other = new Thread(() -> otherThreadHasDriver[0] = context.hasDriver());
+        other.start();
+        other.join();
+
+        context.clearDriver();
+        Assert.assertFalse(otherThreadHasDriver[0], "Driver leaked to a thread that never set one");
+    }
+
+    /**
+     * The suite listener applies the parallel mode and thread count overrides it is given.
+     */
+    @Test
+    public void testSuiteConfigListenerOverridesParallelMode() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("override");
+        Properties overrides = new Properties();
+        overrides.setProperty(SuiteConfigListener.PARALLEL_PROPERTY, "classes");
+        overrides.setProperty(SuiteConfigListener.THREAD_COUNT_PROPERTY, "6");
+
+        new SuiteConfigListener(overrides).alter(List.of(suite));
+
+        Assert.assertEquals(suite.getParallel(), XmlSuite.ParallelMode.CLASSES);
+        Assert.assertEquals(suite.getThreadCount(), 6);
+    }
+
+    /**
+     * Browser tests run sequentially by default while the framework tests run in parallel,
+     * and an override opts every test into it, whatever its own attributes.
+     */
+    @Test
+    public void testSuiteConfigListenerOverridesTestParallelMode() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("override");
+        suite.setParallel(XmlSuite.ParallelMode.NONE);
+        XmlTest browserTests = new XmlTest(suite);
+        browserTests.setName("Example Tests");
+        XmlTest frameworkTests = new XmlTest(suite);
+        frameworkTests.setName("Framework Tests");
+        frameworkTests.setParallel(XmlSuite.ParallelMode.METHODS);
+        frameworkTests.setThreadCount(4);
+
+        new SuiteConfigListener(new Properties()).alter(List.of(suite));
+        Assert.assertEquals(browserTests.getParallel(), XmlSuite.ParallelMode.NONE);
+        Assert.assertEquals(frameworkTests.getParallel(), XmlSuite.ParallelMode.METHODS);
+
+        Properties overrides = new Properties();
+        overrides.setProperty(SuiteConfigListener.PARALLEL_PROPERTY, "methods");
+        overrides.setProperty(SuiteConfigListener.THREAD_COUNT_PROPERTY, "2");
+        new SuiteConfigListener(overrides).alter(List.of(suite));
+
+        Assert.assertEquals(browserTests.getParallel(), XmlSuite.ParallelMode.METHODS);
+        Assert.assertEquals(browserTests.getThreadCount(), 2);
+        Assert.assertEquals(frameworkTests.getThreadCount(), 2);
+    }
+}
@@ -0,0 +1,192 @@
+package tests;
+
+import com.rentadsearchqa.utils.DriverPool;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for the pool of warm browser sessions.
+ * Browsers are stand-in drivers that record how they are reset and quit.
+ */
+public class DriverPoolTest {
+
+    /**
+     * A released session must come back with only its leased tab, no cookies, cleared
+     * storage and a fresh warm-up, and be handed to the next lease.
+     */
+    @Test
+    public void testReleasedSessionIsResetAndReused() {
+        Browsers browsers = new Browsers();
+        DriverPool pool = new DriverPool(1, 10, browsers::start, browsers::warmUp);
+
+        WebDriver driver = pool.lease();
+        FakeBrowser browser = browsers.of(driver);
+        browser.open("prefetch");
+        browser.open("listing");
+        browser.current = "listing";
+        pool.release(driver, false);
+
+        Assert.assertEquals(browser.tabs, Set.of("home"), "Only the tab the session was leased on is kept");
+        Assert.assertEquals(browser.current, "home");
+        Assert.assertEquals(browser.cookieDeletions, 1);
+        Assert.assertEquals(browser.scripts, 1, "Storage must be cleared");
+        Assert.assertEquals(browser.warmUps, 2);
+        Assert.assertFalse(browser.quit);
+        Assert.assertSame(pool.lease(), driver, "The reset session must be reused");
+        pool.shutdown();
+    }
+
+    /**
+     * A session whose test failed must be quit, and the next lease must get a new one.
+     */
+    @Test
+    public void testFailedSessionIsRecycled() {
+        Browsers browsers = new Browsers();
+        DriverPool pool = new DriverPool(1, 10, browsers::start, browsers::warmUp);
+
+        WebDriver driver = pool.lease();
+        pool.release(driver, true);
+
+        Assert.assertTrue(browsers.of(driver).quit);
+        Assert.assertEquals(browsers.of(driver).cookieDeletions, 0, "A recycled session is not reset");
+        Assert.assertNotSame(pool.lease(), driver);
+        Assert.assertEquals(browsers.started.size(), 2);
+        pool.shutdown();
+    }
+
+    /**
+     * A session must be quit once it has served maxUses tests.
+     */
+    @Test
+    public void testSessionIsRecycledAfterMaxUses() {
+        Browsers browsers = new Browsers();
+        DriverPool pool = new DriverPool(1, 2, browsers::start, browsers::warmUp);
+
+        WebDriver driver = pool.lease();
+        pool.release(driver, false);
+        Assert.assertSame(pool.lease(), driver);
+        pool.release(driver, false);
+
+        Assert.assertTrue(browsers.of(driver).quit);
+        Assert.assertNotSame(pool.lease(), driver);
+        pool.shutdown();
+    }
+
+    /**
+     * No more sessions than the pool size may be leased; a waiting lease must get the
+     * session released by another caller.
+     */
+    @Test
+    public void testLeasesAreBoundedByPoolSize() throws Exception {
+        Browsers browsers = new Browsers();
+        DriverPool pool = new DriverPool(2, 10, browsers::start, browsers::warmUp);
+
+        WebDriver first = pool.lease();
+        WebDriver second = pool.lease();
+        Assert.assertNull(pool.tryLease(), "Both sessions are in use");
+
+        CompletableFuture<WebDriver> waiting = CompletableFuture.supplyAsync(pool::lease);
+        Thread.sleep(100);
+        Assert.assertFalse(waiting.isDone(), "A lease must wait while the pool is exhausted");
+        pool.release(first, false);
+
+        Assert.assertSame(waiting.get(5, TimeUnit.SECONDS), first);
+        Assert.assertEquals(browsers.started.size(), 2);
+        pool.release(second, false);
+        pool.shutdown();
+    }
+
+    /**
+     * Stand-in browsers started by one pool
+     */
+    private static final class Browsers {
+
+        private final List<WebDriver> started = new ArrayList<>();
+        private final Map<WebDriver, FakeBrowser> browsers = new IdentityHashMap<>();
+
+        private synchronized WebDriver start() {
+            FakeBrowser browser = new FakeBrowser();
+            started.add(browser.driver);
+            browsers.put(browser.driver, browser);
+            return browser.driver;
+        }
+
+        private synchronized FakeBrowser of(WebDriver driver) {
+            return browsers.get(driver);
+        }
+
+        private void warmUp(WebDriver driver) {
+            of(driver).warmUps++;
+        }
+    }
+
+    /**
+     * Stand-in browser recording its tabs, cookie deletions, scripts and quit
+     */
+    private static final class FakeBrowser {
+
+        private final Set<String> tabs = new LinkedHashSet<>(Set.of("home"));
+        private final WebDriver driver;
+        private String current = "home";
+        private int cookieDeletions;
+        private int scripts;
+        private int warmUps;
+        private boolean quit;
+
+        private FakeBrowser() {
+            WebDriver.Options options = Fakes.of(WebDriver.Options.class, (method, args) -> {
+                if (method.equals("deleteAllCookies")) {
+                    cookieDeletions++;
+                }
+                return null;
+            });
+            driver = Fakes.driver((method, args) -> {
+                switch (method) {
+                    case "getWindowHandles":
+                        return new LinkedHashSet<>(tabs);
+                    case "getWindowHandle":
+                        return current;
+                    case "switchTo":
+                        return Fakes.of(WebDriver.TargetLocator.class, (m, a) -> {
+                            current = (String) a[0];
+                            return null;
+                        });
+                    case "close":
+                        tabs.remove(current);
+                        return null;
+                    case "manage":
+                        return options;
+                    case "executeScript":
+                        scripts++;
+                        return null;
+                    case "quit":
+                        quit = true;
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        /**
+         * Open a tab ahead of the leased one in the handle order, as a test opening tabs would
+         */
+        private void open(String handle) {
+            Set<String> reordered = new LinkedHashSet<>();
+            reordered.add(handle);
+            reordered.addAll(tabs);
+            tabs.clear();
+            tabs.addAll(reordered);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package tests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+/**
+ * Stand-ins for Selenium interfaces, so framework tests run without a browser.
+ *
+ * A fake passes every call to its handler. Calls the handler does not answer (returns null)
+ * return null, or zero/false for primitive results; equals and hashCode use identity.
+ */
+final class Fakes {
+
+    /**
+     * Answers the calls made on a fake
+     */
+    interface Handler {
+
+        /**
+         * Answer one call
+         *
+         * @param method The name of the called method
+         * @param args The call arguments, empty if there are none
+         * @return The result, or null for the default result
+         * @throws Throwable The exception the call should throw
+         */
+        Object answer(String method, Object[] args) throws Throwable;
+    }
+
+    private Fakes() {
+    }
+
+    /**
+     * Create a fake of one or more interfaces
+     *
+     * @param type The main interface of the fake
+     * @param handler Answers the calls
+     * @param more Further interfaces the fake implements, e.g. JavascriptExecutor
+     * @param <T> The main interface
+     * @return The fake
+     */
+    static <T> T of(Class<T> type, Handler handler, Class<?>... more) {
+        Class<?>[] types = new Class<?>[more.length + 1];
+        types[0] = type;
+        System.arraycopy(more, 0, types, 1, more.length);
+        return type.cast(Proxy.newProxyInstance(Fakes.class.getClassLoader(), types, (proxy, method, args) -> {
+            Object[] arguments = args == null ? new Object[0] : args;
+            if (method.getName().equals("equals") && arguments.length == 1) {
+                return proxy == arguments[0];
+            }
+            if (method.getName().equals("hashCode") && arguments.length == 0) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = handler.answer(method.getName(), arguments);
+            if (result == null && method.getReturnType().isPrimitive()) {
+                return defaultValue(method.getReturnType());
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * Create a fake driver that also executes scripts. Unless the handler answers manage(),
+     * the driver reports no implicit wait.
+     *
+     * @param handler Answers the calls
+     * @return The fake WebDriver, also a JavascriptExecutor
+     */
+    static WebDriver driver(Handler handler) {
+        WebDriver.Timeouts timeouts = of(WebDriver.Timeouts.class, (method, args) ->
+                method.equals("getImplicitWaitTimeout") ? Duration.ZERO : null);
+        WebDriver.Options options = of(WebDriver.Options.class, (method, args) ->
+                method.equals("timeouts") ? timeouts : null);
+        return of(WebDriver.class, (method, args) -> {
+            Object result = handler.answer(method, args);
+            return result == null && method.equals("manage") ? options : result;
+        }, JavascriptExecutor.class);
+    }
+
+    /**
+     * Create a fake driver that ignores every call
+     *
+     * @return The fake WebDriver
+     */
+    static WebDriver driver() {
+        return driver((method, args) -> null);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,152 @@
+package tests;
+
+import com.rentadsearchqa.http.HttpResultsEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test class for the browserless HTTP validation engine.
+ * 
+ * Runs against a local stand-in server that serves results pages in both
+ * supported formats: embedded JSON state and plain data-testid markup.
+ */
+public class HttpResultsEngineTest {
+
+    private static final List<Map<String, String>> FILTERS = List.of(
+            Map.of("title", "price", "min", "200", "max", "700"),
+            Map.of("title", "size", "min", "75", "max", "150"));
+
+    private static final int WINDOWED_PAGES = 10;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> requestedQueries = new CopyOnWriteArrayList<>();
+    private final List<Integer> windowedPages = new CopyOnWriteArrayList<>();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/state/results", exchange -> {
+            requestedQueries.add(exchange.getRequestURI().getRawQuery());
+            String query = exchange.getRequestURI().getQuery();
+            String ads = query.contains("page=2")
+                    ? "{\"id\": 3, \"title\": \"Διαμέρισμα 120 τ.μ.\", \"price\": \"700 €\", \"size\": \"120 τ.μ.\", \"images\": 30}"
+                    : "{\"id\": 1, \"title\": \"Διαμέρισμα 80 τ.μ.\", \"price\": \"250 €\", \"size\": \"80 τ.μ.\", \"images\": 5},"
+                    + "{\"id\": 2, \"title\": \"Διαμέρισμα 95 τ.μ.\", \"price\": \"400 €\", \"size\": \"95 τ.μ.\", \"images\": [\"a\", \"b\"]}";
+            respond(exchange, "<html><body><script type=\"application/json\" data-testid=\"results-state\">"
+                    + "{\"totalPages\": 2, \"ads\": [" + ads + "]}</script></body></html>");
+        });
+        server.createContext("/markup/results", exchange -> respond(exchange, "<html><body>"
+                + card("111111", "Διαμέρισμα 80 τ.μ.", "300 €", 3)
+                + card("222222", "Διαμέρισμα 90 τ.μ.", "900 €", 2)
+                + "<nav><a aria-current=\"page\" href=\"?page=1\">1</a></nav></body></html>"));
+        server.createContext("/windowed/results", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            Matcher pageParameter = Pattern.compile("(?:^|&)page=(\\d+)").matcher(query == null ? "" : query);
+            int page = pageParameter.find() ? Integer.parseInt(pageParameter.group(1)) : 1;
+            windowedPages.add(page);
+            respond(exchange, "<html><body>"
+                    + card(String.valueOf(100000 + page), "Διαμέρισμα 80 τ.μ.", (200 + page * 10) + " €", 3)
+                    + windowedPagination(page, WINDOWED_PAGES) + "</body></html>");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * All pages from the embedded state meet the filters; the engine must request
+     * both pages with the filters and sorting in the query.
+     */
+    @Test
+    public void testValidResultsFromEmbeddedState() {
+        int pages = new HttpResultsEngine().filterAndValidateResults(baseUrl + "/state/results?geo=1", FILTERS);
+
+        Assert.assertEquals(pages, 2);
+        Assert.assertTrue(requestedQueries.stream().anyMatch(query -> query.contains("page=2")),
+                "Second page was not requested: " + requestedQueries);
+        Assert.assertTrue(requestedQueries.get(0).contains("minimum_price=200")
+                && requestedQueries.get(0).contains("maximum_size=150")
+                && requestedQueries.get(0).contains("sorting=price_asc"),
+                "Filters missing from query: " + requestedQueries.get(0));
+    }
+
+    /**
+     * A price outside the filter range in plain markup must fail validation.
+     */
+    @Test
+    public void testOutOfRangePriceFromMarkupFails() {
+        AssertionError error = Assert.expectThrows(AssertionError.class,
+                () -> new HttpResultsEngine().filterAndValidateResults(baseUrl + "/markup/results", FILTERS));
+
+        Assert.assertTrue(error.getMessage().contains("Property price 900 not in range 200-700"), error.getMessage());
+    }
+
+    /**
+     * Markup pagination that links only the first and last page and the pages around the
+     * current one must still lead to every page being fetched and validated.
+     */
+    @Test
+    public void testWindowedPaginationFromMarkupVisitsEveryPage() {
+        int pages = new HttpResultsEngine().filterAndValidateResults(baseUrl + "/windowed/results", FILTERS);
+
+        Assert.assertEquals(pages, WINDOWED_PAGES);
+        Assert.assertEquals(windowedPages.stream().distinct().sorted().collect(Collectors.toList()),
+                IntStream.rangeClosed(1, WINDOWED_PAGES).boxed().collect(Collectors.toList()));
+    }
+
+    /**
+     * Pagination linking page 1, the last page and the pages within two of the current one,
+     * like the stand-in server
+     */
+    private static String windowedPagination(int current, int totalPages) {
+        StringBuilder nav = new StringBuilder("<nav class=\"pagination\">");
+        for (int page = 1; page <= totalPages; page++) {
+            if (page == 1 || page == totalPages || Math.abs(page - current) <= 2) {
+                nav.append("<a aria-current=\"page\" href=\"?page=").append(page).append("\">")
+                        .append(page).append("</a>");
+            }
+        }
+        return nav.append("</nav>").toString();
+    }
+
+    private static String card(String id, String title, String price, int images) {
+        StringBuilder card = new StringBuilder("<div data-testid=\"property-ad-image-container\">");
+        for (int i = 0; i < images; i++) {
+            card.append("<img src=\"/img/").append(id).append('/').append(i).append(".jpg\">");
+        }
+        return card.append("</div><a href=\"/property/d/").append(id).append("/\">")
+                .append("<h3 data-testid=\"property-ad-title\">").append(title).append("</h3></a>")
+                .append("<span data-testid=\"property-ad-price\">").append(price).append("</span>")
+                .toString();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
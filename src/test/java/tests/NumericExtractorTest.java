@@ -0,0 +1,76 @@
+package tests;
+
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.validation.NumericExtractor;
+import com.rentadsearchqa.validation.NumericExtractor.Unit;
+import com.rentadsearchqa.validation.StreamingResultsValidator;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for the numeric extractor and the price and size rules built on it.
+ */
+public class NumericExtractorTest {
+
+    private final NumericExtractor extractor = NumericExtractor.GREEK;
+
+    @DataProvider
+    public Object[][] formattedValues() {
+        return new Object[][]{
+                {"650 €", Unit.EUROS, 65000L},
+                {"1.200 €", Unit.EUROS, 120000L},
+                {"12.500.000€", Unit.EUROS, 1250000000L},
+                {"€ 1.200,50", Unit.EUROS, 120050L},
+                {"1\u00A0200 €", Unit.EUROS, 120000L},
+                {"85 τ.μ.", Unit.SQUARE_METERS, 8500L},
+                {"85,5 τ.μ.", Unit.SQUARE_METERS, 8550L},
+                {"85.25 τ.μ.", Unit.SQUARE_METERS, 8525L},
+                {"Διαμέρισμα 2 υπνοδωματίων, 1.050 τ.μ., Παγκράτι", Unit.SQUARE_METERS, 105000L}
+        };
+    }
+
+    @Test(dataProvider = "formattedValues")
+    public void testExtractsFormattedValues(String text, Unit unit, long hundredths) {
+        Assert.assertEquals(extractor.extractHundredths(text, unit), hundredths, text);
+    }
+
+    @Test
+    public void testReportsUnreadableValues() {
+        for (String text : new String[]{"Κατόπιν επικοινωνίας", "€", "1,2,3 €"}) {
+            Assert.assertThrows(NumberFormatException.class, () -> extractor.extractHundredths(text, Unit.EUROS));
+        }
+    }
+
+    /**
+     * "1.200 €" used to be read as 200, which hid out-of-range prices and broke the sort check.
+     */
+    @Test
+    public void testValidatorReadsThousandsSeparators() {
+        List<AdCard> cards = List.of(
+                new AdCard("1", "Διαμέρισμα 80 τ.μ.", "650 €", "80 τ.μ.", 3),
+                new AdCard("2", "Διαμέρισμα 95,5 τ.μ.", "1.200 €", "95,5 τ.μ.", 3));
+
+        validator("200", "1500", "75", "96").acceptPage(1, cards, new int[]{3, 3});
+
+        AssertionError range = Assert.expectThrows(AssertionError.class,
+                () -> validator("200", "700", "75", "96").acceptPage(1, cards, new int[]{3, 3}));
+        Assert.assertEquals(range.getMessage(), "Property price 1200 not in range 200-700 on page 1, ad 2");
+        AssertionError size = Assert.expectThrows(AssertionError.class,
+                () -> validator("200", "1500", "75", "95").acceptPage(2, cards, new int[]{3, 3}));
+        Assert.assertEquals(size.getMessage(), "Property size 95.5 not in range 75-95 on page 2, ad 2");
+        AssertionError unreadable = Assert.expectThrows(AssertionError.class, () -> validator("0", "1000", "0", "100")
+                .acceptPage(1, List.of(new AdCard("3", "Διαμέρισμα", "Τιμή: - €", "", 0)), new int[]{0}));
+        Assert.assertTrue(unreadable.getMessage().startsWith("Property has an unreadable price on page 1, ad 1"),
+                unreadable.getMessage());
+    }
+
+    private StreamingResultsValidator validator(String minPrice, String maxPrice, String minSize, String maxSize) {
+        return new StreamingResultsValidator(List.of(
+                Map.of("title", "price", "min", minPrice, "max", maxPrice),
+                Map.of("title", "size", "min", minSize, "max", maxSize)), extractor);
+    }
+}
@@ -0,0 +1,74 @@
+package tests;
+
+import com.rentadsearchqa.functions.PageFanOut;
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.DriverPool;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test class for reading results pages on several pooled sessions.
+ * Sessions are stand-in WebDriver proxies, so no browser is started.
+ */
+public class PageFanOutTest {
+
+    private static final String RESULTS_URL = "https://www.xe.gr/property/results?sorting=price_asc";
+
+    /**
+     * Pages finishing out of order must still be handed out in page order, and only
+     * the sessions free in the pool may be used.
+     */
+    @Test
+    public void testPagesAreReadInParallelAndReturnedInOrder() {
+        DriverPool pool = new DriverPool(2, 10, Fakes::driver, driver -> { });
+        Set<WebDriver> sessionsUsed = ConcurrentHashMap.newKeySet();
+
+        try (PageFanOut fanOut = new PageFanOut(pool, RESULTS_URL, 2, 9, (driver, pageUrl) -> {
+            sessionsUsed.add(driver);
+            int page = Integer.parseInt(pageUrl.substring(pageUrl.indexOf("page=") + 5));
+            sleep((10 - page) * 5L);
+            return List.of(new AdCard(String.valueOf(page), "Διαμέρισμα", "500 €", "80 τ.μ.", 1));
+        })) {
+            Assert.assertEquals(fanOut.start(3), 2, "Only the two pooled sessions can be leased");
+            for (int page = 2; page <= 9; page++) {
+                Assert.assertEquals(fanOut.awaitPage(page).get(0).getAdId(), String.valueOf(page));
+            }
+        }
+        Assert.assertEquals(sessionsUsed.size(), 2);
+        Assert.assertNotNull(pool.tryLease(), "Sessions must be back in the pool after close");
+        pool.shutdown();
+    }
+
+    /**
+     * A page that cannot be read must be reported for that page, and pages left behind
+     * by the failed session must not block the caller.
+     */
+    @Test
+    public void testFailedPageIsReportedWithoutHanging() {
+        DriverPool pool = new DriverPool(1, 10, Fakes::driver, driver -> { });
+
+        try (PageFanOut fanOut = new PageFanOut(pool, RESULTS_URL, 2, 4, (driver, pageUrl) -> {
+            throw new IllegalStateException("Page did not load: " + pageUrl);
+        })) {
+            Assert.assertEquals(fanOut.start(1), 1);
+            RuntimeException failed = Assert.expectThrows(RuntimeException.class, () -> fanOut.awaitPage(2));
+            Assert.assertTrue(failed.getMessage().endsWith("page=2"), failed.getMessage());
+            RuntimeException unread = Assert.expectThrows(RuntimeException.class, () -> fanOut.awaitPage(3));
+            Assert.assertEquals(unread.getMessage(), "No session left to read results page 3");
+        }
+        pool.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package tests;
+
+import com.rentadsearchqa.functions.PageWalk;
+import com.rentadsearchqa.locators.components.ResultsPage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for walking results pages on one session with prefetching.
+ * The browser is a stand-in driver that keeps track of its tabs.
+ */
+public class PageWalkTest {
+
+    private static final String RESULTS_URL = "https://www.xe.gr/property/results?page=";
+
+    /**
+     * Every page must be validated on the tab that loaded it, with at most two tabs open,
+     * and the last page must not prefetch anything.
+     */
+    @Test
+    public void testPrefetchKeepsAtMostTwoTabs() {
+        FakeTabs browser = new FakeTabs();
+        List<String> validatedUrls = new ArrayList<>();
+
+        new PageWalk(new ResultsPage(browser.driver), true)
+                .walk(4, page -> validatedUrls.add(browser.currentUrl()));
+
+        Assert.assertEquals(validatedUrls, List.of(RESULTS_URL + 1, RESULTS_URL + 2, RESULTS_URL + 3, RESULTS_URL + 4));
+        Assert.assertEquals(browser.maxTabs, 2);
+        Assert.assertEquals(browser.tabsOpened, 3, "Pages 2-4 are prefetched, nothing after the last page");
+        Assert.assertEquals(browser.tabs.size(), 1);
+    }
+
+    /**
+     * A page that fails validation must close the prefetched tab and stay on the failed page.
+     */
+    @Test
+    public void testFailedPageClosesPrefetchedTab() {
+        FakeTabs browser = new FakeTabs();
+
+        AssertionError failure = Assert.expectThrows(AssertionError.class,
+                () -> new PageWalk(new ResultsPage(browser.driver), true).walk(4, page -> {
+                    if (page == 2) {
+                        throw new AssertionError("Price above maximum on page 2");
+                    }
+                }));
+
+        Assert.assertEquals(failure.getMessage(), "Price above maximum on page 2");
+        Assert.assertEquals(browser.tabsOpened, 2, "Page 3 was prefetched while page 2 was validated");
+        Assert.assertEquals(new ArrayList<>(browser.tabs.values()), List.of(RESULTS_URL + 2));
+        Assert.assertEquals(browser.currentUrl(), RESULTS_URL + 2);
+    }
+
+    /**
+     * A single results page must be validated without opening a tab.
+     */
+    @Test
+    public void testSinglePageIsNotPrefetched() {
+        FakeTabs browser = new FakeTabs();
+        List<Integer> validated = new ArrayList<>();
+
+        new PageWalk(new ResultsPage(browser.driver), true).walk(1, validated::add);
+
+        Assert.assertEquals(validated, List.of(1));
+        Assert.assertEquals(browser.tabsOpened, 0);
+    }
+
+    /**
+     * Stand-in browser with tabs; page links point to RESULTS_URL plus their page number
+     */
+    private static final class FakeTabs {
+
+        private final Map<String, String> tabs = new LinkedHashMap<>();
+        private final WebDriver driver;
+        private String current = "tab-0";
+        private int tabsOpened;
+        private int maxTabs = 1;
+
+        private FakeTabs() {
+            tabs.put(current, RESULTS_URL + 1);
+            driver = Fakes.driver((method, args) -> {
+                switch (method) {
+                    case "findElement":
+                        String locator = args[0].toString();
+                        // ...[normalize-space()='N']
+                        String page = locator.substring(locator.lastIndexOf("='") + 2, locator.lastIndexOf("']"));
+                        return pageLink(RESULTS_URL + page);
+                    case "executeScript":
+                        // window.open(arguments[0], '_blank')
+                        tabs.put("tab-" + ++tabsOpened, (String) ((Object[]) args[1])[0]);
+                        maxTabs = Math.max(maxTabs, tabs.size());
+                        return null;
+                    case "getWindowHandles":
+                        return new LinkedHashSet<>(tabs.keySet());
+                    case "getWindowHandle":
+                        return current;
+                    case "switchTo":
+                        return Fakes.of(WebDriver.TargetLocator.class, (m, a) -> {
+                            current = (String) a[0];
+                            return null;
+                        });
+                    case "close":
+                        tabs.remove(current);
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private String currentUrl() {
+            return tabs.get(current);
+        }
+
+        private WebElement pageLink(String href) {
+            return Fakes.of(WebElement.class, (method, args) -> {
+                if (method.equals("getAttribute")) {
+                    return href;
+                }
+                if (method.equals("click")) {
+                    tabs.put(current, href);
+                }
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tests;
+
+import com.rentadsearchqa.locators.components.ResultsPage;
+import com.rentadsearchqa.utils.PresenceResult;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for checking the phone info dialog and reporting the outcome.
+ * The browser is a stand-in driver whose dialog opens or closes after a number of lookups.
+ */
+public class PhoneInfoTest {
+
+    private static final String DIV_PHONE_INFO = "//div[@data-testid='phones']";
+
+    /**
+     * A dialog that opens while it is awaited must be reported as present.
+     */
+    @Test
+    public void testPhoneInfoThatAppearsIsPresent() {
+        FakeDialog dialog = new FakeDialog(false, 3);
+
+        PresenceResult result = new ResultsPage(dialog.driver).findPhoneInfo(true);
+
+        Assert.assertTrue(result.isConditionMet());
+        Assert.assertTrue(result.isPresent());
+        Assert.assertEquals(result.getXpath(), DIV_PHONE_INFO);
+        Assert.assertEquals(dialog.lookups.get(), 3, "The check must stop at the first lookup finding the dialog");
+        result.assertConditionMet();
+    }
+
+    /**
+     * A dialog that closes while it is awaited must be reported as absent.
+     */
+    @Test
+    public void testPhoneInfoThatClosesIsAbsent() {
+        FakeDialog dialog = new FakeDialog(true, 2);
+
+        PresenceResult result = new ResultsPage(dialog.driver).findPhoneInfo(false);
+
+        Assert.assertTrue(result.isConditionMet());
+        Assert.assertFalse(result.isPresent());
+        Assert.assertEquals(dialog.lookups.get(), 2);
+        result.assertConditionMet();
+    }
+
+    /**
+     * A dialog that stays open must fail the absence check after at most two seconds,
+     * naming the XPath and the time waited.
+     */
+    @Test
+    public void testPhoneInfoThatStaysOpenFailsAbsenceCheck() {
+        FakeDialog dialog = new FakeDialog(true, Integer.MAX_VALUE);
+
+        PresenceResult result = new ResultsPage(dialog.driver).findPhoneInfo(false);
+
+        Assert.assertFalse(result.isConditionMet());
+        Assert.assertTrue(result.isPresent());
+        Assert.assertTrue(result.getElapsedMillis() >= 2000 && result.getElapsedMillis() < 5000,
+                "Absence must be awaited for two seconds, took " + result.getElapsedMillis() + " ms");
+        AssertionError error = Assert.expectThrows(AssertionError.class, result::assertConditionMet);
+        Assert.assertEquals(error.getMessage(), "Expected element " + DIV_PHONE_INFO
+                + " to be absent, but it was still present after " + result.getElapsedMillis() + " ms");
+    }
+
+    /**
+     * A presence check that was not met must fail naming the expected and the actual state.
+     */
+    @Test
+    public void testUnmetPresenceCheckMessage() {
+        PresenceResult result = new PresenceResult(DIV_PHONE_INFO, true, false, 10000);
+
+        Assert.assertFalse(result.isPresent());
+        AssertionError error = Assert.expectThrows(AssertionError.class, result::assertConditionMet);
+        Assert.assertEquals(error.getMessage(), "Expected element " + DIV_PHONE_INFO
+                + " to be present, but it was still absent after 10000 ms");
+    }
+
+    /**
+     * Stand-in driver whose phone dialog toggles from its initial state at a given lookup
+     */
+    private static final class FakeDialog {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final WebDriver driver;
+
+        /**
+         * @param open Whether the dialog is open at first
+         * @param toggleAt The lookup (1-based) from which the dialog is in the other state
+         */
+        private FakeDialog(boolean open, int toggleAt) {
+            List<WebElement> dialog = List.of(Fakes.of(WebElement.class, (method, args) -> null));
+            driver = Fakes.driver((method, args) -> {
+                if (method.equals("findElements") && args[0].toString().contains("phones")) {
+                    boolean isOpen = lookups.incrementAndGet() < toggleAt == open;
+                    return isOpen ? dialog : Collections.emptyList();
+                }
+                return null;
+            });
+        }
+    }
+}
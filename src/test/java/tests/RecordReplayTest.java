@@ -0,0 +1,115 @@
+package tests;
+
+import com.rentadsearchqa.replay.RecordReplayFilter;
+import com.rentadsearchqa.replay.RecordedResponse;
+import com.rentadsearchqa.replay.ReplayMode;
+import com.rentadsearchqa.replay.ResponseStore;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the record/replay response store and network filter.
+ */
+public class RecordReplayTest {
+
+    private static final String RESULTS_URL = "https://www.xe.gr/property/results?geo_place_ids[]=1";
+
+    /**
+     * Responses must survive reopening the store, the latest recording of a key
+     * must win, and an entry cut short by an interrupted run must be ignored.
+     */
+    @Test
+    public void testStoreReopensAndIgnoresTruncatedEntries() throws IOException {
+        Path directory = Files.createTempDirectory("response-store");
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("GET /a", response("first"));
+            store.put("GET /a", response("second"));
+            store.put("GET /b", response("other"));
+        }
+        // Simulate a crash after the index line was written but before the data was complete
+        Files.write(directory.resolve(ResponseStore.INDEX_FILE),
+                "999999\t10\tGET /lost\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            Assert.assertEquals(store.size(), 2);
+            Assert.assertEquals(new String(store.get("GET /a").getBody(), StandardCharsets.UTF_8), "second");
+            Assert.assertEquals(store.get("GET /b").getHeaders().get(0)[1], "text/html");
+            Assert.assertNull(store.get("GET /lost"));
+        }
+    }
+
+    /**
+     * A recorded run must let a replay serve the same responses without calling the live site.
+     */
+    @Test
+    public void testRecordedResponsesAreReplayedWithoutNetwork() throws IOException {
+        Path directory = Files.createTempDirectory("response-store");
+        AtomicInteger liveCalls = new AtomicInteger();
+        HttpHandler liveSite = request -> {
+            liveCalls.incrementAndGet();
+            return new HttpResponse().setStatus(200)
+                    .addHeader("Content-Type", "text/html")
+                    .addHeader("Content-Encoding", "gzip")
+                    .setContent(Contents.utf8String("<h3>results</h3>"));
+        };
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            HttpResponse recorded = new RecordReplayFilter(ReplayMode.RECORD, store, false)
+                    .andFinally(liveSite).execute(new HttpRequest(HttpMethod.GET, RESULTS_URL));
+            Assert.assertEquals(Contents.string(recorded), "<h3>results</h3>");
+        }
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            RecordReplayFilter replay = new RecordReplayFilter(ReplayMode.REPLAY, store, false);
+            HttpHandler handler = replay.andFinally(liveSite);
+            HttpResponse replayed = handler.execute(new HttpRequest(HttpMethod.GET, RESULTS_URL + "#top"));
+            HttpResponse missing = handler.execute(new HttpRequest(HttpMethod.GET, RESULTS_URL + "&page=2"));
+
+            Assert.assertEquals(replayed.getStatus(), 200);
+            Assert.assertEquals(Contents.string(replayed), "<h3>results</h3>");
+            Assert.assertEquals(replayed.getHeader("Content-Type"), "text/html");
+            Assert.assertNull(replayed.getHeader("Content-Encoding"), "Decoded body must not claim gzip");
+            Assert.assertEquals(missing.getStatus(), 404);
+            Assert.assertEquals(replay.getMisses(), 1);
+            Assert.assertEquals(replay.getMissedKeys(), List.of("GET " + RESULTS_URL + "&page=2"));
+            Assert.assertEquals(liveCalls.get(), 1, "Replay must not reach the live site");
+        }
+    }
+
+    /**
+     * Headers longer than 64 KB, such as a large Content-Security-Policy, must be stored and read back whole.
+     */
+    @Test
+    public void testStoreKeepsHeadersOver64Kb() throws IOException {
+        Path directory = Files.createTempDirectory("response-store");
+        String policy = "script-src 'self' " + "https://cdn.example.org/Παγκράτι ".repeat(3000);
+        RecordedResponse response = new RecordedResponse(200,
+                List.<String[]>of(new String[]{"Content-Security-Policy", policy}),
+                "ok".getBytes(StandardCharsets.UTF_8), 0);
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("GET /csp", response);
+        }
+        try (ResponseStore store = new ResponseStore(directory)) {
+            Assert.assertEquals(store.get("GET /csp").getHeaders().get(0)[1], policy);
+        }
+    }
+
+    private static RecordedResponse response(String body) {
+        return new RecordedResponse(200, List.<String[]>of(new String[]{"Content-Type", "text/html"}),
+                body.getBytes(StandardCharsets.UTF_8), 120);
+    }
+}
@@ -0,0 +1,135 @@
+package tests;
+
+import com.rentadsearchqa.grid.NodeLatency;
+import com.rentadsearchqa.grid.RemoteDriverFactory;
+import com.rentadsearchqa.utils.DriverPool;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for creating sessions on a Selenium Grid.
+ * The Grid is a fake one answering the WebDriver protocol, so no browser is started.
+ */
+public class RemoteDriverFactoryTest {
+
+    private static final String NODE = "http://node-1:5555";
+
+    /**
+     * Sessions created one after another must share one kept-alive connection to the Grid,
+     * and their latency must be recorded for the node they run on.
+     */
+    @Test
+    public void testSessionsReuseConnectionAndRecordNodeLatency() throws IOException {
+        try (FakeGrid grid = new FakeGrid();
+             RemoteDriverFactory factory = new RemoteDriverFactory(grid.url, Duration.ofSeconds(10))) {
+            for (int i = 1; i <= 3; i++) {
+                WebDriver driver = factory.create(new ChromeOptions());
+                Assert.assertEquals(driver.getCurrentUrl(), "about:blank");
+                driver.quit();
+            }
+            NodeLatency latency = factory.getLatency();
+            Assert.assertEquals(latency.getNodes(), Set.of(NODE));
+            Assert.assertEquals(latency.getSessionCreation(NODE).getCount(), 3);
+            Assert.assertEquals(latency.getCommands(NODE).getCount(), 6, "getCurrentUrl and quit of every session");
+            Assert.assertEquals(grid.sessionsCreated.get(), 3);
+            Assert.assertEquals(grid.connections.size(), 1, "Every request must go over the same kept-alive connection");
+        }
+    }
+
+    /**
+     * Prestarted sessions must be handed to the first leases, and a recycled session must be
+     * replaced in the background.
+     */
+    @Test
+    public void testPrestartedSessionsServeLeases() throws IOException, InterruptedException {
+        try (FakeGrid grid = new FakeGrid();
+             RemoteDriverFactory factory = new RemoteDriverFactory(grid.url, Duration.ofSeconds(10))) {
+            DriverPool pool = new DriverPool(2, 10, () -> factory.create(new ChromeOptions()), driver -> { });
+            pool.prestart(2).join();
+            Assert.assertEquals(grid.sessionsCreated.get(), 2);
+
+            WebDriver first = pool.lease();
+            WebDriver second = pool.lease();
+            Assert.assertEquals(grid.sessionsCreated.get(), 2, "Leases must get the prestarted sessions");
+            pool.release(first, false);
+            pool.release(second, true);
+            for (int wait = 0; wait < 100 && grid.sessionsCreated.get() < 3; wait++) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(grid.sessionsCreated.get(), 3, "The recycled session must be replaced");
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Fake Grid of one test, creating numbered sessions on a single node
+     */
+    private static final class FakeGrid implements AutoCloseable {
+
+        private final HttpServer server;
+        private final URL url;
+        private final AtomicInteger sessionsCreated = new AtomicInteger();
+        private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+        private FakeGrid() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newFixedThreadPool(4));
+            server.createContext("/", this::handle);
+            server.start();
+            url = new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+
+        /**
+         * Answer the few WebDriver and Grid endpoints the tests use
+         */
+        private void handle(HttpExchange exchange) throws IOException {
+            connections.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            String body;
+            if ("POST".equals(method) && "/session".equals(path)) {
+                body = "{\"value\":{\"sessionId\":\"session-" + sessionsCreated.incrementAndGet()
+                        + "\",\"capabilities\":{\"browserName\":\"chrome\",\"platformName\":\"linux\"}}}";
+            } else if ("/graphql".equals(path)) {
+                body = "{\"data\":{\"session\":{\"nodeUri\":\"" + NODE + "\"}}}";
+            } else if (path.endsWith("/url")) {
+                body = "{\"value\":\"about:blank\"}";
+            } else if (path.endsWith("/window")) {
+                body = "{\"value\":\"window-1\"}";
+            } else if (path.endsWith("/window/handles")) {
+                body = "{\"value\":[\"window-1\"]}";
+            } else {
+                body = "{\"value\":null}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package tests;
+
+import com.rentadsearchqa.config.TestBase;
+import com.rentadsearchqa.functions.FilterMode;
+import com.rentadsearchqa.functions.properties;
+import com.rentadsearchqa.matrix.HostConcurrencyLimiter;
+import com.rentadsearchqa.matrix.MatrixResults;
+import com.rentadsearchqa.matrix.SearchCombination;
+import com.rentadsearchqa.matrix.SearchMatrix;
+import io.qameta.allure.*;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Data-driven rental search over an area × filter matrix.
+ *
+ * The areas and filter ranges come from a JSON file (-Dmatrix.file, default
+ * src/test/resources/search-matrix.json), combined in full or pairwise
+ * (-Dmatrix.reduction overrides the file). Combinations run in parallel on the
+ * data-provider threads of the suite, with at most -Dmatrix.perHost (default 2)
+ * of them driving the same host at once. The host slot is taken before the browser
+ * is leased and given back once it is reset, so browser warm-up counts against the
+ * limit too. The outcome of every combination is written to target/matrix-results.csv
+ * and attached to the Allure report.
+ *
+ * Run with: mvn test -Dsuite.xml=testng-matrix.xml
+ */
+public class RentAdSearchMatrixTest extends TestBase {
+
+    private static final HostConcurrencyLimiter HOST_LIMITER =
+            new HostConcurrencyLimiter(Integer.getInteger("matrix.perHost", 2));
+
+    private static final ThreadLocal<HostConcurrencyLimiter.Permit> HOST_PERMIT = new ThreadLocal<>();
+
+    private MatrixResults results;
+
+    /**
+     * Provide every combination of the matrix, one test invocation each
+     *
+     * @return One row per combination
+     */
+    @DataProvider(name = "searchMatrix", parallel = true)
+    public Object[][] searchMatrix() {
+        SearchMatrix matrix = SearchMatrix.load(Paths.get(
+                System.getProperty("matrix.file", "src/test/resources/search-matrix.json")));
+        String reduction = System.getProperty("matrix.reduction");
+        List<SearchCombination> combinations = reduction == null
+                ? matrix.combinations() : matrix.combinations(SearchMatrix.Reduction.fromName(reduction));
+        results = new MatrixResults(combinations);
+
+        Object[][] rows = new Object[combinations.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{combinations.get(i)};
+        }
+        return rows;
+    }
+
+    /**
+     * Search one area with one filter combination and validate every result page
+     *
+     * @param combination The area and filters to search
+     */
+    @Test(dataProvider = "searchMatrix")
+    @Epic("Rental Property Search")
+    @Feature("Search Matrix")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Searches one area with one price/size filter combination and validates all results.")
+    public void testSearchCombination(SearchCombination combination) {
+        properties propertySearch = new properties(getDriver(), getDriverPool());
+        Allure.step("Search rent ads in " + combination.getArea(),
+                () -> propertySearch.searchRentAdsInArea(combination.getArea()));
+        Allure.step("Filter and validate " + combination,
+                () -> propertySearch.filterAndValidateResults(combination.getFilters(), FilterMode.DEEP_LINK));
+    }
+
+    /**
+     * Wait for a slot on the host before the browser of the combination is leased and warmed up
+     *
+     * @param method The test method about to run
+     */
+    @Override
+    protected void beforeLease(Method method) {
+        Allure.step("Wait for a slot on " + baseUrl, () -> HOST_PERMIT.set(HOST_LIMITER.acquire(baseUrl)));
+    }
+
+    /**
+     * Give the host slot back once the browser has been reset
+     */
+    @Override
+    protected void afterRelease() {
+        HostConcurrencyLimiter.Permit permit = HOST_PERMIT.get();
+        if (permit != null) {
+            permit.close();
+            HOST_PERMIT.remove();
+        }
+    }
+
+    /**
+     * Record the outcome of the combination that just ran
+     *
+     * @param result The result of the test invocation
+     */
+    @AfterMethod(alwaysRun = true)
+    public void recordCombination(ITestResult result) {
+        if (results == null || result.getParameters().length == 0) {
+            return;
+        }
+        Throwable failure = result.getThrowable();
+        results.record((SearchCombination) result.getParameters()[0], result.isSuccess(),
+                result.getEndMillis() - result.getStartMillis(), failure == null ? null : failure.getMessage());
+    }
+
+    /**
+     * Write the aggregated results of the matrix
+     */
+    @AfterClass(alwaysRun = true)
+    public void writeMatrixResults() {
+        if (results != null) {
+            Path csv = Paths.get("target", "matrix-results.csv");
+            results.writeCsv(csv);
+            Allure.step("Search matrix: " + results.summary(), () -> {
+                try (InputStream in = Files.newInputStream(csv)) {
+                    Allure.addAttachment("matrix-results.csv", "text/csv", in, ".csv");
+                }
+            });
+        }
+    }
+}
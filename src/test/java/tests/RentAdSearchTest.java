@@ -1,6 +1,7 @@
 package tests;
 
 import com.rentadsearchqa.config.TestBase;
+import com.rentadsearchqa.functions.FilterMode;
 import com.rentadsearchqa.functions.properties;
 import io.qameta.allure.*;
 import org.testng.annotations.Test;
@@ -39,7 +40,7 @@ public class RentAdSearchTest extends TestBase {
     @Description("Comprehensive smoke test for xe.gr rental property search functionality. " +
                 "Validates complete user journey from search to result validation with detailed step reporting.")
     public void testSearchRentAdsInPangrati() {
-        properties propertySearch = new properties(driver);
+        properties propertySearch = new properties(getDriver(), getDriverPool());
         
         // Execute test steps with detailed Allure reporting
         searchForRentalProperties(propertySearch);
@@ -68,12 +69,12 @@ public class RentAdSearchTest extends TestBase {
     
     /**
      * Step 3: Apply filters and validate results
-     * Applies price and size filters, then validates all results meet criteria
+     * Applies price and size filters through the UI, then validates all results meet criteria
      */
     @Step("Apply price and size filters, then validate all results")
     private void applyFiltersAndValidateResults(properties propertySearch) {
         Map<String, String> priceFilter = Map.of("title", "price", "min", "200", "max", "700");
         Map<String, String> sizeFilter = Map.of("title", "size", "min", "75", "max", "150");
-        propertySearch.filterAndValidateResults(Arrays.asList(priceFilter, sizeFilter));
+        propertySearch.filterAndValidateResults(Arrays.asList(priceFilter, sizeFilter), FilterMode.UI);
     }
 }
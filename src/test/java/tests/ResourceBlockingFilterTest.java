@@ -0,0 +1,104 @@
+package tests;
+
+import com.rentadsearchqa.network.BlockingRule;
+import com.rentadsearchqa.network.ResourceBlockingFilter;
+import com.rentadsearchqa.network.ResourceType;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the request-blocking network filter.
+ */
+public class ResourceBlockingFilterTest {
+
+    /**
+     * Requests must be classified by Sec-Fetch-Dest first, then by URL extension.
+     */
+    @Test
+    public void testRequestsAreClassifiedByDestinationThenExtension() {
+        Assert.assertEquals(ResourceType.of(request("https://www.xe.gr/api/ads", "image")), ResourceType.IMAGE);
+        Assert.assertEquals(ResourceType.of(request("https://www.xe.gr/api/ads", "empty")), ResourceType.XHR);
+        Assert.assertEquals(ResourceType.of(request("https://cdn.xe.gr/fonts/a.woff2?v=3", null)), ResourceType.FONT);
+        Assert.assertEquals(ResourceType.of(request("https://www.xe.gr/property/results", null)), ResourceType.OTHER);
+    }
+
+    /**
+     * The dom-only profile must block trackers and images without touching the network,
+     * a test override must let images through again, and counts must restart per test.
+     */
+    @Test
+    public void testProfileBlocksAndTestOverridesAllow() {
+        AtomicInteger networkCalls = new AtomicInteger();
+        HttpHandler site = request -> {
+            networkCalls.incrementAndGet();
+            return new HttpResponse().setStatus(200).setContent(Contents.bytes(new byte[2048]));
+        };
+        ResourceBlockingFilter filter = new ResourceBlockingFilter(ResourceBlockingFilter.profile("dom-only"));
+        HttpHandler browser = filter.andFinally(site);
+
+        filter.beginTest(List.of());
+        Assert.assertEquals(browser.execute(request("https://www.googletagmanager.com/gtm.js", "script")).getStatus(), 204);
+        Assert.assertEquals(browser.execute(request("https://img.xe.gr/1.jpg", "image")).getStatus(), 204);
+        Assert.assertEquals(browser.execute(request("https://www.xe.gr/app.js", "script")).getStatus(), 200);
+        Assert.assertEquals(networkCalls.get(), 1);
+        Assert.assertEquals(filter.getBlockedRequests(), 2);
+        Assert.assertEquals(filter.getAllowedRequests(), 1);
+
+        filter.beginTest(List.of(BlockingRule.allow(null, ResourceType.IMAGE)));
+        Assert.assertEquals(browser.execute(request("https://img.xe.gr/1.jpg", "image")).getStatus(), 200);
+        Assert.assertEquals(browser.execute(request("https://img.xe.gr/2.jpg", "image")).getStatus(), 200);
+        Assert.assertEquals(filter.getBlockedRequests(), 0);
+        Assert.assertEquals(filter.report(), "blocked 0 requests, allowed 2 (4 KB), saved about 0 KB");
+
+        filter.beginTest(List.of());
+        browser.execute(request("https://img.xe.gr/3.jpg", "image"));
+        Assert.assertEquals(filter.report(), "blocked 1 requests (IMAGE 1), allowed 0 (0 KB), saved about 2 KB");
+    }
+
+    /**
+     * URL rules no allow rule can override must be left to Chrome, and only requests of
+     * blocked types must be paused; an override must move the rules it could undo to pausing.
+     */
+    @Test
+    public void testChromeBlocksUrlsAndOnlyBlockedTypesArePaused() {
+        ResourceBlockingFilter filter = new ResourceBlockingFilter(List.of(
+                BlockingRule.block("*doubleclick.net*"),
+                BlockingRule.block(null, ResourceType.IMAGE, ResourceType.MEDIA),
+                BlockingRule.block("https://www.xe.gr/ads?id=*")));
+
+        filter.beginTest(List.of());
+        Assert.assertEquals(filter.getBlockedUrlPatterns(), List.of("*doubleclick.net*", "https://www.xe.gr/ads?id=*"));
+        Assert.assertEquals(filter.getPausedRequestPatterns(), List.of(
+                Map.of("urlPattern", "*", "resourceType", "Image", "requestStage", "Request"),
+                Map.of("urlPattern", "*", "resourceType", "Media", "requestStage", "Request"),
+                Map.of("urlPattern", "*", "resourceType", "TextTrack", "requestStage", "Request")));
+
+        filter.beginTest(List.of(BlockingRule.allow("*xe.gr*", ResourceType.IMAGE)));
+        Assert.assertEquals(filter.getBlockedUrlPatterns(), List.of());
+        Assert.assertEquals(filter.getPausedRequestPatterns(), List.of(
+                Map.of("urlPattern", "*doubleclick.net*", "requestStage", "Request"),
+                Map.of("urlPattern", "*", "resourceType", "Image", "requestStage", "Request"),
+                Map.of("urlPattern", "*", "resourceType", "Media", "requestStage", "Request"),
+                Map.of("urlPattern", "*", "resourceType", "TextTrack", "requestStage", "Request"),
+                Map.of("urlPattern", "https://www.xe.gr/ads\\?id=*", "requestStage", "Request")));
+        Assert.assertTrue(filter.isBlocked("https://ad.doubleclick.net/pixel.gif", ResourceType.SCRIPT));
+        Assert.assertFalse(filter.isBlocked("https://img.xe.gr/1.jpg", ResourceType.IMAGE));
+    }
+
+    private static HttpRequest request(String url, String destination) {
+        HttpRequest request = new HttpRequest(HttpMethod.GET, url);
+        if (destination != null) {
+            request.addHeader("Sec-Fetch-Dest", destination);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package tests;
+
+import com.rentadsearchqa.matrix.HostConcurrencyLimiter;
+import com.rentadsearchqa.matrix.SearchCombination;
+import com.rentadsearchqa.matrix.SearchMatrix;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class for the area × filter search matrix and its per-host limit.
+ */
+public class SearchMatrixTest {
+
+    /**
+     * Pairwise reduction of the bundled matrix must still pair every area with every
+     * price range and size range, and every price range with every size range, in far
+     * fewer combinations than the full cross product.
+     */
+    @Test
+    public void testPairwiseCoversEveryPairWithFewerCombinations() {
+        SearchMatrix matrix = SearchMatrix.load(Paths.get("src/test/resources/search-matrix.json"));
+        List<SearchCombination> full = matrix.combinations(SearchMatrix.Reduction.FULL);
+        List<SearchCombination> pairwise = matrix.combinations(SearchMatrix.Reduction.PAIRWISE);
+
+        Set<String> fullPairs = pairs(full);
+        Assert.assertEquals(full.size(), 8 * 3 * 3);
+        Assert.assertEquals(pairs(pairwise), fullPairs);
+        Assert.assertTrue(pairwise.size() <= 8 * 3 + 3, "Pairwise produced " + pairwise.size() + " combinations");
+        Assert.assertEquals(pairwise.get(0).toString(), "Παγκράτι | price 200-700 | size 40-75");
+        Assert.assertEquals(matrix.combinations(), pairwise, "The file asks for pairwise reduction");
+    }
+
+    /**
+     * A host must not get more concurrent slots than the limit, while other hosts are unaffected.
+     */
+    @Test
+    public void testSlotsAreLimitedPerHost() {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2);
+        try (HostConcurrencyLimiter.Permit first = limiter.acquire("https://www.xe.gr/property/results");
+             HostConcurrencyLimiter.Permit second = limiter.acquire("https://www.xe.gr/")) {
+            Assert.assertEquals(limiter.available("https://www.xe.gr/"), 0);
+            Assert.assertEquals(limiter.available("http://localhost:8080/"), 2);
+            second.close();
+            Assert.assertEquals(limiter.available("https://www.xe.gr/"), 1, "Closing twice must release once");
+        }
+        Assert.assertEquals(limiter.available("https://www.xe.gr/"), 2);
+    }
+
+    /**
+     * Every pair of values from two dimensions appearing in the combinations
+     */
+    private static Set<String> pairs(List<SearchCombination> combinations) {
+        Set<String> pairs = new HashSet<>();
+        for (SearchCombination combination : combinations) {
+            List<Map<String, String>> filters = combination.getFilters();
+            for (int i = 0; i < filters.size(); i++) {
+                pairs.add(combination.getArea() + " / " + filters.get(i));
+                for (int j = i + 1; j < filters.size(); j++) {
+                    pairs.add(filters.get(i) + " / " + filters.get(j));
+                }
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,221 @@
+package tests;
+
+import com.rentadsearchqa.utils.ScrollResult;
+import com.rentadsearchqa.utils.SeleniumActions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for typing into inputs, waiting for settled elements and settle-based scrolling.
+ * The browser is a stand-in driver.
+ */
+public class SeleniumActionsTest {
+
+    private static final By INPUT = By.id("price-max");
+
+    /**
+     * An input that keeps its value after clear() must be cleared via script before typing.
+     */
+    @Test
+    public void testClearIsRetriedViaScript() {
+        FakeInput input = new FakeInput("1.500", false, true);
+
+        new SeleniumActions(input.driver, 10).findAndType(INPUT, "1200");
+
+        Assert.assertEquals(input.value, "1200");
+        Assert.assertEquals(input.typed, List.of("1200"));
+    }
+
+    /**
+     * An input that cannot be cleared must fail naming its value, without typing into it
+     * and without waiting for the full default wait time.
+     */
+    @Test
+    public void testUnclearableInputFails() {
+        FakeInput input = new FakeInput("1.500", false, false);
+        long start = System.nanoTime();
+
+        AssertionError error = Assert.expectThrows(AssertionError.class,
+                () -> new SeleniumActions(input.driver, 10).findAndType(INPUT, "1200"));
+
+        Assert.assertEquals(error.getMessage(), "Could not clear input, it still holds '1.500'");
+        Assert.assertTrue(input.typed.isEmpty(), "Nothing must be typed into a field that is not empty");
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 10,
+                "The clear check must not wait for the full default wait time");
+    }
+
+    /**
+     * Elements must be returned as soon as two consecutive lookups find the same number of them.
+     */
+    @Test
+    public void testSettledElementsReturnOnceTwoLookupsMatch() {
+        int[] counts = {1, 3, 3, 5};
+        AtomicInteger lookups = new AtomicInteger();
+        WebDriver driver = Fakes.driver((method, args) -> method.equals("findElements")
+                ? Collections.nCopies(counts[Math.min(lookups.getAndIncrement(), counts.length - 1)],
+                        Fakes.of(WebElement.class, (m, a) -> null))
+                : null);
+
+        List<WebElement> options = new SeleniumActions(driver, 10)
+                .findSettledElements("//li[@role='option']", Duration.ofMillis(10));
+
+        Assert.assertEquals(options.size(), 3);
+        Assert.assertEquals(lookups.get(), 3, "The lookup after two matching ones must not happen");
+    }
+
+    /**
+     * A scroll step must run the settle loop for one step, raising the script timeout above
+     * the ceiling for the call only, and report the outcome of the loop.
+     */
+    @Test
+    public void testScrollStepRunsSettleLoopWithinScriptTimeout() {
+        FakeScrollPage page = new FakeScrollPage((script, args) -> Map.of(
+                "iterations", 1L, "elapsed", 420L, "settled", true, "items", 20L, "atEnd", false));
+
+        ScrollResult result = new SeleniumActions(page.driver, 10).scrollStep("article.card");
+
+        Assert.assertEquals(page.args, List.of(0L, 1L, "article.card", 300L, 30000L, 1L));
+        Assert.assertEquals(page.timeoutsDuringScript, List.of(Duration.ofSeconds(35)));
+        Assert.assertEquals(page.scriptTimeout, Duration.ofSeconds(30), "The script timeout must be restored");
+        Assert.assertEquals(result.getIterations(), 1);
+        Assert.assertEquals(result.getItemCount(), 20);
+        Assert.assertTrue(result.isSettled());
+        Assert.assertFalse(result.isAtEnd());
+    }
+
+    /**
+     * The settle loop must only wait for nodes being added or removed; attribute changes
+     * such as animations must not keep the page from settling.
+     */
+    @Test
+    public void testSettleLoopIgnoresAttributeMutations() {
+        FakeScrollPage page = new FakeScrollPage((script, args) -> Map.of(
+                "iterations", 3L, "elapsed", 900L, "settled", true, "items", -1L, "atEnd", true));
+
+        new SeleniumActions(page.driver, 10).scrollToEndOfPage();
+
+        Assert.assertTrue(page.script.contains("observe(document.body, { childList: true, subtree: true })"),
+                "The observer must watch the node tree");
+        Assert.assertFalse(page.script.contains("attributes"), "Attribute changes must not be observed");
+    }
+
+    /**
+     * The script timeout must be restored when the settle loop fails.
+     */
+    @Test
+    public void testScriptTimeoutIsRestoredWhenScrollFails() {
+        FakeScrollPage page = new FakeScrollPage((script, args) -> {
+            throw new ScriptTimeoutException("Ceiling exceeded");
+        });
+
+        Assert.expectThrows(ScriptTimeoutException.class,
+                () -> new SeleniumActions(page.driver, 10).scrollToStartOfPage());
+
+        Assert.assertEquals(page.args.subList(0, 3), Arrays.asList(-1L, 0L, null));
+        Assert.assertEquals(page.scriptTimeout, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Stand-in driver that answers the settle loop script and tracks the script timeout
+     */
+    private static final class FakeScrollPage {
+
+        private final WebDriver driver;
+        private final List<Duration> timeoutsDuringScript = new ArrayList<>();
+        private Duration scriptTimeout = Duration.ofSeconds(30);
+        private String script;
+        private List<Object> args;
+
+        private FakeScrollPage(Fakes.Handler scroll) {
+            WebDriver.Timeouts timeouts = Fakes.of(WebDriver.Timeouts.class, (method, a) -> {
+                switch (method) {
+                    case "getScriptTimeout":
+                        return scriptTimeout;
+                    case "getImplicitWaitTimeout":
+                        return Duration.ZERO;
+                    case "scriptTimeout":
+                        scriptTimeout = (Duration) a[0];
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+            WebDriver.Options options = Fakes.of(WebDriver.Options.class, (method, a) ->
+                    method.equals("timeouts") ? timeouts : null);
+            driver = Fakes.driver((method, a) -> {
+                if (method.equals("manage")) {
+                    return options;
+                }
+                if (method.equals("executeAsyncScript")) {
+                    script = (String) a[0];
+                    args = Arrays.stream((Object[]) a[1])
+                            .map(arg -> arg instanceof Integer ? Long.valueOf((Integer) arg) : arg)
+                            .collect(Collectors.toList());
+                    timeoutsDuringScript.add(scriptTimeout);
+                    return scroll.answer(method, a);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Stand-in driver holding one input that records what is typed into it
+     */
+    private static final class FakeInput {
+
+        private final List<String> typed = new ArrayList<>();
+        private final WebDriver driver;
+        private volatile String value;
+
+        /**
+         * @param value The initial value of the input
+         * @param clears Whether clear() empties the input
+         * @param scriptClears Whether setting the value via script empties the input
+         */
+        private FakeInput(String value, boolean clears, boolean scriptClears) {
+            this.value = value;
+            WebElement element = Fakes.of(WebElement.class, (method, args) -> {
+                switch (method) {
+                    case "getDomProperty":
+                        return "value".equals(args[0]) ? this.value : null;
+                    case "clear":
+                        if (clears) {
+                            this.value = "";
+                        }
+                        return null;
+                    case "sendKeys":
+                        for (Object keys : (Object[]) args[0]) {
+                            typed.add(keys.toString());
+                            this.value += keys;
+                        }
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+            driver = Fakes.driver((method, args) -> {
+                if (method.equals("findElement")) {
+                    return element;
+                }
+                if (method.equals("executeScript") && scriptClears) {
+                    this.value = (String) ((Object[]) args[1])[1];
+                }
+                return null;
+            });
+        }
+    }
+}
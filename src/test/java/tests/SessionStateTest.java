@@ -0,0 +1,102 @@
+package tests;
+
+import com.rentadsearchqa.utils.SessionState;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class for session state snapshots.
+ * Browsers are stand-in WebDriver proxies that record what is done to them.
+ */
+public class SessionStateTest {
+
+    private static final String RESULTS_URL = "https://www.xe.gr/property/results?geo_place_ids[]=1";
+
+    /**
+     * A snapshot saved to disk must restore the same cookies and localStorage, on the
+     * captured site, before opening the captured page; expired cookies must be skipped.
+     */
+    @Test
+    public void testSavedSnapshotRestoresCookiesAndStorage() throws IOException {
+        Cookie consent = new Cookie.Builder("consent", "1").domain(".xe.gr").path("/")
+                .expiresOn(new Date(System.currentTimeMillis() + 86_400_000L)).sameSite("Lax").build();
+        Cookie expired = new Cookie.Builder("old", "x").domain(".xe.gr").path("/")
+                .expiresOn(new Date(System.currentTimeMillis() - 86_400_000L)).build();
+        FakeBrowser captured = new FakeBrowser(Set.of(consent, expired), Map.of("recentSearch", "Παγκράτι"));
+
+        Path file = Files.createTempFile("session-state", ".json");
+        SessionState state;
+        try {
+            SessionState.capture(captured.driver).save(file);
+            state = SessionState.load(file);
+        } finally {
+            Files.delete(file);
+        }
+
+        FakeBrowser restored = new FakeBrowser(Set.of(), Map.of());
+        state.restore(restored.driver);
+
+        Assert.assertEquals(restored.visited, List.of("https://www.xe.gr/robots.txt", RESULTS_URL));
+        Assert.assertEquals(restored.added.size(), 1, "Expired cookies must not be restored");
+        Cookie cookie = restored.added.get(0);
+        Assert.assertEquals(cookie.getName(), "consent");
+        Assert.assertEquals(cookie.getDomain(), ".xe.gr");
+        Assert.assertEquals(cookie.getSameSite(), "Lax");
+        Assert.assertEquals(cookie.getExpiry().getTime() / 1000, consent.getExpiry().getTime() / 1000);
+        Assert.assertEquals(restored.storageWritten, Map.of("recentSearch", "Παγκράτι"));
+    }
+
+    /**
+     * WebDriver proxy on the results page with the given cookies and localStorage
+     */
+    private static final class FakeBrowser {
+
+        private final List<String> visited = new ArrayList<>();
+        private final List<Cookie> added = new ArrayList<>();
+        private Object storageWritten;
+        private final WebDriver driver;
+
+        private FakeBrowser(Set<Cookie> cookies, Map<String, String> localStorage) {
+            WebDriver.Options options = Fakes.of(WebDriver.Options.class, (method, args) -> {
+                if (method.equals("getCookies")) {
+                    return cookies;
+                }
+                if (method.equals("addCookie")) {
+                    added.add((Cookie) args[0]);
+                }
+                return null;
+            });
+            driver = Fakes.driver((method, args) -> {
+                switch (method) {
+                    case "manage":
+                        return options;
+                    case "getCurrentUrl":
+                        return RESULTS_URL;
+                    case "get":
+                        visited.add((String) args[0]);
+                        return null;
+                    case "executeScript":
+                        Object[] scriptArgs = (Object[]) args[1];
+                        if (scriptArgs.length == 0) {
+                            return localStorage;
+                        }
+                        storageWritten = scriptArgs[0];
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+}
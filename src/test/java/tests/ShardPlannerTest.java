@@ -0,0 +1,80 @@
+package tests;
+
+import com.rentadsearchqa.config.ShardPlanner;
+import com.rentadsearchqa.config.ShardingListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Test class for splitting tests over shards by recorded durations.
+ */
+public class ShardPlannerTest {
+
+    /**
+     * Longest tests must be spread first so the shards end up balanced, and a new test
+     * must be planned with the median recorded duration.
+     */
+    @Test
+    public void testLongestTestsAreBalancedFirst() {
+        ShardPlanner planner = new ShardPlanner(Map.of(
+                "a", 70_000L, "b", 50_000L, "c", 40_000L, "d", 30_000L, "e", 20_000L, "f", 10_000L));
+        Map<String, Integer> plan = planner.assign(List.of("f", "e", "d", "c", "b", "a", "new"), 2);
+
+        long[] load = new long[2];
+        plan.forEach((test, shard) -> load[shard] += planner.expectedMillis(test));
+        Assert.assertEquals(planner.expectedMillis("new"), 40_000L, "New tests take the median duration");
+        Assert.assertEquals(load[0] + load[1], 260_000L);
+        Assert.assertTrue(Math.abs(load[0] - load[1]) <= 20_000L, "Shards are unbalanced: " + load[0] + " / " + load[1]);
+        Assert.assertEquals(planner.assign(List.of("new", "a", "b", "c", "d", "e", "f"), 2), plan,
+                "Every worker must compute the same plan whatever the method order");
+    }
+
+    /**
+     * The rows of a data provider must be dealt out over the shards, every row to exactly one.
+     */
+    @Test
+    public void testDataProviderRowsAreSplitOverShards() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int row = 0; row < 7; row++) {
+            rows.add(new Object[]{"combination-" + row});
+        }
+        List<Object> seen = new ArrayList<>();
+        for (int index = 1; index <= 3; index++) {
+            Properties properties = new Properties();
+            properties.setProperty(ShardingListener.COUNT_PROPERTY, "3");
+            properties.setProperty(ShardingListener.INDEX_PROPERTY, String.valueOf(index));
+            new ShardingListener(properties).intercept(rows.iterator(), null, null, null)
+                    .forEachRemaining(row -> seen.add(row[0]));
+            if (index == 2) {
+                Assert.assertEquals(seen.subList(3, seen.size()), List.of("combination-1", "combination-4"));
+            }
+        }
+        Assert.assertEquals(new TreeSet<>(seen).size(), 7);
+        Assert.assertEquals(seen.size(), 7);
+    }
+
+    /**
+     * Durations written by the shards of a run must be read back together, blended with
+     * the earlier recording of each test.
+     */
+    @Test
+    public void testShardDurationsAreWrittenBackAndBlended() throws IOException {
+        Path history = Files.createTempDirectory("shard-history");
+        Map<String, Long> previous = Map.of("tests.A.slow", 60_000L);
+        ShardPlanner.writeHistory(history, 0, 2, Map.of("tests.A.slow", 40_000L), previous);
+        ShardPlanner.writeHistory(history, 1, 2, Map.of("tests.B.fast", 2_000L), previous);
+
+        Assert.assertTrue(Files.exists(history.resolve("shard-2-of-2.properties")));
+        Assert.assertEquals(ShardPlanner.loadHistory(history), Map.of("tests.A.slow", 50_000L, "tests.B.fast", 2_000L));
+        Assert.assertTrue(ShardPlanner.loadHistory(history.resolve("missing")).isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package tests;
+
+import com.rentadsearchqa.http.HttpResultsEngine;
+import com.rentadsearchqa.http.ResultsHtmlParser;
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.standin.StandInServer;
+import com.rentadsearchqa.standin.SyntheticAdGenerator;
+import com.rentadsearchqa.utils.ResultsUrlBuilder;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test class for the local xe.gr stand-in server.
+ *
+ * Checks that the synthetic results honour area, price and size filters and the
+ * ascending price order, by validating them with the browserless HTTP engine.
+ */
+public class StandInServerTest {
+
+    private static final List<Map<String, String>> FILTERS = List.of(
+            Map.of("title", "price", "min", "200", "max", "700"),
+            Map.of("title", "size", "min", "75", "max", "150"));
+
+    private StandInServer server;
+    private final HttpResultsEngine engine = new HttpResultsEngine();
+
+    @BeforeClass
+    public void startServer() {
+        server = new StandInServer(0, new SyntheticAdGenerator(1000, 42L));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * The same seed and count must produce the same ads.
+     */
+    @Test
+    public void testGeneratorIsRepeatable() {
+        SyntheticAdGenerator first = new SyntheticAdGenerator(500, 7L);
+        SyntheticAdGenerator second = new SyntheticAdGenerator(500, 7L);
+        for (int i = 0; i < first.getCount(); i++) {
+            Assert.assertEquals(first.getAdId(i), second.getAdId(i));
+            Assert.assertEquals(first.getTitle(i), second.getTitle(i));
+            Assert.assertEquals(first.getPrice(i), second.getPrice(i));
+        }
+        Assert.assertEquals(SyntheticAdGenerator.formatPrice(1200), "1.200 €");
+    }
+
+    /**
+     * Ad ids must be unique even for a million ads, so the duplicate-id check cannot fail falsely.
+     */
+    @Test
+    public void testAdIdsAreUnique() {
+        SyntheticAdGenerator ads = new SyntheticAdGenerator(1_000_000, 42L);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < ads.getCount(); i++) {
+            Assert.assertTrue(ids.add(ads.getAdId(i)), "Ad id " + ads.getAdId(i) + " is repeated");
+        }
+    }
+
+    /**
+     * Every page of filtered, sorted results for two areas must pass validation.
+     */
+    @Test
+    public void testFilteredResultsPassValidation() {
+        // The results URL the site opens after an area search, with the areas kept by the deep link
+        String resultsUrl = server.getBaseUrl() + "property/results"
+                + "?geo_place_ids%5B%5D=area-pagkrati&geo_place_ids%5B%5D=area-ano-pagkrati";
+
+        int pages = engine.filterAndValidateResults(resultsUrl, FILTERS);
+
+        Assert.assertTrue(pages > 1, "Expected several pages of results, got " + pages);
+    }
+
+    /**
+     * Results pages must render the first cards with a lazy-load sentinel, and the
+     * ads API must serve the remaining cards of the page.
+     */
+    @Test
+    public void testResultsPageLazyLoadsRemainingCards() {
+        String resultsUrl = new ResultsUrlBuilder(server.getBaseUrl() + "property/results").filters(FILTERS).build();
+        String html = engine.fetch(resultsUrl);
+        String lazyCards = engine.fetch(resultsUrl.replace("/property/results", "/api/ads")
+                + "&offset=" + StandInServer.RENDERED_CARDS + "&limit=" + StandInServer.LAZY_BATCH);
+
+        Assert.assertEquals(html.split("data-testid=\"property-ad-price\"", -1).length - 1,
+                StandInServer.RENDERED_CARDS);
+        Assert.assertTrue(html.contains("id=\"sentinel\""), "No lazy-load sentinel rendered");
+        Assert.assertTrue(html.contains("data-testid=\"results-state\""), "No embedded results state");
+        Assert.assertEquals(lazyCards.split("data-testid=\"property-ad-price\"", -1).length - 1,
+                StandInServer.LAZY_BATCH);
+    }
+
+    /**
+     * Cards whose images sit beside the title block inside a list that carries its own data-id
+     * must still read as one card each from the markup, with their own id and image count.
+     */
+    @Test
+    public void testCardMarkupMatchesEmbeddedState() {
+        String html = engine.fetch(new ResultsUrlBuilder(server.getBaseUrl() + "property/results").build());
+        ResultsHtmlParser parser = new ResultsHtmlParser("property");
+
+        List<AdCard> fromState = parser.parseAdCards(html);
+        List<AdCard> fromMarkup = parser.parseAdCards(
+                html.replaceAll("(?s)<script type=\"application/json\".*?</script>", ""));
+
+        Assert.assertTrue(html.contains("data-id=\"results-list\""), "The list must carry a data-id");
+        Assert.assertEquals(fromMarkup.size(), StandInServer.RENDERED_CARDS);
+        for (int i = 0; i < fromMarkup.size(); i++) {
+            Assert.assertEquals(fromMarkup.get(i).getAdId(), fromState.get(i).getAdId());
+            Assert.assertEquals(fromMarkup.get(i).getImageCount(), fromState.get(i).getImageCount());
+            Assert.assertEquals(fromMarkup.get(i).getRawPrice(), fromState.get(i).getRawPrice());
+        }
+    }
+
+    /**
+     * Pagination must link the first and last page and the pages around the current one,
+     * with the skipped pages left out.
+     */
+    @Test
+    public void testPaginationLinksWindowAroundCurrentPage() {
+        String resultsUrl = new ResultsUrlBuilder(server.getBaseUrl() + "property/results").page(10).build();
+        String html = engine.fetch(resultsUrl);
+        String pagination = html.substring(html.indexOf("<nav class=\"pagination\">"), html.indexOf("</nav>"));
+        int totalPages = (server.getAds().getCount() + StandInServer.PAGE_SIZE - 1) / StandInServer.PAGE_SIZE;
+
+        List<String> linked = new ArrayList<>();
+        Matcher link = Pattern.compile(">(\\d+)</a>").matcher(pagination);
+        while (link.find()) {
+            linked.add(link.group(1));
+        }
+
+        Assert.assertEquals(linked, List.of("1", "8", "9", "10", "11", "12", String.valueOf(totalPages)));
+        Assert.assertEquals(pagination.split("class=\"ellipsis\"", -1).length - 1, 2);
+    }
+}
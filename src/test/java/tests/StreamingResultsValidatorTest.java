@@ -0,0 +1,137 @@
+package tests;
+
+import com.rentadsearchqa.locators.components.AdCardBatches;
+import com.rentadsearchqa.locators.components.ResultsPage;
+import com.rentadsearchqa.models.AdCard;
+import com.rentadsearchqa.utils.ScrollResult;
+import com.rentadsearchqa.validation.ResultsValidator;
+import com.rentadsearchqa.validation.StreamingResultsValidator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for validation rules that span result pages.
+ */
+public class StreamingResultsValidatorTest {
+
+    private static final List<Map<String, String>> FILTERS = List.of(
+            Map.of("title", "price", "min", "200", "max", "2000"),
+            Map.of("title", "size", "min", "50", "max", "150"));
+
+    private final ResultsValidator resultsValidator = new ResultsValidator();
+
+    /**
+     * Each page is sorted on its own, but the second page starts below the end of the first.
+     */
+    @Test
+    public void testPriceDropAtPageBoundaryFails() {
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        validation.acceptPage(1, List.of(card("101", "400 €"), card("102", "650 €")), new int[]{1, 1});
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> validation.acceptPage(2,
+                List.of(card("103", "600 €"), card("104", "700 €")), new int[]{1, 1}));
+
+        Assert.assertEquals(error.getMessage(), "Property prices are not sorted ascending. "
+                + "Price 600 on page 2, ad 1 is less than previous price 650 on page 1, ad 2");
+    }
+
+    @Test
+    public void testAdListedOnTwoPagesFails() {
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        validation.acceptPage(1, List.of(card("101", "400 €"), card("102", "650 €")), new int[]{1, 1});
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> validation.acceptPage(2,
+                List.of(card("103", "700 €"), card("102", "650 €")), new int[]{1, 1}));
+
+        Assert.assertEquals(error.getMessage(),
+                "Property 102 on page 2, ad 2 was already listed on page 1, ad 2");
+    }
+
+    /**
+     * A large sorted result set with thousands-formatted prices passes and keeps running statistics.
+     */
+    @Test
+    public void testLargeResultSetPasses() {
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        int pages = 2000;
+        for (int page = 1; page <= pages; page++) {
+            List<AdCard> cards = new ArrayList<>(30);
+            for (int index = 0; index < 30; index++) {
+                int ad = (page - 1) * 30 + index;
+                String price = 200 + ad / 40 >= 1000
+                        ? (200 + ad / 40) / 1000 + "." + String.format("%03d", (200 + ad / 40) % 1000) + " €"
+                        : (200 + ad / 40) + " €";
+                cards.add(new AdCard(String.valueOf(100_000_000L + ad), "Διαμέρισμα", price, "85 τ.μ.", 5));
+            }
+            validation.acceptPage(page, cards, ResultsValidator.imageCounts(cards));
+        }
+
+        Assert.assertEquals(validation.getAdCount(), 60_000);
+        Assert.assertEquals(validation.getDistinctAdIds(), 60_000);
+        Assert.assertEquals(validation.getLowestPrice(), 20_000L);
+        Assert.assertEquals(validation.getHighestPrice(), (200 + 59_999 / 40) * 100L);
+    }
+
+    /**
+     * Batches of one page continue its ad numbering, and batches are consumed while
+     * the page loads: a violation in the second batch stops the scroll there.
+     */
+    @Test
+    public void testBatchesStopScrollingAtFirstViolation() {
+        LazyResultsPage page = new LazyResultsPage(List.of(
+                List.of(card("101", "300 €"), card("102", "350 €")),
+                List.of(card("103", "2.500 €"), card("104", "400 €")),
+                List.of(card("105", "450 €"))));
+        StreamingResultsValidator validation = resultsValidator.start(FILTERS);
+        AdCardBatches batches = page.streamAdCards("property");
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> {
+            while (batches.hasNext()) {
+                List<AdCard> batch = batches.next();
+                validation.acceptBatch(1, batch, ResultsValidator.imageCounts(batch));
+            }
+        });
+
+        Assert.assertEquals(error.getMessage(), "Property price 2500 not in range 200-2000 on page 1, ad 3");
+        Assert.assertEquals(page.steps, 1, "Scrolling must stop at the batch with the violation");
+    }
+
+    /**
+     * Results page whose cards appear one batch per scroll step, without a browser
+     */
+    private static final class LazyResultsPage extends ResultsPage {
+
+        private final List<List<AdCard>> batches;
+        private final List<AdCard> loaded = new ArrayList<>();
+        private int steps;
+
+        private LazyResultsPage(List<List<AdCard>> batches) {
+            super(null);
+            this.batches = batches;
+            loaded.addAll(batches.get(0));
+        }
+
+        @Override
+        public List<AdCard> extractAdCards(String item, int from) {
+            return new ArrayList<>(loaded.subList(from, loaded.size()));
+        }
+
+        @Override
+        public ScrollResult scrollStep(String itemSelector) {
+            steps++;
+            boolean more = steps < batches.size();
+            if (more) {
+                loaded.addAll(batches.get(steps));
+            }
+            return new ScrollResult(1, 0, true, loaded.size(), !more);
+        }
+    }
+
+    private static AdCard card(String id, String price) {
+        return new AdCard(id, "Διαμέρισμα 80 τ.μ.", price, "80 τ.μ.", 1);
+    }
+}